@@ -2,6 +2,10 @@
 -- Function: fn_calcula_saldo_cliente
 -- Description: Calcula o saldo total do cliente considerando
 --             transações de crédito e débito e saldo inicial.
+--             Para cada conta parte do último snapshot diário
+--             anterior a hoje (daily_balance_snapshots) e soma
+--             apenas as transações posteriores a ele; contas sem
+--             snapshot somam o histórico a partir do saldo inicial.
 -- ================================================
 
 CREATE OR REPLACE FUNCTION fn_calcula_saldo_cliente(p_customer_id UUID)
@@ -9,23 +13,30 @@ RETURNS NUMERIC AS $$
 DECLARE
 v_saldo NUMERIC := 0;
 BEGIN
-    -- Soma transações (positivas e negativas)
-SELECT COALESCE(SUM(
-                        CASE
-                            WHEN t.type = 'CREDIT' THEN t.amount
-                            WHEN t.type = 'DEBIT' THEN -t.amount
-                            ELSE 0
-                            END
-                ), 0)
-INTO v_saldo
-FROM transactions t
-         INNER JOIN accounts a ON t.account_id = a.id
-WHERE a.customer_id = p_customer_id;
-
--- Soma os saldos iniciais das contas
-SELECT v_saldo + COALESCE(SUM(a.initial_balance), 0)
+SELECT COALESCE(SUM(COALESCE(s.closing_balance, a.initial_balance) + COALESCE(d.delta, 0)), 0)
 INTO v_saldo
 FROM accounts a
+         LEFT JOIN LATERAL (
+    SELECT s.closing_balance, s.snapshot_date
+    FROM daily_balance_snapshots s
+    WHERE s.account_id = a.id
+      AND s.snapshot_date < CURRENT_DATE
+    ORDER BY s.snapshot_date DESC
+    LIMIT 1
+    ) s ON TRUE
+         LEFT JOIN LATERAL (
+    -- Soma transações (positivas e negativas) posteriores ao snapshot
+    SELECT SUM(
+                   CASE
+                       WHEN t.type = 'CREDIT' THEN t.amount
+                       WHEN t.type = 'DEBIT' THEN -t.amount
+                       ELSE 0
+                       END
+           ) AS delta
+    FROM transactions t
+    WHERE t.account_id = a.id
+      AND (s.snapshot_date IS NULL OR t.date >= s.snapshot_date + 1)
+    ) d ON TRUE
 WHERE a.customer_id = p_customer_id;
 
 RETURN v_saldo;
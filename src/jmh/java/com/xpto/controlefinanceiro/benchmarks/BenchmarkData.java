@@ -0,0 +1,81 @@
+package com.xpto.controlefinanceiro.benchmarks;
+
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CompanyRevenueReportDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Massa de dados em memória dos benchmarks, gerada com semente fixa para que execuções antes e depois
+ * de uma otimização usem exatamente os mesmos dados.
+ */
+final class BenchmarkData {
+
+    static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+    static final LocalDate CUSTOMER_SINCE = TODAY.minusYears(1);
+
+    private BenchmarkData() {
+    }
+
+    static Customer customer(int index) {
+        return Customer.builder()
+                .id(new UUID(index, index))
+                .name("Cliente " + index)
+                .customerType(CustomerType.PF)
+                .cpf(String.format("%011d", index))
+                .phone("81999990000")
+                .createdAt(CUSTOMER_SINCE)
+                .addresses(List.of())
+                .build();
+    }
+
+    static List<Customer> customers(int size) {
+        List<Customer> customers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            customers.add(customer(i));
+        }
+        return customers;
+    }
+
+    // Transações de uma conta espalhadas pelo último ano, metade crédito e metade débito
+    static List<Transaction> transactions(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        Account account = Account.builder().id(new UUID(1, 1)).customer(customer(1)).build();
+        LocalDateTime start = CUSTOMER_SINCE.atStartOfDay();
+        long seconds = Duration.between(start, TODAY.atStartOfDay()).toSeconds();
+
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transactions.add(Transaction.builder()
+                    .id(new UUID(i, 7))
+                    .account(account)
+                    .type(i % 2 == 0 ? TransactionType.CREDIT : TransactionType.DEBIT)
+                    .amount(BigDecimal.valueOf(random.nextLong(1, 100_000), 2))
+                    .date(start.plusSeconds(random.nextLong(seconds)))
+                    .description("Transação " + i)
+                    .build());
+        }
+        return transactions;
+    }
+
+    static List<CompanyRevenueReportDTO.CustomerRevenue> revenues(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<CompanyRevenueReportDTO.CustomerRevenue> revenues = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            revenues.add(new CompanyRevenueReportDTO.CustomerRevenue(
+                    "Cliente " + i, random.nextLong(1, 500), BigDecimal.valueOf(random.nextLong(1, 10_000_000), 2)));
+        }
+        return revenues;
+    }
+}
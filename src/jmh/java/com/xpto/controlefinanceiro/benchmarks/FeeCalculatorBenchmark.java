@@ -0,0 +1,46 @@
+package com.xpto.controlefinanceiro.benchmarks;
+
+import com.xpto.controlefinanceiro.modules.reports.fee.FeeCalculator;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo da taxa total (o que ReportMapper.calculateTotalFee delega ao FeeCalculator).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FeeCalculatorBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int transactions;
+
+    private List<Transaction> data;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkData.transactions(transactions);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalFee() {
+        return FeeCalculator.calculateTotalFee(BenchmarkData.CUSTOMER_SINCE, data, BenchmarkData.TODAY);
+    }
+}
@@ -0,0 +1,70 @@
+package com.xpto.controlefinanceiro.benchmarks;
+
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.journal.LedgerJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de escrever uma transação no diário (o que o commit de POST /transactions paga a mais com
+ * xpto.transactions.journal.enabled), com o fsync em grupo rodando em segundo plano como em produção.
+ * O modo SampleTime dá os percentis (p0.99 deve ficar abaixo de 50µs); 4 threads disputam o lock do diário
+ * como requisições de contas diferentes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class LedgerJournalBenchmark {
+
+    private Path directory;
+    private LedgerJournal journal;
+    private List<TransactionResponseDTO> transaction;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("ledger-journal-benchmark");
+        journal = new LedgerJournal(true, directory, DataSize.ofMegabytes(64), Duration.ofMillis(10), new SimpleMeterRegistry());
+        transaction = List.of(new TransactionResponseDTO(UUID.randomUUID(), UUID.randomUUID(), TransactionType.CREDIT,
+                new BigDecimal("123.45"), LocalDateTime.now(), "Benchmark"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long append() {
+        return journal.append(transaction);
+    }
+}
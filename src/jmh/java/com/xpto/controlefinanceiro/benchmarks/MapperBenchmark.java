@@ -0,0 +1,70 @@
+package com.xpto.controlefinanceiro.benchmarks;
+
+import com.xpto.controlefinanceiro.modules.customer.mappers.CustomerMapper;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CustomerBalanceReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.mapper.ReportMapper;
+import com.xpto.controlefinanceiro.modules.transaction.mappers.TransactionMapper;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mappers de entidade para DTO sobre listas do tamanho do parâmetro, e a montagem do relatório de
+ * saldo do cliente (contagens, taxa e formatação) sobre as transações do cliente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MapperBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private List<Transaction> transactions;
+    private List<Customer> customers;
+    private Customer customer;
+
+    @Setup
+    public void setup() {
+        transactions = BenchmarkData.transactions(size);
+        customers = BenchmarkData.customers(size);
+        customer = BenchmarkData.customer(1);
+    }
+
+    @Benchmark
+    public void transactionToResponseDTO(Blackhole blackhole) {
+        for (Transaction transaction : transactions) {
+            blackhole.consume(TransactionMapper.toResponseDTO(transaction));
+        }
+    }
+
+    @Benchmark
+    public void customerToResponseDTO(Blackhole blackhole) {
+        for (Customer c : customers) {
+            blackhole.consume(CustomerMapper.toResponseDTO(c));
+        }
+    }
+
+    @Benchmark
+    public CustomerBalanceReportDTO toCustomerBalanceReport() {
+        return ReportMapper.toCustomerBalanceReport(customer, transactions, BigDecimal.TEN, BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,96 @@
+package com.xpto.controlefinanceiro.benchmarks;
+
+import com.xpto.controlefinanceiro.modules.reports.dtos.CompanyRevenueReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CustomersBalanceSummaryReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.parallel.PartitionedReportExecutor;
+import com.xpto.controlefinanceiro.modules.reports.projections.CustomerBalanceRow;
+import com.xpto.controlefinanceiro.modules.reports.repository.ReportRepository;
+import com.xpto.controlefinanceiro.modules.reports.services.ReportServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem dos relatórios de todos os clientes no ReportServiceImpl (paginação, formatação e somas em
+ * BigDecimal), com um repositório em memória no lugar do banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReportAssemblyBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int customers;
+
+    private ReportServiceImpl reportService;
+
+    @Setup
+    public void setup() {
+        List<CompanyRevenueReportDTO.CustomerRevenue> revenues = BenchmarkData.revenues(customers);
+        List<CustomerBalanceRow> balances = new ArrayList<>(customers);
+        for (int i = 0; i < customers; i++) {
+            // Ids 1..n no lsb: o afterId de cada página diz direto onde a próxima começa
+            balances.add(new CustomerBalanceRow(new UUID(0, i + 1), "Cliente " + i,
+                    BenchmarkData.CUSTOMER_SINCE, revenues.get(i).totalAmount()));
+        }
+
+        ReportRepository repository = new ReportRepository() {
+            @Override
+            public List<CustomerBalanceRow> findCustomerBalances(LocalDate date, LocalDateTime dayStart,
+                                                                 LocalDateTime until, UUID afterId, UUID lastId,
+                                                                 Limit limit) {
+                int from = (int) Math.min(afterId.getLeastSignificantBits(), balances.size());
+                return balances.subList(from, Math.min(from + limit.max(), balances.size()));
+            }
+
+            @Override
+            public List<CompanyRevenueReportDTO.CustomerRevenue> findCustomerRevenues(LocalDateTime from, LocalDateTime to,
+                                                                                      UUID afterId, UUID lastId) {
+                return revenues;
+            }
+
+            @Override
+            public long countCustomers() {
+                return balances.size();
+            }
+
+            @Override
+            public List<UUID> findCustomerIds(Pageable pageable) {
+                return List.of(balances.get((int) pageable.getOffset()).customerId());
+            }
+        };
+
+        reportService = new ReportServiceImpl(null, null, null, repository,
+                new PartitionedReportExecutor(1, false, null, null));
+    }
+
+    @Benchmark
+    public CompanyRevenueReportDTO companyRevenueReport() {
+        return reportService.generateCompanyRevenueReport(BenchmarkData.CUSTOMER_SINCE, BenchmarkData.TODAY);
+    }
+
+    @Benchmark
+    public CustomersBalanceSummaryReportDTO balanceSummaryReport() {
+        return reportService.generateSummaryReport(BenchmarkData.TODAY);
+    }
+}
@@ -0,0 +1,16 @@
+package com.xpto.controlefinanceiro.common.events;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Publicado por quem altera o saldo de uma conta, com o saldo resultante lido na própria transação.
+ * Quem escuta após o commit recebe os eventos de uma conta na ordem das escritas (elas são serializadas
+ * pelo lock da conta).
+ */
+public record AccountBalanceChangedEvent(
+        UUID accountId,
+        UUID customerId,
+        BigDecimal balance
+) {
+}
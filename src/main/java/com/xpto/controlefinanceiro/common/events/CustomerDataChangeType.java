@@ -0,0 +1,12 @@
+package com.xpto.controlefinanceiro.common.events;
+
+public enum CustomerDataChangeType {
+    // Nova transação: muda saldos a partir da data da transação e a receita do período que a contém
+    TRANSACTION,
+    // Conta criada ou alterada: muda os saldos do cliente em qualquer data
+    ACCOUNT,
+    // Nome do cliente: aparece em todos os relatórios
+    PROFILE,
+    // Endereço: aparece só nos relatórios do próprio cliente
+    ADDRESS
+}
@@ -0,0 +1,28 @@
+package com.xpto.controlefinanceiro.common.events;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Publicado quando dados que aparecem nos relatórios de um cliente mudam.
+ * Nas transações avulsas só a conta é conhecida; o cliente é resolvido por quem consome o evento.
+ */
+public record CustomerDataChangedEvent(
+        UUID customerId,
+        UUID accountId,
+        CustomerDataChangeType type,
+        LocalDate date
+) {
+
+    public static CustomerDataChangedEvent transaction(UUID accountId, LocalDate date) {
+        return new CustomerDataChangedEvent(null, accountId, CustomerDataChangeType.TRANSACTION, date);
+    }
+
+    public static CustomerDataChangedEvent transaction(UUID customerId, UUID accountId, LocalDate date) {
+        return new CustomerDataChangedEvent(customerId, accountId, CustomerDataChangeType.TRANSACTION, date);
+    }
+
+    public static CustomerDataChangedEvent of(UUID customerId, CustomerDataChangeType type) {
+        return new CustomerDataChangedEvent(customerId, null, type, null);
+    }
+}
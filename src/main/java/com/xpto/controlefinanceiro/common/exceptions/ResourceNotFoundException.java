@@ -0,0 +1,11 @@
+package com.xpto.controlefinanceiro.common.exceptions;
+
+/**
+ * Base das exceções de recurso inexistente dos módulos, para quem precisa tratá-las juntas (métricas) sem
+ * conhecer cada uma.
+ */
+public abstract class ResourceNotFoundException extends RuntimeException {
+    protected ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
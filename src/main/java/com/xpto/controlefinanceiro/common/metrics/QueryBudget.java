@@ -0,0 +1,32 @@
+package com.xpto.controlefinanceiro.common.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de comandos SQL que uma rota pode executar por requisição. Rotas sem a anotação usam
+ * xpto.sql.query-budget.default. O orçamento não deve depender da quantidade de dados: uma rota que
+ * passa a fazer uma consulta por item (N+1) estoura o orçamento assim que a lista cresce. Rotas que
+ * recebem uma lista (lote) declaram {@link #perItem()} e informam a quantidade de itens da requisição no
+ * atributo {@link #ITEMS_ATTRIBUTE}; o orçamento passa a ser value + perItem × itens.
+ * <p>
+ * Só entram na conta os comandos da thread da requisição ({@link SqlStatementCounter}). O que roda em
+ * outras threads — a fila de gravação (xpto.transactions.pipeline), a exportação de transações e as
+ * faixas do relatório paralelo — não é contado, e essas rotas não são protegidas pelo orçamento.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    // Rotas que por natureza percorrem todas as contas (reconstrução de snapshots)
+    int UNLIMITED = Integer.MAX_VALUE;
+
+    // Atributo da requisição com a quantidade de itens, preenchido pela rota que declara perItem
+    String ITEMS_ATTRIBUTE = "xpto.queryBudget.items";
+
+    int value();
+
+    int perItem() default 0;
+}
@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.common.metrics;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
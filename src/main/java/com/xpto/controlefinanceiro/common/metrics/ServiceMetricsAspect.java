@@ -0,0 +1,82 @@
+package com.xpto.controlefinanceiro.common.metrics;
+
+import com.xpto.controlefinanceiro.common.exceptions.ResourceNotFoundException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede todos os métodos públicos das classes *ServiceImpl: um timer com histograma de percentis por
+ * classe, método e resultado (xpto.service.calls), além de contadores para saldo insuficiente e para
+ * recursos não encontrados. Os contadores só olham a chamada mais externa, para que um serviço
+ * chamando outro não conte a mesma falha duas vezes.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    public static final String SERVICE_CALLS = "xpto.service.calls";
+    public static final String INSUFFICIENT_BALANCE = "xpto.transactions.insufficient.balance";
+    public static final String NOT_FOUND = "xpto.not.found";
+
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final MeterRegistry registry;
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.xpto.controlefinanceiro..*ServiceImpl.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        int[] depth = DEPTH.get();
+        depth[0]++;
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            if (depth[0] == 1) {
+                countFailure(e, className);
+            }
+            throw e;
+        } finally {
+            depth[0]--;
+            Timer.builder(SERVICE_CALLS)
+                    .description("Tempo das chamadas aos serviços")
+                    .tag("class", className)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void countFailure(Throwable e, String className) {
+        if (e instanceof InsufficientBalanceException) {
+            Counter.builder(INSUFFICIENT_BALANCE)
+                    .description("Débitos recusados por saldo insuficiente")
+                    .register(registry)
+                    .increment();
+        } else if (e instanceof EntityNotFoundException || e instanceof ResourceNotFoundException) {
+            Counter.builder(NOT_FOUND)
+                    .description("Consultas a recursos inexistentes")
+                    .tag("class", className)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.xpto.controlefinanceiro.common.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread atual, entre start() e stop().
+ * Registrado como StatementInspector do Hibernate; fora de uma contagem ativa não faz nada.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        COUNT.set(new long[1]);
+    }
+
+    public long current() {
+        long[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    public long stop() {
+        long statements = current();
+        COUNT.remove();
+        return statements;
+    }
+}
@@ -0,0 +1,104 @@
+package com.xpto.controlefinanceiro.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Registra quantos comandos SQL cada requisição executou (xpto.db.statements), por método e rota, e
+ * compara com o orçamento da rota ({@link QueryBudget}). Requisições acima do orçamento geram um aviso no
+ * log e incrementam xpto.db.query.budget.exceeded; com xpto.sql.query-budget.fail-on-exceed (perfil de
+ * teste) a requisição falha com {@link QueryBudgetExceededException}, derrubando o teste de integração.
+ */
+@Component
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String DB_STATEMENTS = "xpto.db.statements";
+    public static final String QUERY_BUDGET_EXCEEDED = "xpto.db.query.budget.exceeded";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementMetricsFilter.class);
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry registry;
+    private final int defaultBudget;
+    private final boolean failOnExceed;
+
+    public SqlStatementMetricsFilter(SqlStatementCounter counter, MeterRegistry registry,
+                                     @Value("${xpto.sql.query-budget.default:20}") int defaultBudget,
+                                     @Value("${xpto.sql.query-budget.fail-on-exceed:false}") boolean failOnExceed) {
+        this.counter = counter;
+        this.registry = registry;
+        this.defaultBudget = defaultBudget;
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        counter.start();
+        long statements;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements = counter.stop();
+            DistributionSummary.builder(DB_STATEMENTS)
+                    .description("Comandos SQL por requisição")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri(request))
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(statements);
+        }
+        checkBudget(request, statements);
+    }
+
+    private void checkBudget(HttpServletRequest request, long statements) {
+        long budget = budget(request);
+        if (statements <= budget) {
+            return;
+        }
+
+        String message = "%s %s executed %d SQL statements (budget %d)"
+                .formatted(request.getMethod(), uri(request), statements, budget);
+        Counter.builder(QUERY_BUDGET_EXCEEDED)
+                .description("Requisições acima do orçamento de comandos SQL")
+                .tag("method", request.getMethod())
+                .tag("uri", uri(request))
+                .register(registry)
+                .increment();
+        log.warn(message);
+        if (failOnExceed) {
+            throw new QueryBudgetExceededException(message);
+        }
+    }
+
+    private long budget(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            QueryBudget annotation = handler.getMethodAnnotation(QueryBudget.class);
+            if (annotation != null) {
+                // Rotas de lote: parte fixa mais uma parcela por item recebido
+                long items = request.getAttribute(QueryBudget.ITEMS_ATTRIBUTE) instanceof Integer count ? count : 0;
+                return annotation.value() + (long) annotation.perItem() * items;
+            }
+        }
+        return defaultBudget;
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
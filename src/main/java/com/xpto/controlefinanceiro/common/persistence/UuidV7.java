@@ -0,0 +1,44 @@
+package com.xpto.controlefinanceiro.common.persistence;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera UUIDs versão 7 (RFC 9562): 48 bits de timestamp em milissegundos, versão, 12 bits de contador e
+ * 62 bits aleatórios. Ids gerados depois são maiores na ordem do banco (bytes sem sinal), então as
+ * inserções caem sempre no fim do índice da chave primária, em vez de em páginas aleatórias.
+ * Dentro do mesmo milissegundo o contador garante ordem estrita; se ele estourar, o timestamp avança.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Últimos (timestamp << 12 | contador) emitidos nesta JVM
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        long now = epochMillis << 12;
+        long state;
+        long last;
+        do {
+            last = LAST.get();
+            state = now > last ? now : last + 1;
+        } while (!LAST.compareAndSet(last, state));
+
+        long msb = (state >>> 12) << 16 | 0x7000L | (state & 0xFFFL);
+        long lsb = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    public static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -7,7 +7,17 @@ import com.xpto.controlefinanceiro.modules.customer.exceptions.CnpjAlreadyExists
 import com.xpto.controlefinanceiro.modules.customer.exceptions.CpfAlreadyExistsException;
 import com.xpto.controlefinanceiro.modules.customer.exceptions.CustomerDeletionException;
 import com.xpto.controlefinanceiro.modules.customer.exceptions.CustomerNotFoundException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.InvalidReportJobException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobNotFinishedException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobNotFoundException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobQueueFullException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.BatchSizeExceededException;
 import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InvalidCursorException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.IdempotencyKeyConflictException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InvalidIdempotencyKeyException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InvalidTransferException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.TransactionPipelineFullException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -119,4 +129,104 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ResponseEntity<ApiErrorResponse> handleBatchSizeExceeded(BatchSizeExceededException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Batch Too Large",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Cursor",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidTransferException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidTransfer(InvalidTransferException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Transfer",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Idempotency Key",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<ApiErrorResponse> handleIdempotencyKeyConflict(IdempotencyKeyConflictException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                "Idempotency Key Conflict",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(TransactionPipelineFullException.class)
+    public ResponseEntity<ApiErrorResponse> handleTransactionPipelineFull(TransactionPipelineFullException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Transaction Pipeline Full",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ReportJobNotFoundException.class)
+    public ResponseEntity<ApiErrorResponse> handleReportJobNotFound(ReportJobNotFoundException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                "Report Job Not Found",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ReportJobNotFinishedException.class)
+    public ResponseEntity<ApiErrorResponse> handleReportJobNotFinished(ReportJobNotFinishedException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Report Job Not Finished",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidReportJobException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidReportJob(InvalidReportJobException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Report Job",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ReportJobQueueFullException.class)
+    public ResponseEntity<ApiErrorResponse> handleReportJobQueueFull(ReportJobQueueFullException ex) {
+        ApiErrorResponse error = new ApiErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Report Job Queue Full",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 }
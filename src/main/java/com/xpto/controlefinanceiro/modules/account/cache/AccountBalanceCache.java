@@ -0,0 +1,183 @@
+package com.xpto.controlefinanceiro.modules.account.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xpto.controlefinanceiro.common.concurrency.WorkerThreads;
+import com.xpto.controlefinanceiro.common.events.AccountBalanceChangedEvent;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangeType;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
+import com.xpto.controlefinanceiro.modules.account.dtos.AccountResponseDTO;
+import com.xpto.controlefinanceiro.modules.account.mappers.AccountMapper;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cache das contas mais lidas (GET /accounts/{id}) e do saldo total por cliente, limitado em tamanho
+ * (despejo W-TinyLFU do Caffeine). Só guarda valores já commitados: a carga lê do banco e as escritas
+ * chegam depois do commit, com o saldo absoluto da conta (write-through). Como a carga de uma chave roda
+ * dentro do compute do Caffeine, uma escrita que chega durante a carga espera e é aplicada por cima dela.
+ * Escritas feitas fora desta instância (outro nó, SQL manual) são corrigidas pela verificação periódica,
+ * que compara as entradas com o banco.
+ */
+@Component
+public class AccountBalanceCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountBalanceCache.class);
+
+    private final Cache<UUID, AccountResponseDTO> accounts;
+    // Resultado de fn_calcula_saldo_cliente; como a função não é incremental, é removido a cada escrita
+    private final Cache<UUID, BigDecimal> customerBalances;
+    private final AccountRepository accountRepository;
+    private final CustomerRepository customerRepository;
+    private final Counter mismatches;
+    private final int verifyBatchSize;
+    private final ScheduledExecutorService verifier;
+
+    public AccountBalanceCache(AccountRepository accountRepository,
+                               CustomerRepository customerRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${xpto.accounts.balance-cache.max-size:10000}") long maxSize,
+                               @Value("${xpto.accounts.balance-cache.verify-interval:1m}") Duration verifyInterval,
+                               @Value("${xpto.accounts.balance-cache.verify-batch-size:500}") int verifyBatchSize) {
+        this.accountRepository = accountRepository;
+        this.customerRepository = customerRepository;
+        this.accounts = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        this.customerBalances = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        this.verifyBatchSize = Math.max(1, verifyBatchSize);
+        this.mismatches = Counter.builder("xpto.accounts.balance.cache.mismatches")
+                .description("Entradas do cache de saldos divergentes do banco, corrigidas pela verificação")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, "account-balances");
+        CaffeineCacheMetrics.monitor(meterRegistry, customerBalances, "customer-balances");
+
+        if (verifyInterval.isZero() || verifyInterval.isNegative()) {
+            this.verifier = null;
+        } else {
+            this.verifier = Executors.newSingleThreadScheduledExecutor(WorkerThreads.factory("balance-cache-verifier-", false));
+            long millis = verifyInterval.toMillis();
+            verifier.scheduleWithFixedDelay(this::verifyQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public AccountResponseDTO account(UUID accountId, Function<UUID, AccountResponseDTO> loader) {
+        return accounts.get(accountId, loader);
+    }
+
+    public BigDecimal customerBalance(UUID customerId, Function<UUID, BigDecimal> loader) {
+        return customerBalances.get(customerId, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountBalanceChanged(AccountBalanceChangedEvent event) {
+        accounts.asMap().computeIfPresent(event.accountId(), (id, cached) -> withBalance(cached, event.balance()));
+        customerBalances.invalidate(event.customerId());
+    }
+
+    // Conta criada, alterada ou desativada, ou cliente alterado/removido: descarta tudo o que é do cliente
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerDataChanged(CustomerDataChangedEvent event) {
+        if (event.customerId() == null
+                || (event.type() != CustomerDataChangeType.ACCOUNT && event.type() != CustomerDataChangeType.PROFILE)) {
+            return;
+        }
+        accounts.asMap().values().removeIf(cached -> event.customerId().equals(cached.customerId()));
+        customerBalances.invalidate(event.customerId());
+    }
+
+    /**
+     * Compara as entradas em cache com o banco e corrige as divergentes. Uma entrada só é trocada se não
+     * mudou desde que foi lida para a comparação, para não desfazer uma escrita mais nova.
+     *
+     * @return quantidade de entradas corrigidas
+     */
+    public int verify() {
+        int fixed = 0;
+
+        List<Map.Entry<UUID, AccountResponseDTO>> cached = new ArrayList<>(accounts.asMap().entrySet());
+        for (int from = 0; from < cached.size(); from += verifyBatchSize) {
+            List<Map.Entry<UUID, AccountResponseDTO>> batch = cached.subList(from, Math.min(from + verifyBatchSize, cached.size()));
+            Map<UUID, Account> current = accountRepository.findAllById(batch.stream().map(Map.Entry::getKey).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+            for (Map.Entry<UUID, AccountResponseDTO> entry : batch) {
+                Account account = current.get(entry.getKey());
+                if (account == null) {
+                    fixed += accounts.asMap().remove(entry.getKey(), entry.getValue()) ? 1 : 0;
+                    continue;
+                }
+                AccountResponseDTO fresh = AccountMapper.toResponseDTO(account);
+                if (!sameAccount(entry.getValue(), fresh)) {
+                    fixed += accounts.asMap().replace(entry.getKey(), entry.getValue(), fresh) ? 1 : 0;
+                }
+            }
+        }
+
+        List<Map.Entry<UUID, BigDecimal>> totals = new ArrayList<>(customerBalances.asMap().entrySet());
+        for (Map.Entry<UUID, BigDecimal> entry : totals.subList(0, Math.min(verifyBatchSize, totals.size()))) {
+            BigDecimal fresh = customerRepository.calcularSaldoCliente(entry.getKey());
+            if (fresh == null || fresh.compareTo(entry.getValue()) != 0) {
+                fixed += customerBalances.asMap().remove(entry.getKey(), entry.getValue()) ? 1 : 0;
+            }
+        }
+
+        if (fixed > 0) {
+            mismatches.increment(fixed);
+            log.warn("Balance cache verification fixed {} stale entries", fixed);
+        }
+        return fixed;
+    }
+
+    public void invalidateAll() {
+        accounts.invalidateAll();
+        customerBalances.invalidateAll();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (verifier != null) {
+            verifier.shutdownNow();
+        }
+    }
+
+    // Uma exceção encerraria as execuções seguintes do agendamento
+    private void verifyQuietly() {
+        try {
+            verify();
+        } catch (RuntimeException e) {
+            log.warn("Balance cache verification failed", e);
+        }
+    }
+
+    private static boolean sameAccount(AccountResponseDTO cached, AccountResponseDTO fresh) {
+        return cached.balance().compareTo(fresh.balance()) == 0
+                && withBalance(cached, fresh.balance()).equals(fresh);
+    }
+
+    private static AccountResponseDTO withBalance(AccountResponseDTO account, BigDecimal balance) {
+        return new AccountResponseDTO(account.id(), account.bank(), account.agency(), account.number(), balance,
+                account.initialBalance(), account.customerId(), account.active());
+    }
+}
@@ -1,6 +1,8 @@
 package com.xpto.controlefinanceiro.modules.account.exceptions;
 
-public class AccountNotFoundException extends RuntimeException{
+import com.xpto.controlefinanceiro.common.exceptions.ResourceNotFoundException;
+
+public class AccountNotFoundException extends ResourceNotFoundException{
     public AccountNotFoundException(String msg) {
         super(msg);
     }
@@ -1,5 +1,6 @@
 package com.xpto.controlefinanceiro.modules.account.model;
 
+import com.xpto.controlefinanceiro.common.persistence.TimeOrderedUuid;
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import jakarta.persistence.*;
 import lombok.*;
@@ -16,7 +17,7 @@ import java.util.UUID;
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -0,0 +1,11 @@
+package com.xpto.controlefinanceiro.modules.account.projections;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record AccountBalanceRow(
+        UUID accountId,
+        UUID customerId,
+        BigDecimal balance
+) {
+}
@@ -1,9 +1,18 @@
 package com.xpto.controlefinanceiro.modules.account.repository;
 
 import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.projections.AccountBalanceRow;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface AccountRepository extends JpaRepository<Account, UUID> {
@@ -14,4 +23,30 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     void deleteAllByCustomerId(UUID customerId);
 
     List<Account> findAllByCustomerId(UUID customerId);
+
+    @Query("SELECT a.id FROM Account a ORDER BY a.id")
+    List<UUID> findAllIds();
+
+    @Query("SELECT a.customer.id FROM Account a WHERE a.id = :id")
+    Optional<UUID> findCustomerIdById(@Param("id") UUID id);
+
+    @Query("""
+            SELECT new com.xpto.controlefinanceiro.modules.account.projections.AccountBalanceRow(a.id, a.customer.id, a.balance)
+            FROM Account a WHERE a.id = :id
+            """)
+    Optional<AccountBalanceRow> findBalanceRowById(@Param("id") UUID id);
+
+    // Crédito e débito em um único UPDATE; o número de linhas afetadas indica se a operação ocorreu
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount WHERE a.id = :id")
+    int credit(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount WHERE a.id = :id AND a.balance >= :amount")
+    int debit(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    // Bloqueia as linhas sempre na mesma ordem para evitar deadlock entre lotes concorrentes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
 }
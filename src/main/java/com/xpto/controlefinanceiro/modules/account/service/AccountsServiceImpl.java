@@ -1,5 +1,8 @@
 package com.xpto.controlefinanceiro.modules.account.service;
 
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangeType;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
+import com.xpto.controlefinanceiro.modules.account.cache.AccountBalanceCache;
 import com.xpto.controlefinanceiro.modules.account.dtos.AccountRequestDTO;
 import com.xpto.controlefinanceiro.modules.account.dtos.AccountResponseDTO;
 import com.xpto.controlefinanceiro.modules.account.dtos.AccountUpdateDTO;
@@ -12,6 +15,7 @@ import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
 import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -25,11 +29,16 @@ public class AccountsServiceImpl implements AccountsService {
     private final AccountRepository accountRepository;
     private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountBalanceCache balanceCache;
 
-    public AccountsServiceImpl(AccountRepository accountRepository, CustomerRepository customerRepository, TransactionRepository transactionRepository) {
+    public AccountsServiceImpl(AccountRepository accountRepository, CustomerRepository customerRepository, TransactionRepository transactionRepository,
+                               ApplicationEventPublisher eventPublisher, AccountBalanceCache balanceCache) {
         this.accountRepository = accountRepository;
         this.customerRepository = customerRepository;
         this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.balanceCache = balanceCache;
     }
 
 
@@ -41,6 +50,7 @@ public class AccountsServiceImpl implements AccountsService {
 
         Account account = AccountMapper.toEntity(dto, customer);
         Account saved = accountRepository.save(account);
+        eventPublisher.publishEvent(CustomerDataChangedEvent.of(customer.getId(), CustomerDataChangeType.ACCOUNT));
         return AccountMapper.toResponseDTO(saved);
     }
 
@@ -62,9 +72,9 @@ public class AccountsServiceImpl implements AccountsService {
 
     @Override
     public AccountResponseDTO findById(UUID id) {
-        Account account = accountRepository.findById(id)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
-        return AccountMapper.toResponseDTO(account);
+        return balanceCache.account(id, accountId -> accountRepository.findById(accountId)
+                .map(AccountMapper::toResponseDTO)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + accountId)));
     }
 
     @Override
@@ -85,6 +95,7 @@ public class AccountsServiceImpl implements AccountsService {
         account.setBalance(dto.balance());
 
         Account updated = accountRepository.save(account);
+        eventPublisher.publishEvent(CustomerDataChangedEvent.of(account.getCustomer().getId(), CustomerDataChangeType.ACCOUNT));
         return AccountMapper.toResponseDTO(updated);
     }
 
@@ -97,6 +108,7 @@ public class AccountsServiceImpl implements AccountsService {
         // Exclusão lógica! nao deleta do banco de dados, apenas define o campo active da entidade como false.
         account.setActive(false);
         accountRepository.save(account);
+        eventPublisher.publishEvent(CustomerDataChangedEvent.of(account.getCustomer().getId(), CustomerDataChangeType.ACCOUNT));
     }
 
 
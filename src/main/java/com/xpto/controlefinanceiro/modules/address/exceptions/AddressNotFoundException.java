@@ -1,6 +1,8 @@
 package com.xpto.controlefinanceiro.modules.address.exceptions;
 
-public class AddressNotFoundException extends RuntimeException {
+import com.xpto.controlefinanceiro.common.exceptions.ResourceNotFoundException;
+
+public class AddressNotFoundException extends ResourceNotFoundException {
     public AddressNotFoundException(String message) {
         super(message);
     }
@@ -1,5 +1,6 @@
 package com.xpto.controlefinanceiro.modules.address.model;
 
+import com.xpto.controlefinanceiro.common.persistence.TimeOrderedUuid;
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import jakarta.persistence.*;
 import lombok.*;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class Address {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -1,5 +1,7 @@
 package com.xpto.controlefinanceiro.modules.address.services;
 
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangeType;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
 import com.xpto.controlefinanceiro.modules.address.dtos.AddressRequestDTO;
 import com.xpto.controlefinanceiro.modules.address.dtos.AddressResponseDTO;
 import com.xpto.controlefinanceiro.modules.address.dtos.AddressUpdateDTO;
@@ -11,6 +13,7 @@ import com.xpto.controlefinanceiro.modules.customer.exceptions.CustomerNotFoundE
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -22,10 +25,13 @@ public class AddressServiceImpl implements AddressService {
 
     private final AddressRepository addressRepository;
     private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AddressServiceImpl(AddressRepository addressRepository, CustomerRepository customerRepository) {
+    public AddressServiceImpl(AddressRepository addressRepository, CustomerRepository customerRepository,
+                              ApplicationEventPublisher eventPublisher) {
         this.addressRepository = addressRepository;
         this.customerRepository = customerRepository;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -36,6 +42,7 @@ public class AddressServiceImpl implements AddressService {
 
         Address address = AddressMapper.toEntity(dto, customer);
         Address saved = addressRepository.save(address);
+        eventPublisher.publishEvent(CustomerDataChangedEvent.of(customer.getId(), CustomerDataChangeType.ADDRESS));
         return AddressMapper.toResponseDTO(saved);
     }
 
@@ -74,6 +81,7 @@ public class AddressServiceImpl implements AddressService {
         address.setZipCode(dto.zipCode());
 
         Address updated = addressRepository.save(address);
+        eventPublisher.publishEvent(CustomerDataChangedEvent.of(address.getCustomer().getId(), CustomerDataChangeType.ADDRESS));
         return AddressMapper.toResponseDTO(updated);
     }
 
@@ -83,6 +91,7 @@ public class AddressServiceImpl implements AddressService {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new AddressNotFoundException("Address not found with id: " + id));
         addressRepository.delete(address);
+        eventPublisher.publishEvent(CustomerDataChangedEvent.of(address.getCustomer().getId(), CustomerDataChangeType.ADDRESS));
     }
 
 
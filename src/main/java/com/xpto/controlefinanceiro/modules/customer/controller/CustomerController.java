@@ -1,6 +1,7 @@
 package com.xpto.controlefinanceiro.modules.customer.controller;
 
 import com.xpto.controlefinanceiro.common.apiError.ApiErrorResponse;
+import com.xpto.controlefinanceiro.common.metrics.QueryBudget;
 import com.xpto.controlefinanceiro.modules.address.dtos.AddressResponseDTO;
 import com.xpto.controlefinanceiro.modules.customer.dtos.CustomerRequestDto;
 import com.xpto.controlefinanceiro.modules.customer.dtos.CustomerResponseDTO;
@@ -43,6 +44,7 @@ public class CustomerController {
             @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     })
     @PostMapping
+    @QueryBudget(12)
     public ResponseEntity<CustomerResponseDTO> createCustomer(@Valid @RequestBody CustomerRequestDto dto) {
         CustomerResponseDTO response = customerService.create(dto);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
@@ -1,6 +1,8 @@
 package com.xpto.controlefinanceiro.modules.customer.exceptions;
 
-public class CustomerNotFoundException extends RuntimeException {
+import com.xpto.controlefinanceiro.common.exceptions.ResourceNotFoundException;
+
+public class CustomerNotFoundException extends ResourceNotFoundException {
     public CustomerNotFoundException(String message) {
         super(message);
     }
@@ -1,5 +1,6 @@
 package com.xpto.controlefinanceiro.modules.customer.model;
 
+import com.xpto.controlefinanceiro.common.persistence.TimeOrderedUuid;
 import com.xpto.controlefinanceiro.modules.address.model.Address;
 import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
 import jakarta.persistence.*;
@@ -20,7 +21,7 @@ import java.util.UUID;
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -1,6 +1,7 @@
 package com.xpto.controlefinanceiro.modules.customer.repository;
 
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +14,10 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     Optional<Customer> findByCpf(String cpf);
     Optional<Customer> findByCnpj(String cnpj);
 
+    // Cliente com os endereços já carregados, sem a consulta extra do lazy loading
+    @EntityGraph(attributePaths = "addresses")
+    Optional<Customer> findWithAddressesById(UUID id);
+
     @Query(value = "SELECT fn_calcula_saldo_cliente(:customerId)", nativeQuery = true)
     BigDecimal calcularSaldoCliente(@Param("customerId") UUID customerId);
 }
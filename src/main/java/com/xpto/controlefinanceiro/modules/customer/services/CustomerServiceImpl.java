@@ -1,5 +1,8 @@
 package com.xpto.controlefinanceiro.modules.customer.services;
 
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangeType;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
+import com.xpto.controlefinanceiro.modules.account.cache.AccountBalanceCache;
 import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
 import com.xpto.controlefinanceiro.modules.address.dtos.AddressResponseDTO;
 import com.xpto.controlefinanceiro.modules.address.repository.AddressRepository;
@@ -17,6 +20,7 @@ import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepositor
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -33,15 +37,20 @@ public class CustomerServiceImpl implements CustomerService {
     private final AddressRepository addressRepository;
 
     private final InitialCustomerSetupService initialCustomerSetupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountBalanceCache balanceCache;
 
 
     public CustomerServiceImpl(CustomerRepository repository,
                                InitialCustomerSetupService initialCustomerSetupService, AccountRepository accountRepository,
-                               AddressRepository addressRepository) {
+                               AddressRepository addressRepository, ApplicationEventPublisher eventPublisher,
+                               AccountBalanceCache balanceCache) {
         this.repository = repository;
         this.addressRepository = addressRepository;
         this.initialCustomerSetupService = initialCustomerSetupService;
         this.accountRepository = accountRepository;
+        this.eventPublisher = eventPublisher;
+        this.balanceCache = balanceCache;
     }
 
     @Override
@@ -103,6 +112,7 @@ public class CustomerServiceImpl implements CustomerService {
             throw new CustomerDeletionException("Não é permitido deletar cliente que possui contas associadas.");
         }
         repository.deleteById(id);
+        eventPublisher.publishEvent(CustomerDataChangedEvent.of(id, CustomerDataChangeType.PROFILE));
     }
 
     @Override
@@ -115,6 +125,7 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setPhone(dto.phone());
 
         Customer updated = repository.save(customer);
+        eventPublisher.publishEvent(CustomerDataChangedEvent.of(id, CustomerDataChangeType.PROFILE));
         return CustomerMapper.toResponseDTO(updated);
     }
 
@@ -122,10 +133,12 @@ public class CustomerServiceImpl implements CustomerService {
     // Serviço da PL/SQL Function
     @Override
     public BigDecimal getSaldoCliente(UUID customerId) {
-        Customer customer = repository.findById(customerId)
-                .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id: " + customerId));
-
-        return repository.calcularSaldoCliente(customerId);
+        return balanceCache.customerBalance(customerId, id -> {
+            if (!repository.existsById(id)) {
+                throw new CustomerNotFoundException("Customer not found with id: " + id);
+            }
+            return repository.calcularSaldoCliente(id);
+        });
     }
 
     // Serviço da PL/SQL Function
@@ -1,27 +1,31 @@
 package com.xpto.controlefinanceiro.modules.customer.services;
 
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangeType;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
 import com.xpto.controlefinanceiro.modules.account.model.Account;
 import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
 import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
-import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
-import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Service
 public class InitialCustomerSetupService {
 
     private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public InitialCustomerSetupService(AccountRepository accountRepository, TransactionRepository transactionRepository) {
+    public InitialCustomerSetupService(AccountRepository accountRepository, TransactionService transactionService,
+                                       ApplicationEventPublisher eventPublisher) {
         this.accountRepository = accountRepository;
-        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.eventPublisher = eventPublisher;
     }
 
     public void setupInitialAccountAndTransaction(Customer customer) {
@@ -35,18 +39,12 @@ public class InitialCustomerSetupService {
 
         accountRepository.save(account);
 
-        // Cria uma transação inicial de crédito
-        Transaction transaction = new Transaction();
-        transaction.setAccount(account);
-        transaction.setType(TransactionType.CREDIT);
-        transaction.setDescription("Initial deposit");
-        transaction.setAmount(new BigDecimal("100.00"));
-        transaction.setDate(LocalDateTime.now());
+        // Conta nova entra no resumo de saldos já em cache
+        eventPublisher.publishEvent(CustomerDataChangedEvent.of(customer.getId(), CustomerDataChangeType.ACCOUNT));
 
-        transactionRepository.save(transaction);
-
-        // Atualiza o saldo da conta
-        account.setBalance(transaction.getAmount());
-        accountRepository.save(account);
+        // Depósito inicial pelo mesmo caminho das demais transações: saldo sob o lock da conta, snapshot diário,
+        // eventos de cache, journal e outbox
+        transactionService.create(new TransactionRequestDTO(account.getId(), TransactionType.CREDIT,
+                new BigDecimal("100.00"), "Initial deposit"));
     }
 }
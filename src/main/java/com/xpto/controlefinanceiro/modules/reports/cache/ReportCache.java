@@ -0,0 +1,228 @@
+package com.xpto.controlefinanceiro.modules.reports.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.reports.dtos.ReportCacheStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cache dos relatórios prontos, limitado em tamanho (despejo W-TinyLFU do Caffeine) e com TTL.
+ * As entradas afetadas são removidas após o commit de qualquer escrita que mude os dados de um cliente.
+ * Falhas simultâneas na mesma chave calculam o relatório uma vez só; quem chega depois espera o mesmo cálculo.
+ */
+@Component
+public class ReportCache {
+
+    private final Cache<ReportCacheKey, Object> cache;
+    private final AccountRepository accountRepository;
+
+    // Relatórios sendo calculados: a invalidação marca os afetados, que são devolvidos mas não ficam guardados
+    private final ConcurrentMap<ReportCacheKey, AtomicBoolean> loading = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Chaves em cache ou em cálculo, por cliente e as compartilhadas: a invalidação vai direto às de um cliente sem
+    // percorrer o cache. Pode sobrar uma chave que já saiu, nunca faltar uma que está lá
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private final Map<UUID, Set<ReportCacheKey>> keysByCustomer = new HashMap<>();
+    private final Set<ReportCacheKey> sharedKeys = new HashSet<>();
+
+    public ReportCache(AccountRepository accountRepository,
+                       @Value("${xpto.reports.cache.max-size:1000}") long maxSize,
+                       @Value("${xpto.reports.cache.ttl:5m}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((ReportCacheKey key, Object report, RemovalCause cause) -> forgetEvicted(key))
+                .recordStats()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReportCacheKey key, Supplier<T> loader) {
+        AtomicBoolean stale = new AtomicBoolean();
+        Object report;
+        try {
+            report = cache.get(key, k -> {
+                register(k, stale);
+                return loader.get();
+            });
+        } finally {
+            // Só sai de "loading" depois de visível no cache: a invalidação sempre encontra um dos dois
+            if (loading.remove(key, stale) && !cache.asMap().containsKey(key)) {
+                // O cálculo falhou e nada foi guardado
+                forget(List.of(key));
+            }
+        }
+        if (stale.get()) {
+            cache.asMap().remove(key, report);
+            forget(List.of(key));
+        }
+        return (T) report;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerDataChanged(CustomerDataChangedEvent event) {
+        // Transações avulsas só informam a conta; o cliente só é buscado se houver relatórios de cliente em cache
+        UUID customerId = event.customerId();
+        if (customerId == null && event.accountId() != null && hasCustomerReports()) {
+            customerId = accountRepository.findCustomerIdById(event.accountId()).orElse(null);
+        }
+
+        List<ReportCacheKey> affected = new ArrayList<>();
+        indexLock.lock();
+        try {
+            if (customerId != null) {
+                affected.addAll(keysByCustomer.getOrDefault(customerId, Set.of()));
+            }
+            for (ReportCacheKey key : sharedKeys) {
+                if (isAffected(key, event)) {
+                    affected.add(key);
+                }
+            }
+        } finally {
+            indexLock.unlock();
+        }
+
+        // Um cálculo em andamento é só marcado: ele mesmo remove o resultado, e removê-lo daqui esperaria o cálculo
+        for (ReportCacheKey key : affected) {
+            AtomicBoolean stale = loading.get(key);
+            if (stale != null) {
+                stale.set(true);
+            } else {
+                cache.asMap().remove(key);
+            }
+        }
+        forget(affected);
+        invalidations.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        loading.values().forEach(stale -> stale.set(true));
+        cache.invalidateAll();
+        List<ReportCacheKey> indexed = new ArrayList<>();
+        indexLock.lock();
+        try {
+            keysByCustomer.values().forEach(indexed::addAll);
+            indexed.addAll(sharedKeys);
+        } finally {
+            indexLock.unlock();
+        }
+        forget(indexed);
+        invalidations.incrementAndGet();
+    }
+
+    public ReportCacheStatsDTO stats() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        return new ReportCacheStatsDTO(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                invalidations.get(),
+                cache.estimatedSize()
+        );
+    }
+
+    // Registra a chave no índice junto com o cálculo, para a invalidação nunca ver um sem o outro
+    private void register(ReportCacheKey key, AtomicBoolean stale) {
+        indexLock.lock();
+        try {
+            loading.put(key, stale);
+            if (key.customerId() == null) {
+                sharedKeys.add(key);
+            } else {
+                keysByCustomer.computeIfAbsent(key.customerId(), id -> new HashSet<>()).add(key);
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    // Tira do índice as chaves que não estão mais em cache nem em cálculo
+    private void forget(Collection<ReportCacheKey> keys) {
+        indexLock.lock();
+        try {
+            for (ReportCacheKey key : keys) {
+                if (!loading.containsKey(key) && !cache.asMap().containsKey(key)) {
+                    unindex(key);
+                }
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    // Chamado pelo Caffeine ainda com a entrada no mapa, mas com a chave travada: nenhum cálculo dela começa junto
+    private void forgetEvicted(ReportCacheKey key) {
+        indexLock.lock();
+        try {
+            if (!loading.containsKey(key)) {
+                unindex(key);
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void unindex(ReportCacheKey key) {
+        if (key.customerId() == null) {
+            sharedKeys.remove(key);
+            return;
+        }
+        Set<ReportCacheKey> customerKeys = keysByCustomer.get(key.customerId());
+        if (customerKeys != null && customerKeys.remove(key) && customerKeys.isEmpty()) {
+            keysByCustomer.remove(key.customerId());
+        }
+    }
+
+    private boolean hasCustomerReports() {
+        indexLock.lock();
+        try {
+            return !keysByCustomer.isEmpty();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    // Relatórios gerais; os de cliente são afetados por qualquer mudança do próprio cliente
+    private static boolean isAffected(ReportCacheKey key, CustomerDataChangedEvent event) {
+        LocalDate date = event.date();
+        return switch (key.type()) {
+            case CUSTOMER_BALANCE, CUSTOMER_BALANCE_PERIOD -> false;
+            case BALANCE_SUMMARY -> switch (event.type()) {
+                case TRANSACTION -> !key.startDate().isBefore(date);
+                case ACCOUNT, PROFILE -> true;
+                case ADDRESS -> false;
+            };
+            case COMPANY_REVENUE -> switch (event.type()) {
+                case TRANSACTION -> !date.isBefore(key.startDate()) && !date.isAfter(key.endDate());
+                case PROFILE -> true;
+                case ACCOUNT, ADDRESS -> false;
+            };
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.xpto.controlefinanceiro.modules.reports.cache;
+
+import com.xpto.controlefinanceiro.modules.reports.enums.ReportType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Tipo do relatório + parâmetros. Relatórios de um cliente têm customerId;
+ * os relatórios gerais (resumo e receita) só têm datas.
+ */
+public record ReportCacheKey(
+        ReportType type,
+        UUID customerId,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+
+    public static ReportCacheKey customerBalance(UUID customerId) {
+        return new ReportCacheKey(ReportType.CUSTOMER_BALANCE, customerId, null, null);
+    }
+
+    public static ReportCacheKey customerBalancePeriod(UUID customerId, LocalDate startDate, LocalDate endDate) {
+        return new ReportCacheKey(ReportType.CUSTOMER_BALANCE_PERIOD, customerId, startDate, endDate);
+    }
+
+    public static ReportCacheKey balanceSummary(LocalDate date) {
+        return new ReportCacheKey(ReportType.BALANCE_SUMMARY, null, date, date);
+    }
+
+    public static ReportCacheKey companyRevenue(LocalDate startDate, LocalDate endDate) {
+        return new ReportCacheKey(ReportType.COMPANY_REVENUE, null, startDate, endDate);
+    }
+}
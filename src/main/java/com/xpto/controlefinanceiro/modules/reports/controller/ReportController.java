@@ -1,17 +1,29 @@
 package com.xpto.controlefinanceiro.modules.reports.controller;
 
+import com.xpto.controlefinanceiro.common.metrics.QueryBudget;
+import com.xpto.controlefinanceiro.modules.reports.cache.ReportCache;
 import com.xpto.controlefinanceiro.modules.reports.dtos.CompanyRevenueReportDTO;
 import com.xpto.controlefinanceiro.modules.reports.dtos.CustomerBalancePeriodReportDTO;
 import com.xpto.controlefinanceiro.modules.reports.dtos.CustomerBalanceReportDTO;
 import com.xpto.controlefinanceiro.modules.reports.dtos.CustomersBalanceSummaryReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.ReportCacheStatsDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.ReportJobRequestDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.ReportJobResponseDTO;
+import com.xpto.controlefinanceiro.modules.reports.jobs.ReportJobService;
 import com.xpto.controlefinanceiro.modules.reports.services.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -25,6 +37,8 @@ import java.util.UUID;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportCache reportCache;
+    private final ReportJobService reportJobService;
 
     @Operation(summary = "Obter saldo atual de um cliente")
     @ApiResponses(value = {
@@ -32,6 +46,7 @@ public class ReportController {
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado", content = @Content)
     })
     @GetMapping("/customer/{customerId}/balance")
+    @QueryBudget(3)
     public CustomerBalanceReportDTO getCustomerBalance(@PathVariable UUID customerId) {
         return reportService.generateCustomerBalanceReport(customerId);
     }
@@ -42,6 +57,7 @@ public class ReportController {
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado", content = @Content)
     })
     @GetMapping("/customer/{customerId}/balance-period")
+    @QueryBudget(3)
     public CustomerBalancePeriodReportDTO getCustomerBalancePeriod(
             @PathVariable UUID customerId,
             @RequestParam("start") String start,
@@ -83,4 +99,49 @@ public class ReportController {
     ) {
         return reportService.generateCompanyRevenueReport(startDate, endDate);
     }
+
+    @Operation(summary = "Agendar a geração de um relatório em segundo plano",
+            description = "Retorna o id do job. Um pedido igual a um job ainda em andamento recebe o mesmo job.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job aceito"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos para o tipo de relatório", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Fila de jobs cheia", content = @Content)
+    })
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobResponseDTO> submitJob(@RequestBody @Valid ReportJobRequestDTO request) {
+        return ResponseEntity.accepted().body(reportJobService.submit(request));
+    }
+
+    @Operation(summary = "Consultar status, progresso e resultado de um job de relatório")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job encontrado"),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado ou expirado", content = @Content)
+    })
+    @GetMapping("/jobs/{id}")
+    public ReportJobResponseDTO getJob(@PathVariable UUID id) {
+        return reportJobService.get(id);
+    }
+
+    @Operation(summary = "Baixar o resultado de um job de relatório concluído")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Arquivo JSON do relatório"),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado ou expirado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Job ainda não concluído", content = @Content)
+    })
+    @GetMapping("/jobs/{id}/result")
+    public ResponseEntity<Resource> downloadJobResult(@PathVariable UUID id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-" + id + ".json\"")
+                .body(new FileSystemResource(reportJobService.getResultFile(id)));
+    }
+
+    @Operation(summary = "Estatísticas do cache de relatórios")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Acertos, faltas, despejos e invalidações do cache")
+    })
+    @GetMapping("/cache/stats")
+    public ReportCacheStatsDTO getCacheStats() {
+        return reportCache.stats();
+    }
 }
@@ -0,0 +1,10 @@
+package com.xpto.controlefinanceiro.modules.reports.dtos;
+
+public record ReportCacheStatsDTO(
+        long hits,
+        long misses,
+        long evictions,
+        long invalidations,
+        long size
+) {
+}
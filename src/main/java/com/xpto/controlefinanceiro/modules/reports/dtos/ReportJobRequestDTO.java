@@ -0,0 +1,16 @@
+package com.xpto.controlefinanceiro.modules.reports.dtos;
+
+import com.xpto.controlefinanceiro.modules.reports.enums.ReportType;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record ReportJobRequestDTO(
+        @NotNull(message = "Report type is mandatory")
+        ReportType type,
+        UUID customerId,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+}
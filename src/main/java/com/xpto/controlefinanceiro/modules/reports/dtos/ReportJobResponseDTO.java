@@ -0,0 +1,23 @@
+package com.xpto.controlefinanceiro.modules.reports.dtos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.xpto.controlefinanceiro.modules.reports.enums.ReportJobStatus;
+import com.xpto.controlefinanceiro.modules.reports.enums.ReportType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ReportJobResponseDTO(
+        UUID id,
+        ReportType type,
+        ReportJobStatus status,
+        int progress,
+        int completedPartitions,
+        int totalPartitions,
+        LocalDateTime submittedAt,
+        LocalDateTime finishedAt,
+        LocalDateTime expiresAt,
+        String error,
+        JsonNode result
+) {
+}
@@ -0,0 +1,8 @@
+package com.xpto.controlefinanceiro.modules.reports.enums;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
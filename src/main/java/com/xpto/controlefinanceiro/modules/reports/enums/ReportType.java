@@ -0,0 +1,8 @@
+package com.xpto.controlefinanceiro.modules.reports.enums;
+
+public enum ReportType {
+    CUSTOMER_BALANCE,
+    CUSTOMER_BALANCE_PERIOD,
+    BALANCE_SUMMARY,
+    COMPANY_REVENUE
+}
@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.reports.exceptions;
+
+public class InvalidReportJobException extends RuntimeException {
+    public InvalidReportJobException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.reports.exceptions;
+
+public class ReportJobNotFinishedException extends RuntimeException {
+    public ReportJobNotFinishedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.xpto.controlefinanceiro.modules.reports.exceptions;
+
+import com.xpto.controlefinanceiro.common.exceptions.ResourceNotFoundException;
+
+public class ReportJobNotFoundException extends ResourceNotFoundException {
+    public ReportJobNotFoundException(String message) {
+        super(message);
+    }
+}
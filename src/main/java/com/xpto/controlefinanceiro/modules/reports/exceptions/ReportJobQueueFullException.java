@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.reports.exceptions;
+
+public class ReportJobQueueFullException extends RuntimeException {
+    public ReportJobQueueFullException(String message) {
+        super(message);
+    }
+}
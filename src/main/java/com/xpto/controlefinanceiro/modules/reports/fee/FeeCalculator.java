@@ -0,0 +1,65 @@
+package com.xpto.controlefinanceiro.modules.reports.fee;
+
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Cálculo das taxas cobradas por movimentação.
+ *
+ * A partir da data de cadastro do cliente o tempo é dividido em janelas de 30 dias;
+ * a taxa por transação de cada janela depende de quantas transações caíram nela
+ * (até 10: 1,00; até 20: 0,75; acima: 0,50). Cada transação é posicionada na sua
+ * janela por aritmética de datas, então o custo é O(transações + janelas).
+ */
+public final class FeeCalculator {
+
+    static final int WINDOW_DAYS = 30;
+
+    private static final BigDecimal FEE_UP_TO_10 = BigDecimal.valueOf(1.00);
+    private static final BigDecimal FEE_UP_TO_20 = BigDecimal.valueOf(0.75);
+    private static final BigDecimal FEE_ABOVE_20 = BigDecimal.valueOf(0.50);
+
+    private FeeCalculator() {
+    }
+
+    public static BigDecimal calculateTotalFee(LocalDate customerSince, List<Transaction> transactions, LocalDate today) {
+        if (customerSince.isAfter(today)) {
+            return BigDecimal.ZERO;
+        }
+
+        // Só existem as janelas iniciadas até hoje
+        int windows = (int) (ChronoUnit.DAYS.between(customerSince, today) / WINDOW_DAYS) + 1;
+        long[] counts = new long[windows];
+
+        for (Transaction transaction : transactions) {
+            long days = ChronoUnit.DAYS.between(customerSince, transaction.getDate().toLocalDate());
+            if (days < 0) {
+                continue;
+            }
+            long window = days / WINDOW_DAYS;
+            if (window < windows) {
+                counts[(int) window]++;
+            }
+        }
+
+        // Soma janela a janela, na mesma ordem e com as mesmas escalas do cálculo original
+        BigDecimal total = BigDecimal.ZERO;
+        for (long count : counts) {
+            total = total.add(feePerTransaction(count).multiply(BigDecimal.valueOf(count)));
+        }
+        return total;
+    }
+
+    static BigDecimal feePerTransaction(long count) {
+        if (count <= 10) {
+            return FEE_UP_TO_10;
+        } else if (count <= 20) {
+            return FEE_UP_TO_20;
+        }
+        return FEE_ABOVE_20;
+    }
+}
@@ -0,0 +1,78 @@
+package com.xpto.controlefinanceiro.modules.reports.jobs;
+
+import com.xpto.controlefinanceiro.modules.reports.cache.ReportCacheKey;
+import com.xpto.controlefinanceiro.modules.reports.enums.ReportJobStatus;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Estado de um relatório executado em segundo plano. Escrito pela thread do job e lido pelas requisições de consulta.
+ */
+@Getter
+class ReportJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final ReportCacheKey key;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+    // Faixas de clientes concluídas pelo PartitionedReportExecutor; zero enquanto o relatório não informa
+    private volatile int completedPartitions;
+    private volatile int totalPartitions;
+    private volatile LocalDateTime finishedAt;
+    private volatile LocalDateTime expiresAt;
+    private volatile String error;
+    private volatile Path resultFile;
+
+    ReportJob(ReportCacheKey key) {
+        this.key = key;
+    }
+
+    void start() {
+        status = ReportJobStatus.RUNNING;
+    }
+
+    // Chamado pelas threads das partições, fora de ordem: a contagem nunca volta
+    synchronized void partitionsCompleted(int completed, int total) {
+        totalPartitions = total;
+        completedPartitions = Math.max(completedPartitions, completed);
+    }
+
+    /**
+     * Percentual das faixas de clientes concluídas; 100 só quando o job termina, já com o resultado gravado.
+     */
+    int getProgress() {
+        if (isFinished()) {
+            return 100;
+        }
+        int total = totalPartitions;
+        return total == 0 ? 0 : Math.min(99, completedPartitions * 100 / total);
+    }
+
+    void complete(Path resultFile, LocalDateTime expiresAt) {
+        this.resultFile = resultFile;
+        finish(ReportJobStatus.COMPLETED, expiresAt);
+    }
+
+    void fail(String error, LocalDateTime expiresAt) {
+        this.error = error;
+        finish(ReportJobStatus.FAILED, expiresAt);
+    }
+
+    boolean isFinished() {
+        return status == ReportJobStatus.COMPLETED || status == ReportJobStatus.FAILED;
+    }
+
+    boolean isExpired(LocalDateTime now) {
+        return isFinished() && expiresAt.isBefore(now);
+    }
+
+    private void finish(ReportJobStatus status, LocalDateTime expiresAt) {
+        this.finishedAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        this.status = status;
+    }
+}
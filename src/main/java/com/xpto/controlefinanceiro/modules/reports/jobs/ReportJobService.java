@@ -0,0 +1,227 @@
+package com.xpto.controlefinanceiro.modules.reports.jobs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.common.concurrency.WorkerThreads;
+import com.xpto.controlefinanceiro.modules.reports.cache.ReportCacheKey;
+import com.xpto.controlefinanceiro.modules.reports.dtos.ReportJobRequestDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.ReportJobResponseDTO;
+import com.xpto.controlefinanceiro.modules.reports.enums.ReportJobStatus;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.InvalidReportJobException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobNotFinishedException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobNotFoundException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobQueueFullException;
+import com.xpto.controlefinanceiro.modules.reports.parallel.ReportProgress;
+import com.xpto.controlefinanceiro.modules.reports.services.ReportService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executa relatórios pesados fora da thread da requisição. Os jobs rodam num pool limitado com fila limitada,
+ * pedidos iguais a um job em andamento recebem o mesmo job, e o resultado fica em disco até expirar.
+ */
+@Service
+public class ReportJobService {
+
+    private final ReportService reportService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final Path resultDir;
+    private final Duration resultTtl;
+
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+    // Jobs ainda na fila ou executando, por relatório + parâmetros
+    private final Map<ReportCacheKey, ReportJob> activeJobs = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportService reportService, ObjectMapper objectMapper,
+                            @Value("${xpto.reports.jobs.threads:2}") int threads,
+                            @Value("${xpto.reports.jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${xpto.reports.jobs.result-dir:${java.io.tmpdir}/xpto-report-jobs}") Path resultDir,
+                            @Value("${xpto.reports.jobs.result-ttl:1h}") Duration resultTtl,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.reportService = reportService;
+        this.objectMapper = objectMapper;
+        this.resultDir = resultDir;
+        this.resultTtl = resultTtl;
+
+        // Mesmo em virtual threads o pool continua limitado: "threads" é o máximo de relatórios simultâneos
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                WorkerThreads.factory("report-job-", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public ReportJobResponseDTO submit(ReportJobRequestDTO request) {
+        purgeExpired();
+        ReportCacheKey key = toKey(request);
+
+        // O job entra em "jobs" antes de ficar visível para quem pede o mesmo relatório: o id devolvido a quem
+        // se junta a ele já pode ser consultado
+        ReportJob[] created = new ReportJob[1];
+        ReportJob job = activeJobs.computeIfAbsent(key, k -> {
+            created[0] = new ReportJob(k);
+            jobs.put(created[0].getId(), created[0]);
+            return created[0];
+        });
+        if (created[0] == null) {
+            return toResponseDTO(job, false);
+        }
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            // Quem já se juntou ao job recebe a falha ao consultá-lo, em vez de um id que não existe mais
+            job.fail("Report job queue is full", LocalDateTime.now().plus(resultTtl));
+            activeJobs.remove(key, job);
+            throw new ReportJobQueueFullException("Report job queue is full, try again later");
+        }
+        return toResponseDTO(job, false);
+    }
+
+    public ReportJobResponseDTO get(UUID id) {
+        return toResponseDTO(find(id), true);
+    }
+
+    public Path getResultFile(UUID id) {
+        ReportJob job = find(id);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new ReportJobNotFinishedException("Report job " + id + " has no result (status " + job.getStatus() + ")");
+        }
+        return job.getResultFile();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private ReportJob find(UUID id) {
+        purgeExpired();
+        ReportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ReportJobNotFoundException("Report job not found with id: " + id);
+        }
+        return job;
+    }
+
+    private void run(ReportJob job) {
+        try {
+            job.start();
+            Object report = ReportProgress.track(job::partitionsCompleted, () -> generate(job.getKey()));
+
+            Files.createDirectories(resultDir);
+            Path resultFile = resultDir.resolve(job.getId() + ".json");
+            objectMapper.writeValue(resultFile.toFile(), report);
+            job.complete(resultFile, LocalDateTime.now().plus(resultTtl));
+        } catch (Exception e) {
+            job.fail(e.getMessage(), LocalDateTime.now().plus(resultTtl));
+        } finally {
+            activeJobs.remove(job.getKey(), job);
+        }
+    }
+
+    private Object generate(ReportCacheKey key) {
+        return switch (key.type()) {
+            case CUSTOMER_BALANCE -> reportService.generateCustomerBalanceReport(key.customerId());
+            case CUSTOMER_BALANCE_PERIOD ->
+                    reportService.generateCustomerBalancePeriodReport(key.customerId(), key.startDate(), key.endDate());
+            case BALANCE_SUMMARY -> reportService.generateSummaryReport(key.startDate());
+            case COMPANY_REVENUE -> reportService.generateCompanyRevenueReport(key.startDate(), key.endDate());
+        };
+    }
+
+    private ReportCacheKey toKey(ReportJobRequestDTO request) {
+        return switch (request.type()) {
+            case CUSTOMER_BALANCE -> ReportCacheKey.customerBalance(requireCustomer(request));
+            case CUSTOMER_BALANCE_PERIOD -> {
+                requirePeriod(request);
+                yield ReportCacheKey.customerBalancePeriod(requireCustomer(request), request.startDate(), request.endDate());
+            }
+            case BALANCE_SUMMARY -> ReportCacheKey.balanceSummary(
+                    request.startDate() != null ? request.startDate() : LocalDate.now());
+            case COMPANY_REVENUE -> {
+                requirePeriod(request);
+                yield ReportCacheKey.companyRevenue(request.startDate(), request.endDate());
+            }
+        };
+    }
+
+    private UUID requireCustomer(ReportJobRequestDTO request) {
+        if (request.customerId() == null) {
+            throw new InvalidReportJobException("customerId is required for " + request.type() + " reports");
+        }
+        return request.customerId();
+    }
+
+    private void requirePeriod(ReportJobRequestDTO request) {
+        if (request.startDate() == null || request.endDate() == null) {
+            throw new InvalidReportJobException("startDate and endDate are required for " + request.type() + " reports");
+        }
+        if (request.startDate().isAfter(request.endDate())) {
+            throw new InvalidReportJobException("startDate must not be after endDate");
+        }
+    }
+
+    private void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (!job.isExpired(now)) {
+                return false;
+            }
+            deleteResult(job);
+            return true;
+        });
+    }
+
+    private void deleteResult(ReportJob job) {
+        if (job.getResultFile() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.getResultFile());
+        } catch (IOException e) {
+            // Arquivo que não pôde ser removido agora não impede a expiração do job
+        }
+    }
+
+    private ReportJobResponseDTO toResponseDTO(ReportJob job, boolean withResult) {
+        JsonNode result = null;
+        if (withResult && job.getStatus() == ReportJobStatus.COMPLETED) {
+            try {
+                result = objectMapper.readTree(job.getResultFile().toFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return new ReportJobResponseDTO(
+                job.getId(),
+                job.getKey().type(),
+                job.getStatus(),
+                job.getProgress(),
+                job.getCompletedPartitions(),
+                job.getTotalPartitions(),
+                job.getSubmittedAt(),
+                job.getFinishedAt(),
+                job.getExpiresAt(),
+                job.getError(),
+                result
+        );
+    }
+}
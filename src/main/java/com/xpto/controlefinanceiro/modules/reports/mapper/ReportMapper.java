@@ -4,6 +4,7 @@ import com.xpto.controlefinanceiro.modules.address.model.Address;
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import com.xpto.controlefinanceiro.modules.reports.dtos.CustomerBalancePeriodReportDTO;
 import com.xpto.controlefinanceiro.modules.reports.dtos.CustomerBalanceReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.fee.FeeCalculator;
 import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
 import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
 
@@ -105,41 +106,7 @@ public class ReportMapper {
      * Método para calcular a taxa total paga com base nas transações
      */
     private static BigDecimal calculateTotalFee(Customer customer, List<Transaction> transactions) {
-        // Variável inicial para data de início
-        LocalDate startDate = customer.getCreatedAt();
-        BigDecimal total = BigDecimal.ZERO;
-
-        // Itera sobre os intervalos de 30 dias enquanto a data inicial estiver no passado
-        while (!startDate.isAfter(LocalDate.now())) {
-            final LocalDate currentStartDate = startDate; // Variável imutável para captura no lambda
-            LocalDate endDate = currentStartDate.plusDays(30);
-
-            // Conta as transações realizadas dentro do intervalo de 30 dias
-            long count = transactions.stream()
-                    .filter(t -> {
-                        LocalDate date = t.getDate().toLocalDate();
-                        return !date.isBefore(currentStartDate) && date.isBefore(endDate);
-                    })
-                    .count();
-
-            // Calcula a taxa por transação baseada no número de transações
-            BigDecimal feePerTransaction;
-            if (count <= 10) {
-                feePerTransaction = BigDecimal.valueOf(1.00);
-            } else if (count <= 20) {
-                feePerTransaction = BigDecimal.valueOf(0.75);
-            } else {
-                feePerTransaction = BigDecimal.valueOf(0.50);
-            }
-
-            // Incrementa o total acumulado das taxas
-            total = total.add(feePerTransaction.multiply(BigDecimal.valueOf(count)));
-
-            // Move o intervalo para os próximos 30 dias
-            startDate = endDate;
-        }
-
-        return total; // Retorna o valor total das taxas pagas
+        return FeeCalculator.calculateTotalFee(customer.getCreatedAt(), transactions, LocalDate.now());
     }
 
     /**
@@ -0,0 +1,33 @@
+package com.xpto.controlefinanceiro.modules.reports.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Faixa de ids de cliente (afterId, lastId], na ordem usada pelo banco ao ordenar colunas uuid (bytes sem
+ * sinal). Como os ids são UUIDv7, crescentes no tempo, dividir o espaço de UUIDs em partes iguais deixaria
+ * quase todos os clientes numa faixa só; por isso as faixas são cortadas em ids reais, vindos do banco.
+ */
+public record CustomerIdRange(UUID afterId, UUID lastId) {
+
+    // Menor e maior UUID possíveis
+    public static final UUID FIRST_ID = new UUID(0L, 0L);
+    public static final UUID LAST_ID = new UUID(-1L, -1L);
+
+    public static CustomerIdRange all() {
+        return new CustomerIdRange(FIRST_ID, LAST_ID);
+    }
+
+    // Faixas contíguas cobrindo todo o espaço de ids, cortadas nos ids informados (em ordem crescente)
+    public static List<CustomerIdRange> split(List<UUID> boundaries) {
+        List<CustomerIdRange> ranges = new ArrayList<>(boundaries.size() + 1);
+        UUID after = FIRST_ID;
+        for (UUID last : boundaries) {
+            ranges.add(new CustomerIdRange(after, last));
+            after = last;
+        }
+        ranges.add(new CustomerIdRange(after, LAST_ID));
+        return ranges;
+    }
+}
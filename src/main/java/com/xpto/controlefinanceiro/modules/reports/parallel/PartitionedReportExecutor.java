@@ -0,0 +1,113 @@
+package com.xpto.controlefinanceiro.modules.reports.parallel;
+
+import com.xpto.controlefinanceiro.common.concurrency.WorkerThreads;
+import com.xpto.controlefinanceiro.modules.reports.repository.ReportRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Executa uma consulta de relatório por faixa de ids de cliente. Com paralelismo maior que 1, cada faixa
+ * roda numa thread do pool (ou numa virtual thread, com spring.threads.virtual.enabled), dentro da sua
+ * própria transação somente leitura (e portanto com a sua conexão), e os resultados parciais são
+ * concatenados na ordem das faixas, que é a mesma ordem de id do modo serial. As faixas têm o mesmo número
+ * de clientes: os limites são lidos do banco (uma consulta por limite) a cada execução.
+ */
+@Component
+public class PartitionedReportExecutor {
+
+    private final int parallelism;
+    private final ExecutorService pool;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReportRepository reportRepository;
+
+    public PartitionedReportExecutor(@Value("${xpto.reports.parallelism:1}") int parallelism,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                     PlatformTransactionManager transactionManager,
+                                     ReportRepository reportRepository) {
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = this.parallelism == 1 ? null
+                : virtualThreads ? Executors.newThreadPerTaskExecutor(WorkerThreads.factory("report-partition-", true))
+                : new ForkJoinPool(this.parallelism);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.reportRepository = reportRepository;
+    }
+
+    public <T> List<T> execute(Function<CustomerIdRange, List<T>> query) {
+        ReportProgress.Listener progress = ReportProgress.current();
+        if (pool == null) {
+            progress.partitionsCompleted(0, 1);
+            List<T> result = query.apply(CustomerIdRange.all());
+            progress.partitionsCompleted(1, 1);
+            return result;
+        }
+
+        List<CustomerIdRange> ranges = ranges();
+        AtomicInteger completed = new AtomicInteger();
+        progress.partitionsCompleted(0, ranges.size());
+        List<Future<List<T>>> tasks = new ArrayList<>(ranges.size());
+        for (CustomerIdRange range : ranges) {
+            tasks.add(pool.submit(() -> {
+                List<T> partial = readOnlyTransaction.execute(status -> query.apply(range));
+                progress.partitionsCompleted(completed.incrementAndGet(), ranges.size());
+                return partial;
+            }));
+        }
+
+        List<T> merged = new ArrayList<>();
+        try {
+            for (Future<List<T>> task : tasks) {
+                merged.addAll(task.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tasks.forEach(task -> task.cancel(true));
+            throw new CancellationException("Report interrupted");
+        } catch (ExecutionException e) {
+            tasks.forEach(task -> task.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return merged;
+    }
+
+    List<CustomerIdRange> ranges() {
+        long customers = reportRepository.countCustomers();
+        List<UUID> boundaries = new ArrayList<>(parallelism - 1);
+        long previous = -1;
+        for (int i = 1; i < parallelism; i++) {
+            // Último id da i-ésima partição; com menos clientes que partições, posições repetidas são puladas
+            long position = customers * i / parallelism - 1;
+            if (position > previous) {
+                boundaries.addAll(reportRepository.findCustomerIds(PageRequest.of(Math.toIntExact(position), 1)));
+                previous = position;
+            }
+        }
+        return CustomerIdRange.split(boundaries);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.xpto.controlefinanceiro.modules.reports.parallel;
+
+import java.util.function.Supplier;
+
+/**
+ * Progresso do relatório gerado na thread atual, em faixas de clientes concluídas. Quem gera o relatório em
+ * segundo plano registra um ouvinte com {@link #track}; o {@link PartitionedReportExecutor} o avisa a cada faixa
+ * terminada, de qualquer thread do pool. Relatórios que não passam pelo executor não informam progresso.
+ */
+public final class ReportProgress {
+
+    @FunctionalInterface
+    public interface Listener {
+
+        void partitionsCompleted(int completed, int total);
+    }
+
+    private static final Listener NONE = (completed, total) -> {
+    };
+
+    private static final ThreadLocal<Listener> CURRENT = new ThreadLocal<>();
+
+    private ReportProgress() {
+    }
+
+    public static <T> T track(Listener listener, Supplier<T> report) {
+        CURRENT.set(listener);
+        try {
+            return report.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    static Listener current() {
+        Listener listener = CURRENT.get();
+        return listener == null ? NONE : listener;
+    }
+}
@@ -0,0 +1,13 @@
+package com.xpto.controlefinanceiro.modules.reports.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record CustomerBalanceRow(
+        UUID customerId,
+        String customerName,
+        LocalDate customerSince,
+        BigDecimal balance
+) {
+}
@@ -0,0 +1,83 @@
+package com.xpto.controlefinanceiro.modules.reports.repository;
+
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CompanyRevenueReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.projections.CustomerBalanceRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Consultas agregadas dos relatórios: o banco devolve os totais já somados,
+ * em vez de carregar clientes, contas e transações para somar em Java.
+ */
+public interface ReportRepository extends Repository<Customer, UUID> {
+
+    // Saldo por cliente ao fim do dia "date": para cada conta, o último snapshot anterior ao dia
+    // (ou o saldo inicial) mais o movimento do próprio dia. Contas ainda sem snapshot anterior
+    // somam o histórico completo até "until". Paginado por id do cliente (keyset) dentro da faixa
+    // (afterId, lastId], o que permite dividir o relatório em partições independentes.
+    @Query("""
+            SELECT new com.xpto.controlefinanceiro.modules.reports.projections.CustomerBalanceRow(
+                c.id, c.name, c.createdAt,
+                COALESCE(SUM(COALESCE(s.closingBalance, a.initialBalance)), 0)
+                + COALESCE((
+                    SELECT SUM(CASE WHEN t.type = com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType.CREDIT
+                                    THEN t.amount ELSE -t.amount END)
+                    FROM Transaction t
+                    WHERE t.account.customer = c AND t.date >= :dayStart AND t.date < :until
+                      AND EXISTS (SELECT 1 FROM DailyBalanceSnapshot s3
+                                  WHERE s3.accountId = t.account.id AND s3.snapshotDate < :date)), 0)
+                + COALESCE((
+                    SELECT SUM(CASE WHEN t.type = com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType.CREDIT
+                                    THEN t.amount ELSE -t.amount END)
+                    FROM Transaction t
+                    WHERE t.account.customer = c AND t.date < :until
+                      AND NOT EXISTS (SELECT 1 FROM DailyBalanceSnapshot s4
+                                      WHERE s4.accountId = t.account.id AND s4.snapshotDate < :date)), 0))
+            FROM Customer c
+            LEFT JOIN Account a ON a.customer = c
+            LEFT JOIN DailyBalanceSnapshot s ON s.accountId = a.id AND s.snapshotDate = (
+                SELECT MAX(s2.snapshotDate) FROM DailyBalanceSnapshot s2
+                WHERE s2.accountId = a.id AND s2.snapshotDate < :date)
+            WHERE c.id > :afterId AND c.id <= :lastId
+            GROUP BY c.id, c.name, c.createdAt
+            ORDER BY c.id
+            """)
+    List<CustomerBalanceRow> findCustomerBalances(@Param("date") LocalDate date,
+                                                  @Param("dayStart") LocalDateTime dayStart,
+                                                  @Param("until") LocalDateTime until,
+                                                  @Param("afterId") UUID afterId,
+                                                  @Param("lastId") UUID lastId,
+                                                  Limit limit);
+
+    // Quantidade e soma das transações de cada cliente no período [from, to), para clientes com id na
+    // faixa (afterId, lastId]; só clientes com movimento
+    @Query("""
+            SELECT new com.xpto.controlefinanceiro.modules.reports.dtos.CompanyRevenueReportDTO$CustomerRevenue(
+                c.name, COUNT(t), SUM(t.amount))
+            FROM Transaction t JOIN t.account a JOIN a.customer c
+            WHERE t.date >= :from AND t.date < :to AND c.id > :afterId AND c.id <= :lastId
+            GROUP BY c.id, c.name
+            ORDER BY c.id
+            """)
+    List<CompanyRevenueReportDTO.CustomerRevenue> findCustomerRevenues(@Param("from") LocalDateTime from,
+                                                                       @Param("to") LocalDateTime to,
+                                                                       @Param("afterId") UUID afterId,
+                                                                       @Param("lastId") UUID lastId);
+
+    @Query("SELECT COUNT(c) FROM Customer c")
+    long countCustomers();
+
+    // Ids de cliente em ordem crescente, a partir da posição da página: usado para achar os limites das
+    // partições do relatório paralelo
+    @Query("SELECT c.id FROM Customer c ORDER BY c.id")
+    List<UUID> findCustomerIds(Pageable pageable);
+}
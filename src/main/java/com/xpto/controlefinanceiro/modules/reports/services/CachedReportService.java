@@ -0,0 +1,51 @@
+package com.xpto.controlefinanceiro.modules.reports.services;
+
+import com.xpto.controlefinanceiro.modules.reports.cache.ReportCache;
+import com.xpto.controlefinanceiro.modules.reports.cache.ReportCacheKey;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CompanyRevenueReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CustomerBalancePeriodReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CustomerBalanceReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CustomersBalanceSummaryReportDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Camada de cache na frente do ReportServiceImpl: devolve o relatório já calculado
+ * para os mesmos parâmetros enquanto nenhuma escrita afetar os dados dele.
+ */
+@Service
+@Primary
+@RequiredArgsConstructor
+public class CachedReportService implements ReportService {
+
+    private final ReportServiceImpl reportService;
+    private final ReportCache reportCache;
+
+    @Override
+    public CustomerBalanceReportDTO generateCustomerBalanceReport(UUID customerId) {
+        return reportCache.get(ReportCacheKey.customerBalance(customerId),
+                () -> reportService.generateCustomerBalanceReport(customerId));
+    }
+
+    @Override
+    public CustomerBalancePeriodReportDTO generateCustomerBalancePeriodReport(UUID customerId, LocalDate startDate, LocalDate endDate) {
+        return reportCache.get(ReportCacheKey.customerBalancePeriod(customerId, startDate, endDate),
+                () -> reportService.generateCustomerBalancePeriodReport(customerId, startDate, endDate));
+    }
+
+    @Override
+    public CustomersBalanceSummaryReportDTO generateSummaryReport(LocalDate date) {
+        return reportCache.get(ReportCacheKey.balanceSummary(date),
+                () -> reportService.generateSummaryReport(date));
+    }
+
+    @Override
+    public CompanyRevenueReportDTO generateCompanyRevenueReport(LocalDate startDate, LocalDate endDate) {
+        return reportCache.get(ReportCacheKey.companyRevenue(startDate, endDate),
+                () -> reportService.generateCompanyRevenueReport(startDate, endDate));
+    }
+}
@@ -10,12 +10,16 @@ import com.xpto.controlefinanceiro.modules.reports.dtos.CustomerBalancePeriodRep
 import com.xpto.controlefinanceiro.modules.reports.dtos.CustomerBalanceReportDTO;
 import com.xpto.controlefinanceiro.modules.reports.dtos.CustomersBalanceSummaryReportDTO;
 import com.xpto.controlefinanceiro.modules.reports.mapper.ReportMapper;
+import com.xpto.controlefinanceiro.modules.reports.parallel.PartitionedReportExecutor;
+import com.xpto.controlefinanceiro.modules.reports.projections.CustomerBalanceRow;
+import com.xpto.controlefinanceiro.modules.reports.repository.ReportRepository;
 import com.xpto.controlefinanceiro.modules.reports.services.ReportService;
-import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
 import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
 import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -25,7 +29,6 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -34,10 +37,15 @@ public class ReportServiceImpl implements ReportService {
     private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final ReportRepository reportRepository;
+    private final PartitionedReportExecutor partitionedReportExecutor;
+
+    @Value("${xpto.reports.summary.page-size:1000}")
+    private int summaryPageSize = 1000;
 
     @Override
     public CustomerBalanceReportDTO generateCustomerBalanceReport(UUID customerId) {
-        Customer customer = customerRepository.findById(customerId)
+        Customer customer = customerRepository.findWithAddressesById(customerId)
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id: " + customerId));
 
         List<Account> accounts = accountRepository.findByCustomerId(customerId);
@@ -49,21 +57,21 @@ public class ReportServiceImpl implements ReportService {
         // Considerar uma única conta por cliente, ou somar todas.
         BigDecimal initialBalance = BigDecimal.ZERO;
         BigDecimal currentBalance = BigDecimal.ZERO;
-        List<Transaction> allTransactions = new java.util.ArrayList<>();
 
         for (Account account : accounts) {
             initialBalance = initialBalance.add(account.getInitialBalance());
             currentBalance = currentBalance.add(account.getBalance());
-            List<Transaction> accountTransactions = transactionRepository.findByAccountId(account.getId());
-            allTransactions.addAll(accountTransactions);
         }
 
+        // Transações de todas as contas numa única consulta, em vez de uma por conta
+        List<Transaction> allTransactions = transactionRepository.findByAccountCustomerId(customerId);
+
         return ReportMapper.toCustomerBalanceReport(customer, allTransactions, initialBalance, currentBalance);
     }
 
     @Override
     public CustomerBalancePeriodReportDTO generateCustomerBalancePeriodReport(UUID customerId, LocalDate startDate, LocalDate endDate) {
-        Customer customer = customerRepository.findById(customerId)
+        Customer customer = customerRepository.findWithAddressesById(customerId)
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id: " + customerId));
 
         List<Account> accounts = accountRepository.findByCustomerId(customerId);
@@ -74,78 +82,49 @@ public class ReportServiceImpl implements ReportService {
 
         BigDecimal initialBalance = BigDecimal.ZERO;
         BigDecimal currentBalance = BigDecimal.ZERO;
-        List<Transaction> filteredTransactions = new java.util.ArrayList<>();
 
         for (Account account : accounts) {
             initialBalance = initialBalance.add(account.getInitialBalance());
             currentBalance = currentBalance.add(account.getBalance());
-
-            // Filtra transações do período desejado
-            List<Transaction> transactions = transactionRepository.findByAccountId(account.getId()).stream()
-                    .filter(t -> {
-                        LocalDate date = t.getDate().toLocalDate();
-                        return (date.isEqual(startDate) || date.isAfter(startDate)) &&
-                                (date.isEqual(endDate) || date.isBefore(endDate));
-                    })
-                    .toList();
-
-            filteredTransactions.addAll(transactions);
         }
 
+        // Transações do período desejado, filtradas direto no banco (datas inclusivas)
+        List<Transaction> filteredTransactions = transactionRepository.findByCustomerIdAndPeriod(
+                customerId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+
         return ReportMapper.toCustomerBalancePeriodReport(customer, filteredTransactions, initialBalance, currentBalance, startDate, endDate);
     }
 
     @Override
     public CustomersBalanceSummaryReportDTO generateSummaryReport(LocalDate date) {
-        List<Customer> customers = customerRepository.findAll();
-
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
         String formattedDate = date.format(formatter);
 
-        LocalDate finalDate = date; // data de referência para o relatório
-
-        List<CustomersBalanceSummaryReportDTO.CustomerBalanceSummary> summaries = customers.stream()
-                .map(customer -> {
-                    List<Account> accounts = accountRepository.findByCustomerId(customer.getId());
-
-                    BigDecimal totalBalanceUntilDate = BigDecimal.ZERO;
-
-                    for (Account account : accounts) {
-                        BigDecimal initialBalance = account.getInitialBalance();
-
-                        // Buscar transações até a data final (inclusive)
-                        // Para isso, vamos precisar de um método no transactionRepository para isso:
-                        // List<Transaction> findByAccountIdAndDateLessThanEqual(UUID accountId, LocalDateTime date);
-                        // Como você tem no seu filtro de período, mas adaptado para até date.
-
-                        LocalDateTime endOfDay = finalDate.atTime(23, 59, 59);
-
-                        List<Transaction> transactionsUntilDate = transactionRepository
-                                .findByAccountIdAndDateLessThanEqual(account.getId(), endOfDay);
-
-                        // Somar créditos e débitos até a data
-                        BigDecimal credits = transactionsUntilDate.stream()
-                                .filter(t -> t.getType() == TransactionType.CREDIT)
-                                .map(Transaction::getAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                        BigDecimal debits = transactionsUntilDate.stream()
-                                .filter(t -> t.getType() == TransactionType.DEBIT)
-                                .map(Transaction::getAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                        BigDecimal balanceUntilDate = initialBalance.add(credits).subtract(debits);
-
-                        totalBalanceUntilDate = totalBalanceUntilDate.add(balanceUntilDate);
-                    }
-
-                    return new CustomersBalanceSummaryReportDTO.CustomerBalanceSummary(
-                            customer.getName(),
-                            customer.getCreatedAt().format(formatter),
-                            totalBalanceUntilDate
-                    );
-                })
-                .collect(Collectors.toList());
+        // Saldo ao fim do dia de referência: snapshot do dia anterior + movimento do dia
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime until = date.plusDays(1).atStartOfDay();
+
+        // Cada faixa de ids é paginada de forma independente; as faixas chegam concatenadas em ordem de id
+        List<CustomersBalanceSummaryReportDTO.CustomerBalanceSummary> summaries = partitionedReportExecutor.execute(range -> {
+            List<CustomersBalanceSummaryReportDTO.CustomerBalanceSummary> partial = new ArrayList<>();
+            UUID afterId = range.afterId();
+            List<CustomerBalanceRow> page;
+            do {
+                page = reportRepository.findCustomerBalances(
+                        date, dayStart, until, afterId, range.lastId(), Limit.of(summaryPageSize));
+                for (CustomerBalanceRow row : page) {
+                    partial.add(new CustomersBalanceSummaryReportDTO.CustomerBalanceSummary(
+                            row.customerName(),
+                            row.customerSince().format(formatter),
+                            row.balance()
+                    ));
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).customerId();
+                }
+            } while (page.size() == summaryPageSize);
+            return partial;
+        });
 
         return new CustomersBalanceSummaryReportDTO(formattedDate, summaries);
     }
@@ -156,40 +135,14 @@ public class ReportServiceImpl implements ReportService {
         String formattedStartDate = startDate.format(formatter);
         String formattedEndDate = endDate.format(formatter);
 
-        List<Customer> customers = customerRepository.findAll();
-        List<CompanyRevenueReportDTO.CustomerRevenue> customerRevenues = new ArrayList<>();
-        BigDecimal totalRevenue = BigDecimal.ZERO;
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        List<CompanyRevenueReportDTO.CustomerRevenue> customerRevenues = partitionedReportExecutor.execute(
+                range -> reportRepository.findCustomerRevenues(from, to, range.afterId(), range.lastId()));
 
-        for (Customer customer : customers) {
-            List<Account> accounts = accountRepository.findByCustomerId(customer.getId());
-
-            long transactionCount = 0;
-            BigDecimal customerTotal = BigDecimal.ZERO;
-
-            for (Account account : accounts) {
-                List<Transaction> transactions = transactionRepository.findByAccountId(account.getId()).stream()
-                        .filter(t -> {
-                            LocalDate txDate = t.getDate().toLocalDate();
-                            return !txDate.isBefore(startDate) && !txDate.isAfter(endDate);
-                        })
-                        .toList();
-
-                transactionCount += transactions.size();
-                customerTotal = customerTotal.add(
-                        transactions.stream()
-                                .map(Transaction::getAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                );
-            }
-
-            if (transactionCount > 0) {
-                customerRevenues.add(new CompanyRevenueReportDTO.CustomerRevenue(
-                        customer.getName(),
-                        transactionCount,
-                        customerTotal
-                ));
-                totalRevenue = totalRevenue.add(customerTotal);
-            }
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (CompanyRevenueReportDTO.CustomerRevenue revenue : customerRevenues) {
+            totalRevenue = totalRevenue.add(revenue.totalAmount());
         }
 
         return new CompanyRevenueReportDTO(
@@ -0,0 +1,11 @@
+package com.xpto.controlefinanceiro.modules.seed.dtos;
+
+public record DatasetSeedRequestDTO(
+        int customers,
+        int accountsPerCustomer,
+        int transactionsPerAccount,
+        int days,
+        int batchSize,
+        long randomSeed
+) {
+}
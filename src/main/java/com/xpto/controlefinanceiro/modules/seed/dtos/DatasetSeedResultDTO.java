@@ -0,0 +1,10 @@
+package com.xpto.controlefinanceiro.modules.seed.dtos;
+
+public record DatasetSeedResultDTO(
+        long customers,
+        long accounts,
+        long transactions,
+        long snapshots,
+        long elapsedMillis
+) {
+}
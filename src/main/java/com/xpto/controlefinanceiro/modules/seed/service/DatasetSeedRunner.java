@@ -0,0 +1,57 @@
+package com.xpto.controlefinanceiro.modules.seed.service;
+
+import com.xpto.controlefinanceiro.modules.seed.dtos.DatasetSeedRequestDTO;
+import com.xpto.controlefinanceiro.modules.seed.dtos.DatasetSeedResultDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Com o perfil "seed", gera a massa sintética ao subir a aplicação. Por padrão a aplicação continua no ar
+ * para receber carga; com xpto.seed.exit-when-done ela encerra depois de gravar os dados.
+ */
+@Component
+@Profile("seed")
+public class DatasetSeedRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetSeedRunner.class);
+
+    private final DatasetSeeder datasetSeeder;
+    private final ApplicationContext context;
+    private final DatasetSeedRequestDTO request;
+    private final boolean exitWhenDone;
+
+    public DatasetSeedRunner(DatasetSeeder datasetSeeder, ApplicationContext context,
+                             @Value("${xpto.seed.customers:1000}") int customers,
+                             @Value("${xpto.seed.accounts-per-customer:2}") int accountsPerCustomer,
+                             @Value("${xpto.seed.transactions-per-account:50}") int transactionsPerAccount,
+                             @Value("${xpto.seed.days:365}") int days,
+                             @Value("${xpto.seed.batch-size:1000}") int batchSize,
+                             @Value("${xpto.seed.random-seed:42}") long randomSeed,
+                             @Value("${xpto.seed.exit-when-done:false}") boolean exitWhenDone) {
+        this.datasetSeeder = datasetSeeder;
+        this.context = context;
+        this.request = new DatasetSeedRequestDTO(customers, accountsPerCustomer, transactionsPerAccount,
+                days, batchSize, randomSeed);
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Seeding {} customers x {} accounts x {} transactions over {} days",
+                request.customers(), request.accountsPerCustomer(), request.transactionsPerAccount(), request.days());
+        DatasetSeedResultDTO result = datasetSeeder.seed(request);
+        log.info("Seeded {} customers, {} accounts, {} transactions and {} snapshots in {} ms",
+                result.customers(), result.accounts(), result.transactions(), result.snapshots(), result.elapsedMillis());
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
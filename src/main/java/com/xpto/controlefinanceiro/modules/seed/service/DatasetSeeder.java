@@ -0,0 +1,140 @@
+package com.xpto.controlefinanceiro.modules.seed.service;
+
+import com.xpto.controlefinanceiro.common.persistence.UuidV7;
+import com.xpto.controlefinanceiro.modules.seed.dtos.DatasetSeedRequestDTO;
+import com.xpto.controlefinanceiro.modules.seed.dtos.DatasetSeedResultDTO;
+import com.xpto.controlefinanceiro.modules.snapshot.dtos.BalanceSnapshotRebuildDTO;
+import com.xpto.controlefinanceiro.modules.snapshot.service.BalanceSnapshotService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Gera uma massa sintética de clientes, contas e transações direto por JDBC, em lotes (batch insert),
+ * para reproduzir volume de produção em H2 ou PostgreSQL. As transações de cada conta são geradas em
+ * ordem cronológica a partir da data de cadastro do cliente, sem deixar o saldo negativo, e o saldo final
+ * da conta é gravado já consistente. No fim os snapshots diários são reconstruídos.
+ */
+@Service
+public class DatasetSeeder {
+
+    private static final String INSERT_CUSTOMER = """
+            INSERT INTO customers (id, name, customer_type, cpf, cnpj, phone, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+    private static final String INSERT_ACCOUNT = """
+            INSERT INTO accounts (id, bank, agency, number, balance, initial_balance, customer_id, active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, TRUE)""";
+    private static final String INSERT_TRANSACTION = """
+            INSERT INTO transactions (id, account_id, type, amount, date, description)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate, BalanceSnapshotService balanceSnapshotService,
+                         PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.balanceSnapshotService = balanceSnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public DatasetSeedResultDTO seed(DatasetSeedRequestDTO request) {
+        long start = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(request.randomSeed());
+        LocalDateTime now = LocalDateTime.now();
+
+        // CPFs continuam a partir dos clientes existentes, para a semeadura poder rodar mais de uma vez
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Long.class);
+        long cpfBase = 90_000_000_000L + (existing == null ? 0 : existing);
+
+        List<Object[]> customers = new ArrayList<>();
+        List<Object[]> accounts = new ArrayList<>();
+        List<Object[]> transactions = new ArrayList<>();
+        long accountCount = 0;
+        long transactionCount = 0;
+
+        for (int c = 0; c < request.customers(); c++) {
+            UUID customerId = UuidV7.next();
+            LocalDate customerSince = now.toLocalDate().minusDays(random.nextInt(Math.max(1, request.days())));
+            customers.add(new Object[]{customerId, "Cliente Sintético " + (cpfBase + c), "PF",
+                    String.format("%011d", cpfBase + c), null, "8190000" + String.format("%04d", c % 10_000),
+                    Date.valueOf(customerSince)});
+
+            for (int a = 0; a < request.accountsPerCustomer(); a++) {
+                UUID accountId = UuidV7.next();
+                BigDecimal initialBalance = BigDecimal.valueOf(random.nextLong(0, 1_000_000), 2);
+                BigDecimal balance = addTransactions(transactions, accountId, initialBalance, customerSince, now,
+                        request.transactionsPerAccount(), random);
+                accounts.add(new Object[]{accountId, "XPTO Bank", "0001", String.format("%08d-%d", c, a),
+                        balance, initialBalance, customerId});
+                accountCount++;
+                transactionCount += request.transactionsPerAccount();
+            }
+
+            // Grava a cada lote de transações, mantendo a memória limitada
+            if (transactions.size() >= request.batchSize() * 10 || c == request.customers() - 1) {
+                flush(customers, accounts, transactions, request.batchSize());
+            }
+        }
+
+        BalanceSnapshotRebuildDTO rebuild = balanceSnapshotService.rebuildAll();
+
+        return new DatasetSeedResultDTO(request.customers(), accountCount, transactionCount,
+                rebuild.snapshots(), System.currentTimeMillis() - start);
+    }
+
+    private BigDecimal addTransactions(List<Object[]> transactions, UUID accountId, BigDecimal initialBalance,
+                                       LocalDate customerSince, LocalDateTime now, int count, SplittableRandom random) {
+        long spreadSeconds = Math.max(1, Duration.between(customerSince.atStartOfDay(), now).toSeconds());
+        long[] offsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = random.nextLong(spreadSeconds);
+        }
+        Arrays.sort(offsets);
+
+        BigDecimal balance = initialBalance;
+        for (int i = 0; i < count; i++) {
+            // Valores pequenos são mais frequentes: 1,00 a ~5.000,00 com distribuição assimétrica
+            double factor = random.nextDouble();
+            BigDecimal amount = BigDecimal.valueOf(100 + (long) (factor * factor * factor * 500_000), 2);
+            boolean credit = random.nextInt(100) < 55 || balance.compareTo(amount) < 0;
+            balance = credit ? balance.add(amount) : balance.subtract(amount);
+
+            transactions.add(new Object[]{UuidV7.next(), accountId, credit ? "CREDIT" : "DEBIT", amount,
+                    Timestamp.valueOf(customerSince.atStartOfDay().plusSeconds(offsets[i])),
+                    credit ? "Depósito" : "Pagamento"});
+        }
+        return balance;
+    }
+
+    private void flush(List<Object[]> customers, List<Object[]> accounts, List<Object[]> transactions, int batchSize) {
+        transactionTemplate.executeWithoutResult(status -> {
+            batchInsert(INSERT_CUSTOMER, customers, batchSize);
+            batchInsert(INSERT_ACCOUNT, accounts, batchSize);
+            batchInsert(INSERT_TRANSACTION, transactions, batchSize);
+        });
+        customers.clear();
+        accounts.clear();
+        transactions.clear();
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows, int batchSize) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+}
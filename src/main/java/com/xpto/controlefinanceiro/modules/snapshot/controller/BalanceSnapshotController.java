@@ -0,0 +1,33 @@
+package com.xpto.controlefinanceiro.modules.snapshot.controller;
+
+import com.xpto.controlefinanceiro.common.metrics.QueryBudget;
+import com.xpto.controlefinanceiro.modules.snapshot.dtos.BalanceSnapshotRebuildDTO;
+import com.xpto.controlefinanceiro.modules.snapshot.service.BalanceSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/balance-snapshots")
+@RequiredArgsConstructor
+@Tag(name = "Balance Snapshots", description = "Rotas dos snapshots diários de saldo.")
+public class BalanceSnapshotController {
+
+    private final BalanceSnapshotService balanceSnapshotService;
+
+    @Operation(summary = "Reconstruir os snapshots diários de saldo",
+            description = "Recalcula o saldo de fechamento de cada conta em cada dia com movimento, a partir das transações.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Snapshots reconstruídos com sucesso")
+    })
+    @PostMapping("/rebuild")
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public BalanceSnapshotRebuildDTO rebuild() {
+        return balanceSnapshotService.rebuildAll();
+    }
+}
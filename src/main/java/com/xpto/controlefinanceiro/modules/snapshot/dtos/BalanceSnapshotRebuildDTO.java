@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.snapshot.dtos;
+
+public record BalanceSnapshotRebuildDTO(
+        int accounts,
+        int snapshots
+) {
+}
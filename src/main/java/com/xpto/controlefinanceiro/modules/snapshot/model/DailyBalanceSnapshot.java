@@ -0,0 +1,38 @@
+package com.xpto.controlefinanceiro.modules.snapshot.model;
+
+import com.xpto.controlefinanceiro.common.persistence.TimeOrderedUuid;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Saldo de fechamento de uma conta ao fim de um dia (saldo inicial + todas as transações até aquele dia).
+ * Dado derivado das transações: pode ser apagado e reconstruído a qualquer momento.
+ */
+@Entity
+@Table(name = "daily_balance_snapshots", uniqueConstraints =
+        @UniqueConstraint(name = "uk_daily_balance_snapshots_account_date", columnNames = {"account_id", "snapshot_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyBalanceSnapshot {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    // Sem chave estrangeira: o snapshot não deve impedir a remoção das contas
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(nullable = false)
+    private BigDecimal closingBalance;
+}
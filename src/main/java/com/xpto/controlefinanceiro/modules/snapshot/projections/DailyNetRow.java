@@ -0,0 +1,10 @@
+package com.xpto.controlefinanceiro.modules.snapshot.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyNetRow(
+        LocalDate date,
+        BigDecimal net
+) {
+}
@@ -0,0 +1,70 @@
+package com.xpto.controlefinanceiro.modules.snapshot.repository;
+
+import com.xpto.controlefinanceiro.modules.snapshot.model.DailyBalanceSnapshot;
+import com.xpto.controlefinanceiro.modules.snapshot.projections.DailyNetRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DailyBalanceSnapshotRepository extends JpaRepository<DailyBalanceSnapshot, UUID> {
+
+    List<DailyBalanceSnapshot> findByAccountIdOrderBySnapshotDate(UUID accountId);
+
+    // Último fechamento anterior ao dia informado
+    Optional<DailyBalanceSnapshot> findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(UUID accountId, LocalDate date);
+
+    // Soma o movimento ao fechamento do dia; 0 linhas afetadas indica que o dia ainda não tem snapshot
+    @Modifying
+    @Query("""
+            UPDATE DailyBalanceSnapshot s SET s.closingBalance = s.closingBalance + :delta
+            WHERE s.accountId = :accountId AND s.snapshotDate = :date
+            """)
+    int addToClosingBalance(@Param("accountId") UUID accountId,
+                            @Param("date") LocalDate date,
+                            @Param("delta") BigDecimal delta);
+
+    @Modifying
+    @Query("DELETE FROM DailyBalanceSnapshot s WHERE s.accountId = :accountId")
+    void deleteByAccountId(@Param("accountId") UUID accountId);
+
+    // Créditos - débitos da conta no intervalo [from, until)
+    @Query("""
+            SELECT COALESCE(SUM(CASE WHEN t.type = com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType.CREDIT
+                                     THEN t.amount ELSE -t.amount END), 0)
+            FROM Transaction t
+            WHERE t.account.id = :accountId AND t.date >= :from AND t.date < :until
+            """)
+    BigDecimal sumNetByAccountIdAndPeriod(@Param("accountId") UUID accountId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("until") LocalDateTime until);
+
+    @Query("""
+            SELECT COALESCE(SUM(CASE WHEN t.type = com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType.CREDIT
+                                     THEN t.amount ELSE -t.amount END), 0)
+            FROM Transaction t
+            WHERE t.account.id = :accountId AND t.date < :until
+            """)
+    BigDecimal sumNetByAccountIdBefore(@Param("accountId") UUID accountId,
+                                       @Param("until") LocalDateTime until);
+
+    // Movimento líquido por dia, usado na reconstrução dos snapshots
+    @Query("""
+            SELECT new com.xpto.controlefinanceiro.modules.snapshot.projections.DailyNetRow(
+                cast(t.date as LocalDate),
+                SUM(CASE WHEN t.type = com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType.CREDIT
+                         THEN t.amount ELSE -t.amount END))
+            FROM Transaction t
+            WHERE t.account.id = :accountId
+            GROUP BY cast(t.date as LocalDate)
+            ORDER BY cast(t.date as LocalDate)
+            """)
+    List<DailyNetRow> findDailyNetByAccountId(@Param("accountId") UUID accountId);
+}
@@ -0,0 +1,16 @@
+package com.xpto.controlefinanceiro.modules.snapshot.service;
+
+import com.xpto.controlefinanceiro.modules.snapshot.dtos.BalanceSnapshotRebuildDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface BalanceSnapshotService {
+
+    void registerMovement(UUID accountId, LocalDate date, BigDecimal delta);
+
+    BigDecimal closingBalance(UUID accountId, LocalDate date);
+
+    BalanceSnapshotRebuildDTO rebuildAll();
+}
@@ -0,0 +1,111 @@
+package com.xpto.controlefinanceiro.modules.snapshot.service;
+
+import com.xpto.controlefinanceiro.modules.account.exceptions.AccountNotFoundException;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.snapshot.dtos.BalanceSnapshotRebuildDTO;
+import com.xpto.controlefinanceiro.modules.snapshot.model.DailyBalanceSnapshot;
+import com.xpto.controlefinanceiro.modules.snapshot.projections.DailyNetRow;
+import com.xpto.controlefinanceiro.modules.snapshot.repository.DailyBalanceSnapshotRepository;
+import com.xpto.controlefinanceiro.modules.transaction.concurrency.AccountLockStripes;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class BalanceSnapshotServiceImpl implements BalanceSnapshotService {
+
+    private final DailyBalanceSnapshotRepository snapshotRepository;
+    private final AccountRepository accountRepository;
+    private final AccountLockStripes accountLocks;
+    private final TransactionTemplate transactionTemplate;
+
+    public BalanceSnapshotServiceImpl(DailyBalanceSnapshotRepository snapshotRepository, AccountRepository accountRepository,
+                                      AccountLockStripes accountLocks, PlatformTransactionManager transactionManager) {
+        this.snapshotRepository = snapshotRepository;
+        this.accountRepository = accountRepository;
+        this.accountLocks = accountLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Atualiza o fechamento do dia com o movimento de uma transação recém gravada.
+     * Deve ser chamado na mesma transação (e sob o lock da conta) que gravou a transação.
+     */
+    @Override
+    @Transactional
+    public void registerMovement(UUID accountId, LocalDate date, BigDecimal delta) {
+        if (snapshotRepository.addToClosingBalance(accountId, date, delta) == 0) {
+            // Primeiro movimento do dia: o fechamento é calculado a partir do snapshot anterior,
+            // já incluindo a transação que acabou de ser gravada
+            snapshotRepository.save(DailyBalanceSnapshot.builder()
+                    .accountId(accountId)
+                    .snapshotDate(date)
+                    .closingBalance(closingBalance(accountId, date))
+                    .build());
+        }
+    }
+
+    /**
+     * Saldo da conta ao fim do dia: último snapshot anterior + movimento desde então.
+     * Sem snapshot anterior, soma o histórico a partir do saldo inicial.
+     */
+    @Override
+    public BigDecimal closingBalance(UUID accountId, LocalDate date) {
+        LocalDateTime until = date.plusDays(1).atStartOfDay();
+
+        return snapshotRepository.findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(accountId, date)
+                .map(previous -> previous.getClosingBalance().add(snapshotRepository.sumNetByAccountIdAndPeriod(
+                        accountId, previous.getSnapshotDate().plusDays(1).atStartOfDay(), until)))
+                .orElseGet(() -> initialBalance(accountId).add(snapshotRepository.sumNetByAccountIdBefore(accountId, until)));
+    }
+
+    /**
+     * Recalcula todos os snapshots a partir das transações, uma conta por vez.
+     * Cada conta é reconstruída sob o seu lock, sem bloquear escritas nas demais.
+     */
+    @Override
+    public BalanceSnapshotRebuildDTO rebuildAll() {
+        List<UUID> accountIds = accountRepository.findAllIds();
+
+        int snapshots = 0;
+        for (UUID accountId : accountIds) {
+            snapshots += accountLocks.withLock(accountId,
+                    () -> transactionTemplate.execute(status -> rebuild(accountId)));
+        }
+
+        return new BalanceSnapshotRebuildDTO(accountIds.size(), snapshots);
+    }
+
+    private int rebuild(UUID accountId) {
+        snapshotRepository.deleteByAccountId(accountId);
+
+        BigDecimal balance = initialBalance(accountId);
+        List<DailyBalanceSnapshot> snapshots = new ArrayList<>();
+        for (DailyNetRow row : snapshotRepository.findDailyNetByAccountId(accountId)) {
+            balance = balance.add(row.net());
+            snapshots.add(DailyBalanceSnapshot.builder()
+                    .accountId(accountId)
+                    .snapshotDate(row.date())
+                    .closingBalance(balance)
+                    .build());
+        }
+
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    private BigDecimal initialBalance(UUID accountId) {
+        return accountRepository.findById(accountId)
+                .map(Account::getInitialBalance)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + accountId));
+    }
+}
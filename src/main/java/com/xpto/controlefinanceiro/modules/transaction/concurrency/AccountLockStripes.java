@@ -0,0 +1,76 @@
+package com.xpto.controlefinanceiro.modules.transaction.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Conjunto fixo de locks indexado pelo id da conta.
+ * Escritas na mesma conta são serializadas, enquanto contas diferentes
+ * (em stripes diferentes) seguem em paralelo.
+ */
+@Component
+public class AccountLockStripes {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public AccountLockStripes(@Value("${xpto.transactions.lock-stripes:256}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("lock-stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public <T> T withLock(UUID accountId, Supplier<T> action) {
+        ReentrantLock lock = stripes[indexOf(accountId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adquire os locks de várias contas sempre em ordem crescente de stripe,
+     * evitando deadlock entre chamadas que envolvem as mesmas contas.
+     */
+    public <T> T withLocks(Collection<UUID> accountIds, Supplier<T> action) {
+        int[] indexes = accountIds.stream()
+                .mapToInt(this::indexOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                acquired++;
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int indexOf(UUID accountId) {
+        int h = accountId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,33 @@
+package com.xpto.controlefinanceiro.modules.transaction.controller;
+
+import com.xpto.controlefinanceiro.common.metrics.QueryBudget;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionOutboxRedriveDTO;
+import com.xpto.controlefinanceiro.modules.transaction.outbox.TransactionOutboxRelay;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/transactions/outbox")
+@RequiredArgsConstructor
+@Tag(name = "Transaction Outbox", description = "Rotas de operação do outbox de transações.")
+public class TransactionOutboxController {
+
+    private final TransactionOutboxRelay relay;
+
+    @Operation(summary = "Reenviar eventos estacionados",
+            description = "Devolve à fila do relay os eventos do outbox estacionados por não poderem ser entregues, depois de corrigida a causa.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Eventos devolvidos à fila")
+    })
+    @PostMapping("/redrive")
+    @QueryBudget(1)
+    public TransactionOutboxRedriveDTO redrive() {
+        return new TransactionOutboxRedriveDTO(relay.redriveParked());
+    }
+}
@@ -1,23 +1,37 @@
 package com.xpto.controlefinanceiro.modules.transaction.controller;
 
 
+import com.xpto.controlefinanceiro.common.metrics.QueryBudget;
 import com.xpto.controlefinanceiro.modules.account.dtos.AccountRequestDTO;
 import com.xpto.controlefinanceiro.modules.account.dtos.AccountResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionBatchResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionPageDTO;
 import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
 import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionExportFormat;
+import com.xpto.controlefinanceiro.modules.transaction.pipeline.TransactionWritePipeline;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionExportService;
 import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @RestController
@@ -25,60 +39,148 @@ import java.util.UUID;
 @Tag(name = "Transactions", description = "Rotas das Transações")
 public class TransactionalController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionWritePipeline writePipeline;
 
-    public TransactionalController(TransactionService transactionService) {
+    public TransactionalController(TransactionService transactionService, TransactionExportService transactionExportService,
+                                   TransactionWritePipeline writePipeline) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.writePipeline = writePipeline;
     }
 
-    @Operation(summary = "Criar uma nova transação")
+    @Operation(summary = "Criar uma nova transação",
+            description = "Com o header Idempotency-Key, reenviar a mesma requisição devolve a transação criada na "
+                    + "primeira vez, sem movimentar a conta de novo.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Transação criada com sucesso",
+            @ApiResponse(responseCode = "201", description = "Transação criada com sucesso (ou já criada com a mesma chave)",
                     content = @Content(schema = @Schema(implementation = TransactionResponseDTO.class))),
-            @ApiResponse(responseCode = "400", description = "Dados inválidos ou saldo insuficiente",
+            @ApiResponse(responseCode = "400", description = "Dados inválidos, Idempotency-Key inválida ou saldo insuficiente",
                     content = @Content),
             @ApiResponse(responseCode = "404", description = "Conta não encontrada",
+                    content = @Content),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada com outra requisição",
+                    content = @Content),
+            @ApiResponse(responseCode = "503", description = "Fila de gravação cheia (com xpto.transactions.pipeline.enabled)",
                     content = @Content)
     })
     @PostMapping
-    public ResponseEntity<TransactionResponseDTO> create(@RequestBody @Valid TransactionRequestDTO dto) {
-        TransactionResponseDTO created = transactionService.create(dto);
+    @QueryBudget(10)
+    public ResponseEntity<TransactionResponseDTO> create(@RequestBody @Valid TransactionRequestDTO dto,
+                                                         @Parameter(description = "Chave única por operação, repetida nos reenvios")
+                                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        // Com chave de idempotência a gravação fica no caminho direto, que confere a chave na mesma transação
+        TransactionResponseDTO created = idempotencyKey == null && writePipeline.isEnabled()
+                ? writePipeline.create(dto)
+                : transactionService.create(dto, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
-    @Operation(summary = "Listar todas as transações")
+    @Operation(summary = "Criar transações em lote",
+            description = "Processa uma lista de transações agrupando por conta. Cada item é aceito ou rejeitado individualmente.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; verifique o resultado de cada item",
+                    content = @Content(schema = @Schema(implementation = TransactionBatchResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote acima do tamanho máximo permitido",
+                    content = @Content)
+    })
+    @PostMapping("/batch")
+    @QueryBudget(value = 5, perItem = 4)
+    public ResponseEntity<TransactionBatchResponseDTO> createBatch(@RequestBody List<TransactionRequestDTO> dtos,
+                                                                   HttpServletRequest request) {
+        // O lote grava agrupado por conta (lock, saldo e snapshot), então o orçamento cresce por conta distinta
+        request.setAttribute(QueryBudget.ITEMS_ATTRIBUTE, (int) dtos.stream()
+                .filter(Objects::nonNull)
+                .map(TransactionRequestDTO::accountId)
+                .distinct()
+                .count());
+        return ResponseEntity.ok(transactionService.createBatch(dtos));
+    }
+
+    @Operation(summary = "Transferir entre contas",
+            description = "Debita a conta de origem e credita a de destino numa única transação do banco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Transferência realizada com sucesso",
+                    content = @Content(schema = @Schema(implementation = TransferResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos, contas iguais ou saldo insuficiente",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Conta não encontrada",
+                    content = @Content)
+    })
+    @PostMapping("/transfer")
+    @QueryBudget(12)
+    public ResponseEntity<TransferResponseDTO> transfer(@RequestBody @Valid TransferRequestDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.transfer(dto));
+    }
+
+    @Operation(summary = "Listar todas as transações",
+            description = "Paginado por cursor: envie o nextCursor da resposta anterior para obter a próxima página.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de transações retornada com sucesso",
-                    content = @Content(schema = @Schema(implementation = TransactionResponseDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Página de transações retornada com sucesso",
+                    content = @Content(schema = @Schema(implementation = TransactionPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido",
+                    content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<TransactionResponseDTO>> findAll() {
-        return ResponseEntity.ok(transactionService.findAll());
+    @QueryBudget(1)
+    public ResponseEntity<TransactionPageDTO> findAll(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionService.findAll(cursor, limit));
     }
 
     @Operation(summary = "Listar transações por conta")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transações da conta retornadas com sucesso",
-                    content = @Content(schema = @Schema(implementation = TransactionResponseDTO.class))),
+                    content = @Content(schema = @Schema(implementation = TransactionPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Conta não encontrada",
                     content = @Content)
     })
     @GetMapping("/account/{accountId}")
-    public ResponseEntity<List<TransactionResponseDTO>> findByAccount(@PathVariable UUID accountId) {
-        return ResponseEntity.ok(transactionService.findByAccount(accountId));
+    @QueryBudget(2)
+    public ResponseEntity<TransactionPageDTO> findByAccount(@PathVariable UUID accountId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionService.findByAccount(accountId, cursor, limit));
     }
 
     @Operation(summary = "Listar transações por cliente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transações do cliente retornadas com sucesso",
-                    content = @Content(schema = @Schema(implementation = TransactionResponseDTO.class))),
+                    content = @Content(schema = @Schema(implementation = TransactionPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Cliente não encontrado",
                     content = @Content)
     })
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<TransactionResponseDTO>> findByCustomer(@PathVariable UUID customerId) {
-        return ResponseEntity.ok(transactionService.findByCustomer(customerId));
+    @QueryBudget(2)
+    public ResponseEntity<TransactionPageDTO> findByCustomer(@PathVariable UUID customerId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionService.findByCustomer(customerId, cursor, limit));
     }
 
-
+    @Operation(summary = "Exportar transações do cliente",
+            description = "Gera o arquivo em streaming (NDJSON ou CSV), em ordem cronológica, sem limite de tamanho.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação gerada com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Cliente não encontrado",
+                    content = @Content)
+    })
+    @GetMapping("/customer/{customerId}/export")
+    @QueryBudget(2)
+    public ResponseEntity<StreamingResponseBody> exportByCustomer(@PathVariable UUID customerId,
+                                                                  @RequestParam(defaultValue = "NDJSON") TransactionExportFormat format) {
+        StreamingResponseBody body = transactionExportService.exportByCustomer(customerId, format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + customerId + "." + format.getExtension() + "\"")
+                .body(body);
+    }
 }
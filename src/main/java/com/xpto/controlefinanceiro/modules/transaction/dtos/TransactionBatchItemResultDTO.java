@@ -0,0 +1,20 @@
+package com.xpto.controlefinanceiro.modules.transaction.dtos;
+
+import com.xpto.controlefinanceiro.modules.transaction.enums.BatchItemStatus;
+import com.xpto.controlefinanceiro.modules.transaction.enums.BatchRejectionReason;
+
+public record TransactionBatchItemResultDTO(
+        int index,
+        BatchItemStatus status,
+        TransactionResponseDTO transaction,
+        BatchRejectionReason reason,
+        String message
+) {
+    public static TransactionBatchItemResultDTO accepted(int index, TransactionResponseDTO transaction) {
+        return new TransactionBatchItemResultDTO(index, BatchItemStatus.ACCEPTED, transaction, null, null);
+    }
+
+    public static TransactionBatchItemResultDTO rejected(int index, BatchRejectionReason reason, String message) {
+        return new TransactionBatchItemResultDTO(index, BatchItemStatus.REJECTED, null, reason, message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.xpto.controlefinanceiro.modules.transaction.dtos;
+
+import java.util.List;
+
+public record TransactionBatchResponseDTO(
+        int accepted,
+        int rejected,
+        List<TransactionBatchItemResultDTO> results
+) {
+}
@@ -0,0 +1,6 @@
+package com.xpto.controlefinanceiro.modules.transaction.dtos;
+
+public record TransactionOutboxRedriveDTO(
+        int redriven
+) {
+}
@@ -0,0 +1,9 @@
+package com.xpto.controlefinanceiro.modules.transaction.dtos;
+
+import java.util.List;
+
+public record TransactionPageDTO(
+        List<TransactionResponseDTO> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,15 @@
+package com.xpto.controlefinanceiro.modules.transaction.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record TransferRequestDTO(
+        @NotNull UUID fromAccountId,
+        @NotNull UUID toAccountId,
+        @NotNull @Positive BigDecimal amount,
+        String description
+) {
+}
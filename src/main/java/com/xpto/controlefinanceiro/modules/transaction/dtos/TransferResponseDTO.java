@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.transaction.dtos;
+
+public record TransferResponseDTO(
+        TransactionResponseDTO debit,
+        TransactionResponseDTO credit
+) {
+}
@@ -0,0 +1,6 @@
+package com.xpto.controlefinanceiro.modules.transaction.enums;
+
+public enum BatchItemStatus {
+    ACCEPTED,
+    REJECTED
+}
@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.transaction.enums;
+
+public enum BatchRejectionReason {
+    INVALID_REQUEST,
+    ACCOUNT_NOT_FOUND,
+    INSUFFICIENT_BALANCE
+}
@@ -0,0 +1,13 @@
+package com.xpto.controlefinanceiro.modules.transaction.events;
+
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+
+import java.util.List;
+
+/**
+ * Transações gravadas numa mesma transação do banco (uma criação, um lote ou as duas pernas de uma
+ * transferência), na ordem em que foram gravadas. Quem escuta após o commit recebe os eventos de uma conta
+ * na ordem das escritas, já que elas são serializadas pelo lock da conta.
+ */
+public record TransactionsBookedEvent(List<TransactionResponseDTO> transactions) {
+}
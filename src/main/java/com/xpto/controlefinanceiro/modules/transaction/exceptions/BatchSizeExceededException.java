@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.transaction.exceptions;
+
+public class BatchSizeExceededException extends RuntimeException {
+    public BatchSizeExceededException(String message) {
+        super(message);
+    }
+}
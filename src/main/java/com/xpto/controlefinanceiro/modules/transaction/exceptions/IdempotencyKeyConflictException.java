@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.transaction.exceptions;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
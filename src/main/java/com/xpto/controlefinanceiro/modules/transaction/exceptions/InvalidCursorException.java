@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.transaction.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
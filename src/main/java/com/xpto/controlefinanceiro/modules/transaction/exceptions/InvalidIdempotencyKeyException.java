@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.transaction.exceptions;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
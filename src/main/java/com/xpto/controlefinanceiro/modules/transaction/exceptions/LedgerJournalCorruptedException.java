@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.transaction.exceptions;
+
+public class LedgerJournalCorruptedException extends RuntimeException {
+    public LedgerJournalCorruptedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.xpto.controlefinanceiro.modules.transaction.exceptions;
+
+/**
+ * Falha dentro da transação do lote, antes do commit: nada do lote foi gravado e ele pode ser refeito. Falhas no
+ * commit ou depois dele não viram esta exceção, porque aí o lote pode já estar gravado.
+ */
+public class TransactionBatchRolledBackException extends RuntimeException {
+    public TransactionBatchRolledBackException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
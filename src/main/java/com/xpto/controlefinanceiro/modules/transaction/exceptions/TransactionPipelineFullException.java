@@ -0,0 +1,7 @@
+package com.xpto.controlefinanceiro.modules.transaction.exceptions;
+
+public class TransactionPipelineFullException extends RuntimeException {
+    public TransactionPipelineFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.xpto.controlefinanceiro.modules.transaction.exceptions;
+
+/**
+ * Evento do outbox que nunca vai poder ser entregue, qualquer que seja o número de tentativas: payload ilegível
+ * ou recusado por um consumidor. O relay estaciona o evento em vez de tentar de novo.
+ */
+public class UndeliverableOutboxEventException extends RuntimeException {
+    public UndeliverableOutboxEventException(String message) {
+        super(message);
+    }
+
+    public UndeliverableOutboxEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,202 @@
+package com.xpto.controlefinanceiro.modules.transaction.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xpto.controlefinanceiro.common.concurrency.WorkerThreads;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.IdempotencyKeyConflictException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InvalidIdempotencyKeyException;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionIdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Respostas de POST /transactions já processadas, por Idempotency-Key. A tabela transaction_idempotency_keys é a
+ * fonte de verdade (sobrevive a reinícios e é vista por todos os nós) e a chave é gravada na mesma transação da
+ * movimentação: ou as duas existem, ou nenhuma. Na frente dela fica um índice em memória com TTL, que atende sem
+ * ir ao banco a repetição mais comum, o reenvio logo após um timeout. As consultas são sempre por chave, em
+ * memória ou pela chave primária, e nada aqui segura lock: requisições com chaves diferentes não esperam umas
+ * pelas outras.
+ */
+@Component
+public class TransactionIdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIdempotencyStore.class);
+
+    private record StoredResponse(String fingerprint, TransactionResponseDTO response) {
+    }
+
+    private final Cache<String, StoredResponse> responses;
+    private final TransactionIdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Counter replays;
+    private final ScheduledExecutorService purger;
+
+    public TransactionIdempotencyStore(TransactionIdempotencyKeyRepository repository,
+                                       ObjectMapper objectMapper,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${xpto.transactions.idempotency.max-size:100000}") long maxSize,
+                                       @Value("${xpto.transactions.idempotency.ttl:24h}") Duration ttl,
+                                       @Value("${xpto.transactions.idempotency.purge-interval:1h}") Duration purgeInterval) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.responses = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.replays = Counter.builder("xpto.transactions.idempotency.replays")
+                .description("Requisições repetidas com a mesma Idempotency-Key, respondidas sem nova movimentação")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "transaction-idempotency-keys");
+
+        if (purgeInterval.isZero() || purgeInterval.isNegative()) {
+            this.purger = null;
+        } else {
+            this.purger = Executors.newSingleThreadScheduledExecutor(WorkerThreads.factory("idempotency-key-purger-", false));
+            long millis = purgeInterval.toMillis();
+            purger.scheduleWithFixedDelay(this::purgeQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static void validate(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    // Valor é normalizado (100 e 100.00 são a mesma requisição); a descrição vem por último, então não há ambiguidade
+    public static String fingerprint(TransactionRequestDTO dto) {
+        String canonical = dto.accountId() + "|" + dto.type() + "|" + dto.amount().stripTrailingZeros().toPlainString()
+                + "|" + (dto.description() == null ? "" : dto.description());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Resposta já gravada para a chave, procurando só na memória.
+     *
+     * @throws IdempotencyKeyConflictException se a chave foi usada com outra requisição
+     */
+    public Optional<TransactionResponseDTO> findCached(String key, String fingerprint) {
+        return Optional.ofNullable(responses.getIfPresent(key)).map(stored -> replay(key, stored, fingerprint));
+    }
+
+    /**
+     * Resposta já gravada para a chave, na memória ou no banco; o que vem do banco passa a ficar em memória.
+     *
+     * @throws IdempotencyKeyConflictException se a chave foi usada com outra requisição
+     */
+    public Optional<TransactionResponseDTO> find(String key, String fingerprint) {
+        StoredResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(replay(key, cached, fingerprint));
+        }
+        return repository.findById(key)
+                .map(row -> new StoredResponse(row.getFingerprint(), fromJson(row.getResponse())))
+                .map(stored -> {
+                    responses.put(key, stored);
+                    return replay(key, stored, fingerprint);
+                });
+    }
+
+    /**
+     * Grava a chave na transação corrente, que deve ser a mesma da movimentação. Se outro nó gravou a mesma
+     * chave antes, o insert falha com DataIntegrityViolationException e a transação inteira é desfeita.
+     */
+    public void save(String key, String fingerprint, TransactionResponseDTO response) {
+        repository.insert(key, fingerprint, toJson(response), LocalDateTime.now());
+    }
+
+    // Só depois do commit: antes dele a movimentação ainda pode ser desfeita
+    public void remember(String key, String fingerprint, TransactionResponseDTO response) {
+        responses.put(key, new StoredResponse(fingerprint, response));
+    }
+
+    /**
+     * Remove do banco as chaves mais velhas que o TTL; a memória expira sozinha.
+     *
+     * @return quantidade de chaves removidas
+     */
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        Integer removed = transactionTemplate.execute(status -> repository.deleteCreatedBefore(cutoff));
+        return removed == null ? 0 : removed;
+    }
+
+    public void invalidateAll() {
+        responses.invalidateAll();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    private TransactionResponseDTO replay(String key, StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key " + key + " was already used with a different request");
+        }
+        replays.increment();
+        return stored.response();
+    }
+
+    // Uma exceção encerraria as execuções seguintes do agendamento
+    private void purgeQuietly() {
+        try {
+            int removed = purgeExpired();
+            if (removed > 0) {
+                log.info("Purged {} expired idempotency keys", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Idempotency key purge failed", e);
+        }
+    }
+
+    private String toJson(TransactionResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize transaction response", e);
+        }
+    }
+
+    private TransactionResponseDTO fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, TransactionResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored transaction response", e);
+        }
+    }
+}
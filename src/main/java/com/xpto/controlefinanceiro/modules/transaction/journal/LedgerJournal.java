@@ -0,0 +1,245 @@
+package com.xpto.controlefinanceiro.modules.transaction.journal;
+
+import com.xpto.controlefinanceiro.common.concurrency.WorkerThreads;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.events.TransactionsBookedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Diário de lançamentos só de acréscimo, para auditoria: cada transação commitada vira um {@link LedgerRecord}
+ * de tamanho fixo, encadeado por hash ao anterior, escrito em segmentos mapeados em memória. O registro é
+ * escrito no commit (ainda sob o lock da conta, então a ordem por conta é a das escritas) e custa uma cópia
+ * de 96 bytes e um SHA-256; o fsync é feito em grupo por uma thread separada a cada {@code flush-interval},
+ * sem que a requisição espere por ele. O banco continua sendo a fonte de verdade: numa queda, o que não foi
+ * sincronizado pode faltar no fim do diário, mas nunca aparece no diário uma transação desfeita; o
+ * {@link LedgerReconciler} completa esse fim a partir do banco na subida seguinte.
+ * Desligado por padrão ({@code xpto.transactions.journal.enabled}).
+ */
+@Component
+public class LedgerJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerJournal.class);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentBytes;
+    private final Timer appendTimer;
+    private final Counter failures;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final MessageDigest digest = LedgerRecord.newDigest();
+    private final AtomicLong appended = new AtomicLong();
+    private final ScheduledExecutorService flusher;
+
+    // Protegidos por appendLock, exceto segment, lido também pelo flusher
+    private volatile MappedByteBuffer segment;
+    private int capacity;
+    private int nextSlot;
+    private long nextSequence;
+    private byte[] lastHash;
+    private volatile long flushed;
+
+    public LedgerJournal(@Value("${xpto.transactions.journal.enabled:false}") boolean enabled,
+                         @Value("${xpto.transactions.journal.directory:data/ledger}") Path directory,
+                         @Value("${xpto.transactions.journal.segment-size:64MB}") DataSize segmentSize,
+                         @Value("${xpto.transactions.journal.flush-interval:10ms}") Duration flushInterval,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentBytes = segmentSize.toBytes();
+        if (segmentBytes < 2L * LedgerRecord.SIZE || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Ledger segment size must be between 192 bytes and 2GB, got " + segmentSize);
+        }
+        this.appendTimer = Timer.builder("xpto.transactions.journal.append")
+                .description("Tempo para escrever no diário as transações de um commit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.failures = Counter.builder("xpto.transactions.journal.failures")
+                .description("Commits cujas transações não puderam ser escritas no diário")
+                .register(meterRegistry);
+
+        if (!enabled) {
+            this.flusher = null;
+            return;
+        }
+        open();
+        if (flushInterval.isZero() || flushInterval.isNegative()) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(WorkerThreads.factory("ledger-journal-flusher-", false));
+            long millis = flushInterval.toMillis();
+            flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    // Após o commit a transação já está no banco: uma falha aqui é registrada, mas não desfaz nem falha a requisição
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsBooked(TransactionsBookedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            append(event.transactions());
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Could not write {} transactions to the ledger journal", event.transactions().size(), e);
+        }
+    }
+
+    /**
+     * Escreve as transações em sequência, sem esperar o fsync.
+     *
+     * @return sequência do último registro escrito
+     */
+    public long append(List<TransactionResponseDTO> transactions) {
+        if (!enabled) {
+            throw new IllegalStateException("Ledger journal is disabled");
+        }
+        long start = System.nanoTime();
+        appendLock.lock();
+        try {
+            for (TransactionResponseDTO transaction : transactions) {
+                if (nextSlot == capacity) {
+                    roll();
+                }
+                lastHash = LedgerRecord.write(segment, LedgerSegments.offset(nextSlot), nextSequence, transaction, lastHash, digest);
+                nextSlot++;
+                nextSequence++;
+            }
+            appended.addAndGet(transactions.size());
+            return nextSequence - 1;
+        } finally {
+            appendLock.unlock();
+            appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Sincroniza com o disco o que já foi escrito no segmento atual
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        long pending = appended.get();
+        if (pending != flushed) {
+            segment.force();
+            flushed = pending;
+        }
+    }
+
+    public long lastSequence() {
+        appendLock.lock();
+        try {
+            return nextSequence - 1;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        if (enabled) {
+            appendLock.lock();
+            try {
+                segment.force();
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    // Retoma do último segmento: a cadeia continua do último registro válido e tudo depois dele é descartado
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Path> segments = LedgerSegments.list(directory);
+        if (segments.isEmpty()) {
+            nextSequence = 1;
+            lastHash = LedgerRecord.GENESIS_HASH;
+            startSegment();
+            return;
+        }
+
+        Path file = segments.get(segments.size() - 1);
+        MappedByteBuffer buffer = LedgerSegments.map(file, FileChannel.MapMode.READ_WRITE, -1);
+        LedgerSegments.Header header = LedgerSegments.readHeader(buffer, file);
+        LedgerSegments.Tail tail = LedgerSegments.scan(file, buffer, header, true, digest, record -> { });
+        // A leitura para no primeiro espaço vazio, mas numa queda as páginas do mapeamento podem ter ido ao disco fora
+        // de ordem e deixado registros depois dele. Os novos registros os sobrescreveriam um a um, e até lá a próxima
+        // leitura acharia uma cadeia quebrada: zera tudo depois do fim (a escrita interrompida também) antes de seguir
+        int discarded = LedgerSegments.clearFrom(buffer, tail.records());
+        if (discarded > 0) {
+            log.warn("Discarding {} ledger slots after sequence {} in {} that do not continue the chain",
+                    discarded, tail.lastSequence(), file);
+            buffer.force();
+        }
+
+        segment = buffer;
+        capacity = LedgerSegments.capacity(buffer.capacity());
+        nextSlot = tail.records();
+        nextSequence = tail.lastSequence() + 1;
+        lastHash = tail.lastHash();
+        log.info("Ledger journal resumed at sequence {} in {}", nextSequence, file);
+    }
+
+    private void roll() {
+        segment.force();
+        startSegment();
+    }
+
+    private void startSegment() {
+        Path file = LedgerSegments.path(directory, nextSequence);
+        MappedByteBuffer buffer = LedgerSegments.map(file, FileChannel.MapMode.READ_WRITE, segmentBytes);
+        LedgerSegments.writeHeader(buffer, nextSequence, lastHash);
+        buffer.force();
+        segment = buffer;
+        capacity = LedgerSegments.capacity(segmentBytes);
+        nextSlot = 0;
+    }
+
+    // Uma exceção encerraria as execuções seguintes do agendamento
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Ledger journal flush failed", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.xpto.controlefinanceiro.modules.transaction.journal;
+
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.mappers.TransactionMapper;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Completa o fim do diário com transações que estão no banco e não chegaram a ser escritas nele: o diário é
+ * escrito depois do commit, então uma queda entre os dois, ou uma falha na escrita, deixa a transação só no
+ * banco. Roda na subida, antes de a aplicação atender requisições, e acrescenta em ordem de data as transações
+ * do banco a partir de {@code reconcile-window} antes da transação mais recente do diário. Lacunas mais
+ * antigas que a janela não são recuperadas, e um diário vazio não é reconciliado (ele só cobre o que foi
+ * gravado depois de ligado). Janela zero desliga a reconciliação.
+ */
+@Component
+public class LedgerReconciler implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerReconciler.class);
+
+    private final LedgerJournal journal;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration window;
+    private final Counter reconciled;
+
+    public LedgerReconciler(LedgerJournal journal, TransactionRepository transactionRepository,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${xpto.transactions.journal.reconcile-window:5m}") Duration window) {
+        this.journal = journal;
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.window = window;
+        this.reconciled = Counter.builder("xpto.transactions.journal.reconciled")
+                .description("Transações commitadas acrescentadas ao diário na subida por não estarem nele")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (journal.isEnabled() && window.isPositive()) {
+            reconcile();
+        }
+    }
+
+    /**
+     * @return quantidade de transações acrescentadas ao diário
+     */
+    public int reconcile() {
+        Optional<LedgerReplay.Recent> recent = LedgerReplay.recent(journal.directory(), window);
+        if (recent.isEmpty()) {
+            return 0;
+        }
+
+        List<TransactionResponseDTO> missing = readOnlyTransaction.execute(status -> {
+            try (Stream<TransactionResponseDTO> committed = transactionRepository.streamSince(recent.get().since())
+                    .filter(transaction -> !recent.get().transactionIds().contains(transaction.getId()))
+                    .map(TransactionMapper::toResponseDTO)) {
+                return committed.toList();
+            }
+        });
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        journal.append(missing);
+        journal.flush();
+        reconciled.increment(missing.size());
+        log.warn("Appended {} committed transactions missing from the ledger journal since {}",
+                missing.size(), recent.get().since());
+        return missing.size();
+    }
+}
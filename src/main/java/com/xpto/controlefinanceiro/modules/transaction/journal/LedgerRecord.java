@@ -0,0 +1,137 @@
+package com.xpto.controlefinanceiro.modules.transaction.journal;
+
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Registro do diário de lançamentos, com {@link #SIZE} bytes em big-endian:
+ * <pre>
+ *  0  sequência (long, começa em 1)
+ *  8  id da transação (msb, lsb)
+ * 24  id da conta (msb, lsb)
+ * 40  valor em centavos (long)
+ * 48  data da transação em microssegundos desde 1970-01-01T00:00, sem fuso (long)
+ * 56  tipo (1 = crédito, 2 = débito) e 7 bytes reservados
+ * 64  SHA-256 do hash do registro anterior seguido dos bytes 0-63 deste registro
+ * </pre>
+ * Cada hash depende de todos os registros anteriores, então alterar, remover ou reordenar um registro quebra
+ * a cadeia dali em diante.
+ */
+public record LedgerRecord(long sequence, UUID transactionId, UUID accountId, TransactionType type,
+                           long amountInCents, long timestampMicros, byte[] hash) {
+
+    public static final int SIZE = 96;
+
+    static final int BODY_LENGTH = 64;
+    static final int HASH_LENGTH = 32;
+    static final byte[] GENESIS_HASH = new byte[HASH_LENGTH];
+
+    private static final byte CREDIT = 1;
+    private static final byte DEBIT = 2;
+
+    public BigDecimal amount() {
+        return BigDecimal.valueOf(amountInCents, 2);
+    }
+
+    public BigDecimal signedAmount() {
+        return type == TransactionType.CREDIT ? amount() : amount().negate();
+    }
+
+    public LocalDateTime timestamp() {
+        return fromMicros(timestampMicros);
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Escreve o registro da transação em {@code target} a partir de {@code offset}, sem mexer na posição do buffer.
+     *
+     * @return hash do registro, que encadeia o próximo
+     */
+    static byte[] write(ByteBuffer target, int offset, long sequence, TransactionResponseDTO transaction,
+                        byte[] previousHash, MessageDigest digest) {
+        target.putLong(offset, sequence);
+        target.putLong(offset + 8, transaction.id().getMostSignificantBits());
+        target.putLong(offset + 16, transaction.id().getLeastSignificantBits());
+        target.putLong(offset + 24, transaction.accountId().getMostSignificantBits());
+        target.putLong(offset + 32, transaction.accountId().getLeastSignificantBits());
+        target.putLong(offset + 40, toCents(transaction.amount()));
+        target.putLong(offset + 48, toMicros(transaction.date()));
+        target.putLong(offset + 56, (long) (transaction.type() == TransactionType.CREDIT ? CREDIT : DEBIT) << 56);
+
+        byte[] hash = hash(target, offset, previousHash, digest);
+        target.put(offset + BODY_LENGTH, hash);
+        return hash;
+    }
+
+    /**
+     * Lê o registro em {@code offset}; {@code null} se o espaço está vazio (nunca foi escrito).
+     */
+    static LedgerRecord read(ByteBuffer source, int offset) {
+        long sequence = source.getLong(offset);
+        if (sequence == 0) {
+            return null;
+        }
+        byte typeCode = source.get(offset + 56);
+        TransactionType type = typeCode == CREDIT ? TransactionType.CREDIT : typeCode == DEBIT ? TransactionType.DEBIT : null;
+        byte[] hash = new byte[HASH_LENGTH];
+        source.get(offset + BODY_LENGTH, hash);
+        return new LedgerRecord(sequence,
+                new UUID(source.getLong(offset + 8), source.getLong(offset + 16)),
+                new UUID(source.getLong(offset + 24), source.getLong(offset + 32)),
+                type,
+                source.getLong(offset + 40),
+                source.getLong(offset + 48),
+                hash);
+    }
+
+    // O registro em offset foi escrito por inteiro depois de previousHash (escrita interrompida ou adulterada não bate)
+    static boolean chainsTo(ByteBuffer source, int offset, LedgerRecord record, byte[] previousHash, MessageDigest digest) {
+        return record.type() != null && Arrays.equals(hash(source, offset, previousHash, digest), record.hash());
+    }
+
+    static boolean isEmpty(ByteBuffer source, int offset) {
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            if (source.getLong(offset + i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long toCents(BigDecimal amount) {
+        // Mesmo arredondamento da coluna numeric(38,2) no PostgreSQL
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static long toMicros(LocalDateTime date) {
+        return Math.addExact(Math.multiplyExact(date.toEpochSecond(ZoneOffset.UTC), 1_000_000L), date.getNano() / 1_000);
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static byte[] hash(ByteBuffer source, int offset, byte[] previousHash, MessageDigest digest) {
+        digest.update(previousHash);
+        digest.update(source.slice(offset, BODY_LENGTH));
+        return digest.digest();
+    }
+}
@@ -0,0 +1,155 @@
+package com.xpto.controlefinanceiro.modules.transaction.journal;
+
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.LedgerJournalCorruptedException;
+
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Lê o diário inteiro conferindo a cadeia de hashes e soma as movimentações por conta. O saldo de uma conta é
+ * o saldo inicial dela mais o líquido do diário, desde que o diário esteja ligado desde a abertura da conta
+ * (ajustes diretos de saldo por PUT /accounts não passam pelo diário). Linha de comando, com a aplicação parada
+ * ou rodando:
+ * <pre>
+ * ./mvnw -q compile exec:java -Dexec.mainClass=com.xpto.controlefinanceiro.modules.transaction.journal.LedgerReplay \
+ *     -Dexec.args="data/ledger"
+ * </pre>
+ * Imprime "conta;líquido" por conta e termina com código 1 se a cadeia estiver quebrada. O diário é escrito
+ * depois do commit, então pode faltar nele uma transação que está no banco (queda entre o commit e a escrita,
+ * ou falha na escrita); o {@link LedgerReconciler} completa o fim do diário na subida da aplicação.
+ */
+public final class LedgerReplay {
+
+    public record Result(long records, long lastSequence, Map<UUID, BigDecimal> netByAccount) {
+
+        public Map<UUID, BigDecimal> balances(Map<UUID, BigDecimal> openingBalances) {
+            Map<UUID, BigDecimal> balances = new LinkedHashMap<>(openingBalances);
+            netByAccount.forEach((accountId, net) -> balances.merge(accountId, net, BigDecimal::add));
+            return balances;
+        }
+    }
+
+    /**
+     * Fim do diário: o instante a partir do qual ele é comparado com o banco e os ids das transações escritas
+     * desde então.
+     */
+    public record Recent(LocalDateTime since, Set<UUID> transactionIds) {
+    }
+
+    private LedgerReplay() {
+    }
+
+    public static Result replay(Path directory) {
+        Map<UUID, Long> cents = new HashMap<>();
+        long[] records = new long[1];
+        long lastSequence = read(directory, record -> {
+            cents.merge(record.accountId(), record.type() == TransactionType.CREDIT
+                    ? record.amountInCents() : -record.amountInCents(), Math::addExact);
+            records[0]++;
+        });
+
+        Map<UUID, BigDecimal> net = new LinkedHashMap<>();
+        cents.forEach((accountId, value) -> net.put(accountId, BigDecimal.valueOf(value, 2)));
+        return new Result(records[0], lastSequence, net);
+    }
+
+    /**
+     * Entrega os registros em ordem de sequência, conferindo cada segmento contra o anterior.
+     *
+     * @return sequência do último registro
+     * @throws LedgerJournalCorruptedException se um registro ou segmento não encadeia no anterior
+     */
+    public static long read(Path directory, Consumer<LedgerRecord> consumer) {
+        List<Path> segments = LedgerSegments.list(directory);
+        MessageDigest digest = LedgerRecord.newDigest();
+        LedgerSegments.Tail previous = new LedgerSegments.Tail(0, LedgerRecord.GENESIS_HASH, 0);
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            MappedByteBuffer buffer = LedgerSegments.map(file, FileChannel.MapMode.READ_ONLY, -1);
+            LedgerSegments.Header header = LedgerSegments.readHeader(buffer, file);
+            LedgerSegments.checkContinuity(file, header, previous);
+            previous = LedgerSegments.scan(file, buffer, header, i == segments.size() - 1, digest, consumer);
+        }
+        return previous.lastSequence();
+    }
+
+    /**
+     * Lê os segmentos do mais novo para o mais antigo, até achar um segmento sem nenhum registro dentro de
+     * {@code window} antes da transação mais recente do diário. Vazio se o diário não tem registros.
+     */
+    public static Optional<Recent> recent(Path directory, Duration window) {
+        List<Path> segments = LedgerSegments.list(directory);
+        MessageDigest digest = LedgerRecord.newDigest();
+        Set<UUID> transactionIds = new HashSet<>();
+        long since = Long.MIN_VALUE;
+        boolean found = false;
+
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Path file = segments.get(i);
+            MappedByteBuffer buffer = LedgerSegments.map(file, FileChannel.MapMode.READ_ONLY, -1);
+            LedgerSegments.Header header = LedgerSegments.readHeader(buffer, file);
+            boolean lastSegment = i == segments.size() - 1;
+            if (!found) {
+                // Registros acrescentados pela reconciliação podem ser mais antigos que os anteriores: vale a maior data
+                long[] newest = {Long.MIN_VALUE};
+                LedgerSegments.scan(file, buffer, header, lastSegment, digest,
+                        record -> newest[0] = Math.max(newest[0], record.timestampMicros()));
+                if (newest[0] == Long.MIN_VALUE) {
+                    continue;
+                }
+                found = true;
+                since = newest[0] - window.toNanos() / 1_000;
+            }
+
+            // Um registro antigo no meio do segmento não encerra a busca (a reconciliação acrescenta fora de ordem):
+            // só um segmento inteiro antes do corte garante que os anteriores também estão
+            long cutoff = since;
+            boolean[] withinWindow = {false};
+            LedgerSegments.scan(file, buffer, header, lastSegment, digest, record -> {
+                if (record.timestampMicros() >= cutoff) {
+                    transactionIds.add(record.transactionId());
+                    withinWindow[0] = true;
+                }
+            });
+            if (!withinWindow[0]) {
+                break;
+            }
+        }
+        return found ? Optional.of(new Recent(LedgerRecord.fromMicros(since), transactionIds)) : Optional.empty();
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: LedgerReplay <journal directory>");
+            System.exit(2);
+        }
+        try {
+            Result result = replay(Path.of(args[0]));
+            result.netByAccount().forEach((accountId, net) -> System.out.println(accountId + ";" + net.toPlainString()));
+            System.out.printf("%d registros, última sequência %d, cadeia íntegra%n", result.records(), result.lastSequence());
+            // O diário é escrito depois do commit: só a subida da aplicação completa o fim dele a partir do banco
+            System.out.println("Atenção: transações commitadas e não escritas no diário (queda antes da escrita ou falhas em "
+                    + "xpto.transactions.journal.failures) faltam aqui até a próxima subida da aplicação, que completa "
+                    + "só as da janela xpto.transactions.journal.reconcile-window antes do último registro.");
+        } catch (LedgerJournalCorruptedException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
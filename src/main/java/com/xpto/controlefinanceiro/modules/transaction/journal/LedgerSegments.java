@@ -0,0 +1,164 @@
+package com.xpto.controlefinanceiro.modules.transaction.journal;
+
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.LedgerJournalCorruptedException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Arquivos de segmento do diário: ledger-&lt;primeira sequência&gt;.journal, cada um com um cabeçalho no primeiro
+ * espaço de registro (marca, versão, primeira sequência e hash do último registro do segmento anterior) e os
+ * registros em seguida. O cabeçalho permite retomar a cadeia lendo só o último segmento.
+ */
+final class LedgerSegments {
+
+    private static final int MAGIC = 0x584C4A31;
+    private static final int VERSION = 1;
+    private static final String PREFIX = "ledger-";
+    private static final String SUFFIX = ".journal";
+
+    record Header(long firstSequence, byte[] previousHash) {
+    }
+
+    /**
+     * Fim da cadeia num segmento lido.
+     *
+     * @param records registros válidos no segmento; o próximo registro vai no espaço de mesmo número
+     */
+    record Tail(long lastSequence, byte[] lastHash, int records) {
+    }
+
+    private LedgerSegments() {
+    }
+
+    static Path path(Path directory, long firstSequence) {
+        return directory.resolve(PREFIX + String.format("%020d", firstSequence) + SUFFIX);
+    }
+
+    static List<Path> list(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static int capacity(long segmentBytes) {
+        return (int) (segmentBytes / LedgerRecord.SIZE) - 1;
+    }
+
+    static int offset(int slot) {
+        return (slot + 1) * LedgerRecord.SIZE;
+    }
+
+    static void writeHeader(ByteBuffer buffer, long firstSequence, byte[] previousHash) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, firstSequence);
+        buffer.put(16, previousHash);
+    }
+
+    static Header readHeader(ByteBuffer buffer, Path file) {
+        if (buffer.capacity() < 2 * LedgerRecord.SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new LedgerJournalCorruptedException("Invalid ledger segment header in " + file);
+        }
+        byte[] previousHash = new byte[LedgerRecord.HASH_LENGTH];
+        buffer.get(16, previousHash);
+        return new Header(buffer.getLong(8), previousHash);
+    }
+
+    static MappedByteBuffer map(Path file, FileChannel.MapMode mode, long size) {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        // O mapeamento continua válido depois que o canal é fechado
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(mode, 0, size < 0 ? channel.size() : size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Percorre os registros de um segmento conferindo sequência e hash de cada um contra o anterior. O segmento
+     * termina no primeiro espaço vazio. No último segmento, um registro inválido seguido só de espaços vazios é
+     * uma escrita interrompida por queda do processo e também encerra a leitura; em qualquer outro lugar é
+     * adulteração.
+     */
+    static Tail scan(Path file, ByteBuffer buffer, Header header, boolean lastSegment, MessageDigest digest,
+                     Consumer<LedgerRecord> consumer) {
+        long expected = header.firstSequence();
+        byte[] previousHash = header.previousHash();
+        int capacity = capacity(buffer.capacity());
+
+        for (int slot = 0; slot < capacity; slot++) {
+            int offset = offset(slot);
+            LedgerRecord record = LedgerRecord.read(buffer, offset);
+            if (record == null && LedgerRecord.isEmpty(buffer, offset)) {
+                return new Tail(expected - 1, previousHash, slot);
+            }
+            if (record == null || record.sequence() != expected
+                    || !LedgerRecord.chainsTo(buffer, offset, record, previousHash, digest)) {
+                if (lastSegment && restIsEmpty(buffer, slot + 1, capacity)) {
+                    return new Tail(expected - 1, previousHash, slot);
+                }
+                throw new LedgerJournalCorruptedException("Ledger chain broken at sequence " + expected + " in " + file);
+            }
+            consumer.accept(record);
+            previousHash = record.hash();
+            expected++;
+        }
+        return new Tail(expected - 1, previousHash, capacity);
+    }
+
+    /**
+     * Zera os espaços não vazios a partir de {@code fromSlot}, sem forçar a gravação.
+     *
+     * @return quantidade de espaços zerados
+     */
+    static int clearFrom(ByteBuffer buffer, int fromSlot) {
+        byte[] empty = new byte[LedgerRecord.SIZE];
+        int cleared = 0;
+        for (int slot = fromSlot; slot < capacity(buffer.capacity()); slot++) {
+            if (!LedgerRecord.isEmpty(buffer, offset(slot))) {
+                buffer.put(offset(slot), empty);
+                cleared++;
+            }
+        }
+        return cleared;
+    }
+
+    static void checkContinuity(Path file, Header header, Tail previous) {
+        if (header.firstSequence() != previous.lastSequence() + 1 || !Arrays.equals(header.previousHash(), previous.lastHash())) {
+            throw new LedgerJournalCorruptedException("Ledger segment " + file + " does not continue the previous segment");
+        }
+    }
+
+    private static boolean restIsEmpty(ByteBuffer buffer, int fromSlot, int capacity) {
+        for (int slot = fromSlot; slot < capacity; slot++) {
+            if (!LedgerRecord.isEmpty(buffer, offset(slot))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package com.xpto.controlefinanceiro.modules.transaction.model;
 
+import com.xpto.controlefinanceiro.common.persistence.TimeOrderedUuid;
 import com.xpto.controlefinanceiro.modules.account.model.Account;
 import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
 import jakarta.persistence.*;
@@ -10,7 +11,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_date_id", columnList = "date, id"),
+        @Index(name = "idx_transactions_account_date", columnList = "account_id, date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +23,7 @@ import java.util.UUID;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,33 @@
+package com.xpto.controlefinanceiro.modules.transaction.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "transaction_idempotency_keys", indexes = {
+        @Index(name = "idx_transaction_idempotency_keys_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionIdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    // SHA-256 da requisição original, para recusar a mesma chave com outro conteúdo
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // TransactionResponseDTO devolvido na primeira vez, em JSON
+    @Column(nullable = false, length = 1000)
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
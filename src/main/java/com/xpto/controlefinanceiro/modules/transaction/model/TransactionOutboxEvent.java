@@ -0,0 +1,52 @@
+package com.xpto.controlefinanceiro.modules.transaction.model;
+
+import com.xpto.controlefinanceiro.common.persistence.TimeOrderedUuid;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "transaction_outbox", indexes = {
+        @Index(name = "idx_transaction_outbox_published_at_id", columnList = "published_at, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionOutboxEvent {
+
+    // Crescente na ordem de gravação, que é a ordem de entrega
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private UUID transactionId;
+
+    // TransactionResponseDTO da transação gravada, em JSON
+    @Column(nullable = false, length = 1000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Nulo até o relay entregar o evento a todos os consumidores
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // Entregas que falharam neste evento, para diagnóstico
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int attempts;
+
+    // Preenchido quando o evento é estacionado: o relay deixa de entregá-lo e segue com os seguintes
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
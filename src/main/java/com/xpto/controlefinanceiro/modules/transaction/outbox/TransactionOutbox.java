@@ -0,0 +1,60 @@
+package com.xpto.controlefinanceiro.modules.transaction.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.events.TransactionsBookedEvent;
+import com.xpto.controlefinanceiro.modules.transaction.model.TransactionOutboxEvent;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Grava cada transação criada na tabela transaction_outbox, na mesma transação do banco que a criou: ou as duas
+ * existem, ou nenhuma. O {@link TransactionOutboxRelay} entrega depois as linhas aos consumidores. Desligado por
+ * padrão ({@code xpto.transactions.outbox.enabled}).
+ */
+@Component
+public class TransactionOutbox {
+
+    private final TransactionOutboxRepository repository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public TransactionOutbox(TransactionOutboxRepository repository,
+                             ObjectMapper objectMapper,
+                             @Value("${xpto.transactions.outbox.enabled:false}") boolean enabled) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    // Ouvinte síncrono, antes do commit: uma falha ao gravar o outbox desfaz a transação inteira
+    @EventListener
+    public void onTransactionsBooked(TransactionsBookedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionOutboxEvent> rows = event.transactions().stream()
+                .map(transaction -> TransactionOutboxEvent.builder()
+                        .transactionId(transaction.id())
+                        .payload(toJson(transaction))
+                        .createdAt(now)
+                        .build())
+                .toList();
+        repository.saveAll(rows);
+    }
+
+    private String toJson(TransactionResponseDTO transaction) {
+        try {
+            return objectMapper.writeValueAsString(transaction);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize transaction " + transaction.id(), e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.xpto.controlefinanceiro.modules.transaction.outbox;
+
+import com.xpto.controlefinanceiro.modules.transaction.events.TransactionsBookedEvent;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.UndeliverableOutboxEventException;
+
+/**
+ * Consumidor dos eventos do outbox de transações, registrado como bean. Recebe os lotes na thread do relay,
+ * na ordem de gravação, fora do caminho da requisição. A entrega é pelo menos uma vez: se este ou outro
+ * consumidor falhar, o lote inteiro é entregue de novo, então o tratamento deve ser idempotente (o id da
+ * transação identifica o evento). Enquanto o consumidor processa, o relay não busca o próximo lote. Um evento
+ * que o consumidor nunca vai aceitar deve ser recusado com {@link UndeliverableOutboxEventException}, que o
+ * estaciona; qualquer outra exceção faz o relay tentar de novo, sem limite.
+ */
+public interface TransactionOutboxConsumer {
+
+    void accept(TransactionsBookedEvent event);
+}
@@ -0,0 +1,279 @@
+package com.xpto.controlefinanceiro.modules.transaction.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.common.concurrency.WorkerThreads;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.events.TransactionsBookedEvent;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.UndeliverableOutboxEventException;
+import com.xpto.controlefinanceiro.modules.transaction.model.TransactionOutboxEvent;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega as linhas pendentes de transaction_outbox aos {@link TransactionOutboxConsumer}s: a cada
+ * {@code poll-interval} lê até {@code batch-size} linhas na ordem de gravação, entrega o lote a todos os
+ * consumidores e só então marca as linhas como publicadas (o checkpoint). Se um consumidor falha ou o nó cai
+ * antes da marcação, o lote é entregue de novo no próximo ciclo: pelo menos uma vez, nunca nenhuma. O relay só
+ * lê o próximo lote depois que os consumidores terminaram o atual, então um consumidor lento acumula atraso na
+ * tabela (métrica {@code xpto.transactions.outbox.lag}) e não memória nem threads. Linhas publicadas são
+ * apagadas depois de {@code retention}.
+ * <p>
+ * Cada ciclo roda em uma transação do banco: o lote é lido com {@code FOR UPDATE SKIP LOCKED}, entregue e marcado
+ * antes do commit. Com vários nós, cada relay pega linhas que nenhum outro travou e um lote nunca é entregue por dois
+ * nós ao mesmo tempo; a ordem de gravação vale dentro de cada lote, mas lotes de nós diferentes podem chegar aos
+ * consumidores em paralelo. A conexão fica presa enquanto os consumidores processam o lote.
+ * <p>
+ * Quando o lote falha, ele é entregue de novo um evento por vez até o que falha: os anteriores são marcados
+ * como publicados e o que falhou tem a tentativa contada na linha. Só falhas do próprio evento — payload
+ * ilegível ou {@link UndeliverableOutboxEventException} lançada por um consumidor — estacionam o evento
+ * ({@code parked_at}) para que os seguintes voltem a andar; {@link #redriveParked()} os devolve à fila. Qualquer
+ * outra falha é tratada como indisponibilidade do consumidor: o evento continua na cabeça da fila, sem limite de
+ * tentativas, e o relay espera em dobro entre falhas seguidas, até {@code max-backoff}.
+ */
+@Component
+public class TransactionOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionOutboxRelay.class);
+
+    private final TransactionOutboxRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<TransactionOutboxConsumer> consumers;
+    private final int batchSize;
+    private final Duration retention;
+    private final long pollNanos;
+    private final long maxBackoffNanos;
+    private final Counter delivered;
+    private final Counter failures;
+    private final Counter parked;
+    private final Timer lag;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean running = true;
+
+    // Usados só pela thread do relay
+    private int consecutiveFailures;
+    private long retryAt = System.nanoTime();
+
+    public TransactionOutboxRelay(TransactionOutboxRepository repository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectProvider<TransactionOutboxConsumer> consumers,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${xpto.transactions.outbox.enabled:false}") boolean enabled,
+                                  @Value("${xpto.transactions.outbox.batch-size:500}") int batchSize,
+                                  @Value("${xpto.transactions.outbox.poll-interval:200ms}") Duration pollInterval,
+                                  @Value("${xpto.transactions.outbox.retention:24h}") Duration retention,
+                                  @Value("${xpto.transactions.outbox.purge-interval:1h}") Duration purgeInterval,
+                                  @Value("${xpto.transactions.outbox.max-backoff:1m}") Duration maxBackoff) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Outbox batch size must be at least 1, got " + batchSize);
+        }
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.consumers = consumers;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.pollNanos = pollInterval.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.delivered = Counter.builder("xpto.transactions.outbox.delivered")
+                .description("Eventos do outbox entregues a todos os consumidores")
+                .register(meterRegistry);
+        this.failures = Counter.builder("xpto.transactions.outbox.failures")
+                .description("Lotes do outbox que falharam e serão entregues de novo")
+                .register(meterRegistry);
+        this.parked = Counter.builder("xpto.transactions.outbox.parked")
+                .description("Eventos do outbox estacionados por não poderem ser entregues")
+                .register(meterRegistry);
+        this.lag = Timer.builder("xpto.transactions.outbox.lag")
+                .description("Tempo entre a gravação da transação e a entrega do evento aos consumidores")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        if (!enabled || pollInterval.isZero() || pollInterval.isNegative()) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(WorkerThreads.factory("transaction-outbox-relay-", false));
+        long pollMillis = pollInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::relayQuietly, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        // Mesma thread do relay: a limpeza nunca corre junto com uma entrega
+        if (!purgeInterval.isZero() && !purgeInterval.isNegative()) {
+            long purgeMillis = purgeInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::purgeQuietly, purgeMillis, purgeMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Entrega um lote de eventos pendentes e o marca como publicado. Se o lote falha, entrega um evento por vez
+     * até o que falha, conta a tentativa nele e relança a exceção depois do commit; um evento que não pode ser
+     * entregue ({@link UndeliverableOutboxEventException}) é estacionado e a exceção não sobe.
+     *
+     * @return quantidade de eventos entregues
+     */
+    public int relay() {
+        Outcome outcome = transactionTemplate.execute(status -> deliverPending());
+        if (outcome.error() != null) {
+            throw outcome.error();
+        }
+        return outcome.delivered();
+    }
+
+    // Resultado do ciclo: a falha só é relançada fora da transação, para não desfazer as marcações feitas
+    private record Outcome(int delivered, RuntimeException error) {
+    }
+
+    private Outcome deliverPending() {
+        List<TransactionOutboxEvent> pending = repository.claimPending(Limit.of(batchSize));
+        if (pending.isEmpty()) {
+            return new Outcome(0, null);
+        }
+        try {
+            deliver(pending);
+        } catch (RuntimeException e) {
+            return pending.size() == 1 ? fail(pending, 0, e) : deliverOneByOne(pending);
+        }
+        markPublished(pending);
+        return new Outcome(pending.size(), null);
+    }
+
+    // Separa o evento que falha dos demais; os anteriores a ele são entregues de novo, pelo menos uma vez
+    private Outcome deliverOneByOne(List<TransactionOutboxEvent> pending) {
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                deliver(pending.subList(i, i + 1));
+            } catch (RuntimeException e) {
+                return fail(pending, i, e);
+            }
+        }
+        // A falha não se repetiu: o lote inteiro foi entregue
+        markPublished(pending);
+        return new Outcome(pending.size(), null);
+    }
+
+    private Outcome fail(List<TransactionOutboxEvent> pending, int failedIndex, RuntimeException error) {
+        List<TransactionOutboxEvent> before = pending.subList(0, failedIndex);
+        if (!before.isEmpty()) {
+            markPublished(before);
+        }
+
+        TransactionOutboxEvent row = pending.get(failedIndex);
+        int attempts = row.getAttempts() + 1;
+        LocalDateTime parkedAt = error instanceof UndeliverableOutboxEventException ? LocalDateTime.now() : null;
+        String message = String.valueOf(error.getMessage());
+        repository.recordFailure(row.getId(), attempts, parkedAt, message.length() > 500 ? message.substring(0, 500) : message);
+        if (parkedAt == null) {
+            return new Outcome(before.size(), error);
+        }
+        parked.increment();
+        log.error("Parked undeliverable outbox event {} of transaction {} after {} attempts",
+                row.getId(), row.getTransactionId(), attempts, error);
+        return new Outcome(before.size(), null);
+    }
+
+    private void deliver(List<TransactionOutboxEvent> rows) {
+        TransactionsBookedEvent event = new TransactionsBookedEvent(
+                rows.stream().map(row -> fromJson(row.getPayload())).toList());
+        consumers.orderedStream().forEach(consumer -> consumer.accept(event));
+    }
+
+    private void markPublished(List<TransactionOutboxEvent> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.markPublished(rows.stream().map(TransactionOutboxEvent::getId).toList(), now);
+        delivered.increment(rows.size());
+        rows.forEach(row -> lag.record(Duration.between(row.getCreatedAt(), now)));
+    }
+
+    /**
+     * Devolve à fila os eventos estacionados, depois de corrigida a causa (consumidor ou payload); eles voltam a
+     * ser entregues na ordem de gravação, antes dos pendentes mais novos.
+     *
+     * @return quantidade de eventos devolvidos
+     */
+    public int redriveParked() {
+        Integer redriven = transactionTemplate.execute(status -> repository.redriveParked());
+        return redriven == null ? 0 : redriven;
+    }
+
+    /**
+     * Remove os eventos publicados há mais tempo que a retenção; os pendentes nunca são removidos.
+     *
+     * @return quantidade de eventos removidos
+     */
+    public int purgePublished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer removed = transactionTemplate.execute(status -> repository.deletePublishedBefore(cutoff));
+        return removed == null ? 0 : removed;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (scheduler == null) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+            scheduler.shutdownNow();
+            log.warn("Transaction outbox relay did not stop in time");
+        }
+    }
+
+    // Lote cheio indica que há mais pendentes: segue lendo até esvaziar, sem esperar o próximo ciclo.
+    // Uma exceção encerraria as execuções seguintes do agendamento
+    private void relayQuietly() {
+        if (System.nanoTime() - retryAt < 0) {
+            return;
+        }
+        try {
+            while (running && relay() == batchSize) {
+                // próximo lote
+            }
+            consecutiveFailures = 0;
+        } catch (RuntimeException e) {
+            failures.increment();
+            consecutiveFailures++;
+            long backoff = Math.min(maxBackoffNanos, pollNanos * (1L << Math.min(consecutiveFailures, 16)));
+            retryAt = System.nanoTime() + backoff;
+            log.warn("Transaction outbox delivery failed, retrying in {} ms", TimeUnit.NANOSECONDS.toMillis(backoff), e);
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            int removed = purgePublished();
+            if (removed > 0) {
+                log.info("Purged {} published outbox events", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Transaction outbox purge failed", e);
+        }
+    }
+
+    private TransactionResponseDTO fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, TransactionResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UndeliverableOutboxEventException("Could not read outbox event payload", e);
+        }
+    }
+}
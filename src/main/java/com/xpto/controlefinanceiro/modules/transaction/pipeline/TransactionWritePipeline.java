@@ -0,0 +1,216 @@
+package com.xpto.controlefinanceiro.modules.transaction.pipeline;
+
+import com.xpto.controlefinanceiro.common.concurrency.WorkerThreads;
+import com.xpto.controlefinanceiro.modules.account.exceptions.AccountNotFoundException;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionBatchItemResultDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.BatchItemStatus;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.BatchSizeExceededException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.TransactionBatchRolledBackException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.TransactionPipelineFullException;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Commit em grupo para POST /transactions: as requisições entram numa fila e uma thread escritora grava
+ * lotes de até {@code max-batch-size} itens, esperando no máximo {@code max-wait} pelo lote encher, com
+ * {@link TransactionService#createBatch}: saldos e inserts de todo o lote numa única transação do banco, então
+ * um commit (e um fsync) por lote em vez de um por transação. Cada requisição recebe o próprio resultado: os
+ * itens recusados pelo lote viram a mesma exceção que {@link TransactionService#create} lançaria, e se o lote
+ * inteiro for desfeito antes do commit ({@link TransactionBatchRolledBackException}) os itens são refeitos um a um
+ * para que só o culpado receba o erro. Uma falha no commit ou depois dele não é refeita, porque o lote pode ter
+ * sido gravado: todos os itens recebem o erro. O preço é a latência:
+ * cada requisição espera até {@code max-wait} pelo lote. Desligado por padrão
+ * ({@code xpto.transactions.pipeline.enabled}).
+ */
+@Component
+public class TransactionWritePipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionWritePipeline.class);
+
+    private record Pending(TransactionRequestDTO request, CompletableFuture<TransactionResponseDTO> result) {
+    }
+
+    private final TransactionService transactionService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Pending> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+    private final ExecutorService writer;
+    private volatile boolean running = true;
+
+    public TransactionWritePipeline(TransactionService transactionService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${xpto.transactions.pipeline.enabled:false}") boolean enabled,
+                                    @Value("${xpto.transactions.pipeline.max-batch-size:64}") int maxBatchSize,
+                                    @Value("${xpto.transactions.pipeline.max-wait:2ms}") Duration maxWait,
+                                    @Value("${xpto.transactions.pipeline.queue-capacity:10000}") int queueCapacity) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Pipeline batch size must be at least 1, got " + maxBatchSize);
+        }
+        this.transactionService = transactionService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSizes = DistributionSummary.builder("xpto.transactions.pipeline.batch.size")
+                .description("Transações gravadas por commit do pipeline")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("xpto.transactions.pipeline.fallbacks")
+                .description("Lotes que falharam inteiros e foram refeitos item a item")
+                .register(meterRegistry);
+        Gauge.builder("xpto.transactions.pipeline.queue.size", queue, BlockingQueue::size)
+                .description("Requisições esperando a thread escritora")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.writer = Executors.newSingleThreadExecutor(WorkerThreads.factory("transaction-pipeline-", false));
+            writer.execute(this::drain);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enfileira a transação; o futuro termina com ela gravada ou com o erro do item.
+     *
+     * @throws TransactionPipelineFullException se a fila está cheia
+     */
+    public CompletableFuture<TransactionResponseDTO> submit(TransactionRequestDTO dto) {
+        if (!enabled) {
+            throw new IllegalStateException("Transaction pipeline is disabled");
+        }
+        Pending pending = new Pending(dto, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new TransactionPipelineFullException("Transaction write queue is full, try again later");
+        }
+        return pending.result();
+    }
+
+    // Espera o commit do lote; o erro do item sobe como a exceção original, para o GlobalExceptionHandler
+    public TransactionResponseDTO create(TransactionRequestDTO dto) {
+        try {
+            return submit(dto).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.shutdownNow();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Transaction pipeline writer did not stop in time");
+        }
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result().completeExceptionally(
+                new TransactionPipelineFullException("Transaction pipeline is shutting down")));
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            // No desligamento, o lote já montado ainda é gravado
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        List<TransactionBatchItemResultDTO> results;
+        try {
+            results = transactionService.createBatch(batch.stream().map(Pending::request).toList()).results();
+        } catch (TransactionBatchRolledBackException | BatchSizeExceededException e) {
+            // Nada foi gravado: desfeito antes do commit, ou recusado antes de abrir a transação
+            fallbacks.increment();
+            log.warn("Transaction batch of {} failed, retrying item by item", batch.size(), e);
+            for (Pending pending : batch) {
+                try {
+                    pending.result().complete(transactionService.create(pending.request()));
+                } catch (RuntimeException itemError) {
+                    pending.result().completeExceptionally(itemError);
+                }
+            }
+            return;
+        } catch (RuntimeException e) {
+            // Resultado do commit desconhecido: refazer item a item poderia gravar o lote duas vezes
+            log.error("Transaction batch of {} failed at or after commit, failing every item", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), results.get(i));
+        }
+    }
+
+    private static void complete(Pending pending, TransactionBatchItemResultDTO result) {
+        if (result.status() == BatchItemStatus.ACCEPTED) {
+            pending.result().complete(result.transaction());
+            return;
+        }
+        RuntimeException error = switch (result.reason()) {
+            case ACCOUNT_NOT_FOUND -> new AccountNotFoundException(result.message());
+            case INSUFFICIENT_BALANCE -> new InsufficientBalanceException(result.message());
+            case INVALID_REQUEST -> new IllegalArgumentException(result.message());
+        };
+        pending.result().completeExceptionally(error);
+    }
+}
@@ -0,0 +1,25 @@
+package com.xpto.controlefinanceiro.modules.transaction.repository;
+
+import com.xpto.controlefinanceiro.modules.transaction.model.TransactionIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface TransactionIdempotencyKeyRepository extends JpaRepository<TransactionIdempotencyKey, String> {
+
+    // Insert direto, sem o SELECT que o save() faz em entidade de id atribuído; chave repetida falha aqui mesmo
+    @Modifying
+    @Query(value = """
+            INSERT INTO transaction_idempotency_keys (idempotency_key, fingerprint, response, created_at)
+            VALUES (:key, :fingerprint, :response, :createdAt)
+            """, nativeQuery = true)
+    int insert(@Param("key") String key, @Param("fingerprint") String fingerprint,
+               @Param("response") String response, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("DELETE FROM TransactionIdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
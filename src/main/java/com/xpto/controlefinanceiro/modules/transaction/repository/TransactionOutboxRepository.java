@@ -0,0 +1,47 @@
+package com.xpto.controlefinanceiro.modules.transaction.repository;
+
+import com.xpto.controlefinanceiro.modules.transaction.model.TransactionOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface TransactionOutboxRepository extends JpaRepository<TransactionOutboxEvent, UUID> {
+
+    // Percorre idx_transaction_outbox_published_at_id: só os pendentes, já na ordem de gravação, sem os estacionados.
+    // FOR UPDATE SKIP LOCKED: as linhas ficam com quem as leu até o fim da transação, e outro relay pula para as
+    // seguintes em vez de esperar ou entregá-las de novo (no H2, sem SKIP LOCKED, ele espera)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2")) // LockOptions.SKIP_LOCKED
+    @Query("SELECT e FROM TransactionOutboxEvent e WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL ORDER BY e.id")
+    List<TransactionOutboxEvent> claimPending(Limit limit);
+
+    @Modifying
+    @Query("UPDATE TransactionOutboxEvent e SET e.attempts = :attempts, e.parkedAt = :parkedAt, e.lastError = :error " +
+            "WHERE e.id = :id")
+    int recordFailure(@Param("id") UUID id, @Param("attempts") int attempts, @Param("parkedAt") LocalDateTime parkedAt,
+                      @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE TransactionOutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<UUID> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE TransactionOutboxEvent e SET e.parkedAt = NULL, e.attempts = 0 WHERE e.parkedAt IS NOT NULL")
+    int redriveParked();
+
+    @Modifying
+    @Query("DELETE FROM TransactionOutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
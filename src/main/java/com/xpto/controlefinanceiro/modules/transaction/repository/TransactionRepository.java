@@ -1,11 +1,18 @@
 package com.xpto.controlefinanceiro.modules.transaction.repository;
 
 import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
     List<Transaction> findByAccountId(UUID accountId);
@@ -14,4 +21,49 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     void deleteAllByAccountId(UUID id);
 
     boolean existsByAccountId(UUID id);
+
+    // Filtro por período resolvido no banco: [from, to), usando o índice (account_id, date)
+    @Query("SELECT t FROM Transaction t WHERE t.account.customer.id = :customerId AND t.date >= :from AND t.date < :to")
+    List<Transaction> findByCustomerIdAndPeriod(@Param("customerId") UUID customerId,
+                                                @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Paginação por cursor (keyset) em (date, id) decrescente: o custo da página não depende da profundidade
+    @Query("SELECT t FROM Transaction t ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPage(Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.date < :date OR (t.date = :date AND t.id < :id) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageAfter(@Param("date") LocalDateTime date, @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByAccountId(@Param("accountId") UUID accountId, Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+            "AND (t.date < :date OR (t.date = :date AND t.id < :id)) ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByAccountIdAfter(@Param("accountId") UUID accountId, @Param("date") LocalDateTime date,
+                                               @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.account.customer.id = :customerId ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByCustomerId(@Param("customerId") UUID customerId, Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.account.customer.id = :customerId " +
+            "AND (t.date < :date OR (t.date = :date AND t.id < :id)) ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByCustomerIdAfter(@Param("customerId") UUID customerId, @Param("date") LocalDateTime date,
+                                                @Param("id") UUID id, Limit limit);
+
+    // Leitura em streaming para exportação; precisa ser consumida dentro de uma transação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.account.customer.id = :customerId ORDER BY t.date, t.id")
+    Stream<Transaction> streamByCustomerId(@Param("customerId") UUID customerId);
+
+    // Transações a partir de uma data, em ordem, para completar o fim do diário de lançamentos na subida
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.date >= :since ORDER BY t.date, t.id")
+    Stream<Transaction> streamSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,112 @@
+package com.xpto.controlefinanceiro.modules.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.modules.customer.exceptions.CustomerNotFoundException;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionExportFormat;
+import com.xpto.controlefinanceiro.modules.transaction.mappers.TransactionMapper;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Exporta as transações de um cliente escrevendo direto no OutputStream,
+ * sem montar a lista em memória. Cada entidade é desanexada do contexto
+ * de persistência assim que escrita, mantendo o heap estável.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,accountId,type,amount,date,description";
+
+    private final TransactionRepository transactionRepository;
+    private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TransactionExportService(TransactionRepository transactionRepository, CustomerRepository customerRepository,
+                                    EntityManager entityManager, ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // A existência do cliente é validada antes de qualquer byte ser escrito, para que o 404 ainda seja possível
+    public StreamingResponseBody exportByCustomer(UUID customerId, TransactionExportFormat format) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException("Customer with ID " + customerId + " not found");
+        }
+        return output -> writeExport(customerId, format, output);
+    }
+
+    private void writeExport(UUID customerId, TransactionExportFormat format, OutputStream output) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            try (Stream<Transaction> transactions = transactionRepository.streamByCustomerId(customerId)) {
+                if (format == TransactionExportFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                transactions.forEach(transaction -> {
+                    write(writer, transaction, format);
+                    entityManager.detach(transaction);
+                });
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void write(Writer writer, Transaction transaction, TransactionExportFormat format) {
+        try {
+            if (format == TransactionExportFormat.CSV) {
+                writer.write(toCsvLine(transaction));
+            } else {
+                writer.write(objectMapper.writeValueAsString(TransactionMapper.toResponseDTO(transaction)));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toCsvLine(Transaction transaction) {
+        return String.join(",",
+                transaction.getId().toString(),
+                transaction.getAccount().getId().toString(),
+                transaction.getType().name(),
+                transaction.getAmount().toPlainString(),
+                transaction.getDate().toString(),
+                escapeCsv(transaction.getDescription()));
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -1,18 +1,29 @@
 package com.xpto.controlefinanceiro.modules.transaction.service;
 
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionBatchResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionPageDTO;
 import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
 import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferResponseDTO;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface TransactionService {
 
-    List<TransactionResponseDTO> findAll();
+    TransactionPageDTO findAll(String cursor, int limit);
 
-    List<TransactionResponseDTO> findByAccount(UUID accountId);
+    TransactionPageDTO findByAccount(UUID accountId, String cursor, int limit);
 
-    List<TransactionResponseDTO> findByCustomer(UUID customerId);
+    TransactionPageDTO findByCustomer(UUID customerId, String cursor, int limit);
 
     TransactionResponseDTO create(TransactionRequestDTO dto);
+
+    // Chave já usada devolve a resposta original sem nova movimentação; chave null cria normalmente
+    TransactionResponseDTO create(TransactionRequestDTO dto, String idempotencyKey);
+
+    TransactionBatchResponseDTO createBatch(List<TransactionRequestDTO> dtos);
+
+    TransferResponseDTO transfer(TransferRequestDTO dto);
 }
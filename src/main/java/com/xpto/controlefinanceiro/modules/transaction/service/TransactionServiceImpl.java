@@ -1,22 +1,53 @@
 package com.xpto.controlefinanceiro.modules.transaction.service;
 
+import com.xpto.controlefinanceiro.common.events.AccountBalanceChangedEvent;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
 import com.xpto.controlefinanceiro.modules.account.exceptions.AccountNotFoundException;
 import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.projections.AccountBalanceRow;
 import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
 import com.xpto.controlefinanceiro.modules.customer.exceptions.CustomerNotFoundException;
 import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.snapshot.service.BalanceSnapshotService;
+import com.xpto.controlefinanceiro.modules.transaction.concurrency.AccountLockStripes;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionBatchItemResultDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionBatchResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionPageDTO;
 import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
 import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.BatchItemStatus;
+import com.xpto.controlefinanceiro.modules.transaction.enums.BatchRejectionReason;
 import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.events.TransactionsBookedEvent;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.BatchSizeExceededException;
 import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InvalidTransferException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.TransactionBatchRolledBackException;
+import com.xpto.controlefinanceiro.modules.transaction.idempotency.TransactionIdempotencyStore;
 import com.xpto.controlefinanceiro.modules.transaction.mappers.TransactionMapper;
 import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import com.xpto.controlefinanceiro.modules.transaction.pagination.TransactionCursor;
 import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
-import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,63 +57,316 @@ public class TransactionServiceImpl implements TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
     private final CustomerRepository customerRepository;
+    private final AccountLockStripes accountLocks;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionIdempotencyStore idempotencyStore;
+    private final int batchMaxSize;
+    private final int pageMaxLimit;
 
-    public TransactionServiceImpl(TransactionRepository transactionRepository, AccountRepository accountRepository, CustomerRepository customerRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository, AccountRepository accountRepository, CustomerRepository customerRepository,
+                                  AccountLockStripes accountLocks, BalanceSnapshotService balanceSnapshotService,
+                                  ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                                  @Value("${xpto.transactions.batch.max-size:1000}") int batchMaxSize,
+                                  @Value("${xpto.transactions.page.max-limit:500}") int pageMaxLimit,
+                                  TransactionIdempotencyStore idempotencyStore) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
         this.customerRepository = customerRepository;
+        this.accountLocks = accountLocks;
+        this.balanceSnapshotService = balanceSnapshotService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchMaxSize = batchMaxSize;
+        this.pageMaxLimit = pageMaxLimit;
+        this.idempotencyStore = idempotencyStore;
     }
 
 
     @Override
-    @Transactional
     public TransactionResponseDTO create(TransactionRequestDTO dto) {
-        Account account = accountRepository.findById(dto.accountId())
-                .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + dto.accountId()));
+        // Escritas na mesma conta esperam na fila do lock, e não segurando conexão à espera do lock da linha
+        return accountLocks.withLock(dto.accountId(),
+                () -> transactionTemplate.execute(status -> doCreate(dto)));
+    }
+
+    @Override
+    public TransactionResponseDTO create(TransactionRequestDTO dto, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return create(dto);
+        }
+        TransactionIdempotencyStore.validate(idempotencyKey);
+        String fingerprint = TransactionIdempotencyStore.fingerprint(dto);
+
+        // Repetição já em memória volta sem lock, sem conexão e sem tocar na conta
+        Optional<TransactionResponseDTO> replay = idempotencyStore.findCached(idempotencyKey, fingerprint);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        try {
+            // Repetições simultâneas neste nó caem no mesmo lock da conta; a segunda encontra a chave gravada
+            // pela primeira ao conferir o banco
+            TransactionResponseDTO created = accountLocks.withLock(dto.accountId(), () -> transactionTemplate.execute(status ->
+                    idempotencyStore.find(idempotencyKey, fingerprint).orElseGet(() -> {
+                        TransactionResponseDTO response = doCreate(dto);
+                        idempotencyStore.save(idempotencyKey, fingerprint, response);
+                        return response;
+                    })));
+            idempotencyStore.remember(idempotencyKey, fingerprint, created);
+            return created;
+        } catch (DataIntegrityViolationException e) {
+            // Outro nó gravou a mesma chave primeiro; esta movimentação foi desfeita e vale a dele
+            return idempotencyStore.find(idempotencyKey, fingerprint).orElseThrow(() -> e);
+        }
+    }
+
+    private TransactionResponseDTO doCreate(TransactionRequestDTO dto) {
+        applyBalanceChange(dto.accountId(), dto.type(), dto.amount());
+
+        Account account = accountRepository.getReferenceById(dto.accountId());
+        Transaction saved = transactionRepository.save(TransactionMapper.toEntity(dto, account));
+        balanceSnapshotService.registerMovement(dto.accountId(), saved.getDate().toLocalDate(), signedAmount(saved));
+
+        // Saldo já com esta transação, lido sob o lock da conta; o cache de saldos só o recebe após o commit.
+        // O cliente vem junto, então o cache de relatórios não precisa buscá-lo
+        AccountBalanceRow balance = accountRepository.findBalanceRowById(dto.accountId()).orElseThrow();
+        eventPublisher.publishEvent(CustomerDataChangedEvent.transaction(balance.customerId(), dto.accountId(), saved.getDate().toLocalDate()));
+        eventPublisher.publishEvent(new AccountBalanceChangedEvent(balance.accountId(), balance.customerId(), balance.balance()));
+
+        TransactionResponseDTO response = TransactionMapper.toResponseDTO(saved);
+        eventPublisher.publishEvent(new TransactionsBookedEvent(List.of(response)));
+        return response;
+    }
+
+    private void applyBalanceChange(UUID accountId, TransactionType type, BigDecimal amount) {
+        int updated = type == TransactionType.CREDIT
+                ? accountRepository.credit(accountId, amount)
+                : accountRepository.debit(accountId, amount);
+
+        if (updated == 0) {
+            if (!accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Account not found with id: " + accountId);
+            }
+            throw new InsufficientBalanceException("Insufficient balance to perform this debit transaction");
+        }
+    }
+
+    @Override
+    public TransactionBatchResponseDTO createBatch(List<TransactionRequestDTO> dtos) {
+        if (dtos.size() > batchMaxSize) {
+            throw new BatchSizeExceededException("Batch size " + dtos.size() + " exceeds the limit of " + batchMaxSize + " items");
+        }
 
-        Transaction transaction = TransactionMapper.toEntity(dto, account);
+        TransactionBatchItemResultDTO[] results = new TransactionBatchItemResultDTO[dtos.size()];
 
-        if (dto.type() == TransactionType.CREDIT) {
-            account.setBalance(account.getBalance().add(dto.amount()));
-        } else {
-            if (account.getBalance().compareTo(dto.amount()) < 0) {
-                throw new InsufficientBalanceException("Insufficient balance to perform this debit transaction");
+        // Agrupa os itens válidos por conta, preservando a ordem de chegada dentro de cada conta
+        Map<UUID, List<Integer>> itemsByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            TransactionRequestDTO dto = dtos.get(i);
+            if (dto == null || dto.accountId() == null || dto.type() == null || dto.amount() == null) {
+                results[i] = TransactionBatchItemResultDTO.rejected(i, BatchRejectionReason.INVALID_REQUEST,
+                        "accountId, type and amount are required");
+                continue;
             }
-            account.setBalance(account.getBalance().subtract(dto.amount()));
+            itemsByAccount.computeIfAbsent(dto.accountId(), id -> new ArrayList<>()).add(i);
         }
 
-        accountRepository.save(account);
-        Transaction saved = transactionRepository.save(transaction);
+        if (!itemsByAccount.isEmpty()) {
+            accountLocks.withLocks(itemsByAccount.keySet(), () -> transactionTemplate.execute(status -> {
+                try {
+                    applyBatch(dtos, itemsByAccount, results);
+                } catch (RuntimeException e) {
+                    // Lançada de dentro do callback, a transação é desfeita: quem chama sabe que nada foi gravado
+                    throw new TransactionBatchRolledBackException("Transaction batch rolled back before commit", e);
+                }
+                return null;
+            }));
+        }
 
-        return TransactionMapper.toResponseDTO(saved);
+        List<TransactionBatchItemResultDTO> resultList = Arrays.asList(results);
+        int accepted = (int) resultList.stream().filter(r -> r.status() == BatchItemStatus.ACCEPTED).count();
+        return new TransactionBatchResponseDTO(accepted, results.length - accepted, resultList);
+    }
+
+    private void applyBatch(List<TransactionRequestDTO> dtos, Map<UUID, List<Integer>> itemsByAccount,
+                            TransactionBatchItemResultDTO[] results) {
+        Map<UUID, Account> accounts = accountRepository.findAllByIdForUpdate(itemsByAccount.keySet()).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>();
+        List<Integer> transactionIndexes = new ArrayList<>();
+
+        for (Map.Entry<UUID, List<Integer>> entry : itemsByAccount.entrySet()) {
+            Account account = accounts.get(entry.getKey());
+            if (account == null) {
+                for (int index : entry.getValue()) {
+                    results[index] = TransactionBatchItemResultDTO.rejected(index, BatchRejectionReason.ACCOUNT_NOT_FOUND,
+                            "Account not found with id: " + entry.getKey());
+                }
+                continue;
+            }
+
+            // Saldo corrente da conta ao longo do lote; a conta é atualizada uma única vez no flush
+            BigDecimal balance = account.getBalance();
+            for (int index : entry.getValue()) {
+                TransactionRequestDTO dto = dtos.get(index);
+                if (dto.type() == TransactionType.DEBIT && balance.compareTo(dto.amount()) < 0) {
+                    results[index] = TransactionBatchItemResultDTO.rejected(index, BatchRejectionReason.INSUFFICIENT_BALANCE,
+                            "Insufficient balance to perform this debit transaction");
+                    continue;
+                }
+                balance = dto.type() == TransactionType.CREDIT ? balance.add(dto.amount()) : balance.subtract(dto.amount());
+                transactions.add(TransactionMapper.toEntity(dto, account));
+                transactionIndexes.add(index);
+            }
+            account.setBalance(balance);
+        }
+
+        // Inserts enviados em lote pelo Hibernate (hibernate.jdbc.batch_size)
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        List<TransactionResponseDTO> booked = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            int index = transactionIndexes.get(i);
+            TransactionResponseDTO response = TransactionMapper.toResponseDTO(saved.get(i));
+            results[index] = TransactionBatchItemResultDTO.accepted(index, response);
+            booked.add(response);
+        }
+
+        // Um ajuste de snapshot por conta e dia, não por transação
+        Map<UUID, Map<LocalDate, BigDecimal>> movements = new LinkedHashMap<>();
+        for (Transaction transaction : saved) {
+            movements.computeIfAbsent(transaction.getAccount().getId(), id -> new LinkedHashMap<>())
+                    .merge(transaction.getDate().toLocalDate(), signedAmount(transaction), BigDecimal::add);
+        }
+        movements.forEach((accountId, byDate) -> {
+            Account account = accounts.get(accountId);
+            byDate.forEach((date, delta) -> {
+                balanceSnapshotService.registerMovement(accountId, date, delta);
+                eventPublisher.publishEvent(CustomerDataChangedEvent.transaction(account.getCustomer().getId(), accountId, date));
+            });
+            eventPublisher.publishEvent(new AccountBalanceChangedEvent(accountId, account.getCustomer().getId(), account.getBalance()));
+        });
+        if (!booked.isEmpty()) {
+            eventPublisher.publishEvent(new TransactionsBookedEvent(booked));
+        }
+        // Escreve ainda dentro do callback: uma falha de insert ou update desfaz o lote antes do commit, em vez de
+        // aparecer no commit, quando não dá mais para saber se ele foi gravado
+        transactionRepository.flush();
     }
 
     @Override
-    public List<TransactionResponseDTO> findAll() {
-        return transactionRepository.findAll().stream()
-                .map(TransactionMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    public TransferResponseDTO transfer(TransferRequestDTO dto) {
+        if (dto.fromAccountId().equals(dto.toAccountId())) {
+            throw new InvalidTransferException("Source and destination accounts must be different");
+        }
+
+        // Locks em memória em ordem de stripe e linhas do banco em ordem de id: duas transferências em sentidos
+        // opostos entre as mesmas contas esperam uma pela outra, mas nunca em ciclo
+        return accountLocks.withLocks(List.of(dto.fromAccountId(), dto.toAccountId()),
+                () -> transactionTemplate.execute(status -> doTransfer(dto)));
+    }
+
+    private TransferResponseDTO doTransfer(TransferRequestDTO dto) {
+        Map<UUID, Account> accounts = accountRepository.findAllByIdForUpdate(List.of(dto.fromAccountId(), dto.toAccountId()))
+                .stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        Account from = accounts.get(dto.fromAccountId());
+        Account to = accounts.get(dto.toAccountId());
+        if (from == null || to == null) {
+            UUID missing = from == null ? dto.fromAccountId() : dto.toAccountId();
+            throw new AccountNotFoundException("Account not found with id: " + missing);
+        }
+        if (from.getBalance().compareTo(dto.amount()) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance to perform this transfer");
+        }
+
+        // Os dois saldos vão no flush e as duas pernas num único lote de inserts, no commit da mesma transação
+        from.setBalance(from.getBalance().subtract(dto.amount()));
+        to.setBalance(to.getBalance().add(dto.amount()));
+        List<Transaction> legs = transactionRepository.saveAll(List.of(
+                TransactionMapper.toEntity(new TransactionRequestDTO(from.getId(), TransactionType.DEBIT, dto.amount(), dto.description()), from),
+                TransactionMapper.toEntity(new TransactionRequestDTO(to.getId(), TransactionType.CREDIT, dto.amount(), dto.description()), to)
+        ));
+
+        for (Transaction leg : legs) {
+            Account account = leg.getAccount();
+            LocalDate date = leg.getDate().toLocalDate();
+            balanceSnapshotService.registerMovement(account.getId(), date, signedAmount(leg));
+            eventPublisher.publishEvent(CustomerDataChangedEvent.transaction(account.getCustomer().getId(), account.getId(), date));
+            eventPublisher.publishEvent(new AccountBalanceChangedEvent(account.getId(), account.getCustomer().getId(), account.getBalance()));
+        }
+
+        TransferResponseDTO response = new TransferResponseDTO(TransactionMapper.toResponseDTO(legs.get(0)), TransactionMapper.toResponseDTO(legs.get(1)));
+        eventPublisher.publishEvent(new TransactionsBookedEvent(List.of(response.debit(), response.credit())));
+        return response;
+    }
+
+    private BigDecimal signedAmount(Transaction transaction) {
+        return transaction.getType() == TransactionType.CREDIT ? transaction.getAmount() : transaction.getAmount().negate();
     }
 
     @Override
-    public List<TransactionResponseDTO> findByAccount(UUID accountId) {
+    public TransactionPageDTO findAll(String cursor, int limit) {
+        Limit pageLimit = Limit.of(normalizeLimit(limit) + 1);
+        List<Transaction> rows = hasCursor(cursor)
+                ? findAfter(cursor, c -> transactionRepository.findPageAfter(c.date(), c.id(), pageLimit))
+                : transactionRepository.findPage(pageLimit);
+        return toPage(rows, limit);
+    }
+
+    @Override
+    public TransactionPageDTO findByAccount(UUID accountId, String cursor, int limit) {
         if (!accountRepository.existsById(accountId)) {
             throw new AccountNotFoundException("Account with ID " + accountId + " not found");
         }
 
-        return transactionRepository.findByAccountId(accountId).stream()
-                .map(TransactionMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        Limit pageLimit = Limit.of(normalizeLimit(limit) + 1);
+        List<Transaction> rows = hasCursor(cursor)
+                ? findAfter(cursor, c -> transactionRepository.findPageByAccountIdAfter(accountId, c.date(), c.id(), pageLimit))
+                : transactionRepository.findPageByAccountId(accountId, pageLimit);
+        return toPage(rows, limit);
     }
 
     @Override
-    public List<TransactionResponseDTO> findByCustomer(UUID customerId) {
+    public TransactionPageDTO findByCustomer(UUID customerId, String cursor, int limit) {
         if (!customerRepository.existsById(customerId)) {
             throw new CustomerNotFoundException("Customer with ID " + customerId + " not found");
         }
-        return transactionRepository.findByAccountCustomerId(customerId).stream()
+
+        Limit pageLimit = Limit.of(normalizeLimit(limit) + 1);
+        List<Transaction> rows = hasCursor(cursor)
+                ? findAfter(cursor, c -> transactionRepository.findPageByCustomerIdAfter(customerId, c.date(), c.id(), pageLimit))
+                : transactionRepository.findPageByCustomerId(customerId, pageLimit);
+        return toPage(rows, limit);
+    }
+
+    private boolean hasCursor(String cursor) {
+        return cursor != null && !cursor.isBlank();
+    }
+
+    private List<Transaction> findAfter(String cursor, Function<TransactionCursor, List<Transaction>> query) {
+        return query.apply(TransactionCursor.decode(cursor));
+    }
+
+    private int normalizeLimit(int limit) {
+        return Math.max(1, Math.min(limit, pageMaxLimit));
+    }
+
+    // Busca-se um item a mais que o limite só para saber se existe próxima página
+    private TransactionPageDTO toPage(List<Transaction> rows, int limit) {
+        int pageSize = normalizeLimit(limit);
+        boolean hasNext = rows.size() > pageSize;
+        List<Transaction> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        List<TransactionResponseDTO> items = page.stream()
                 .map(TransactionMapper::toResponseDTO)
                 .collect(Collectors.toList());
+        String nextCursor = hasNext ? TransactionCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        return new TransactionPageDTO(items, nextCursor);
     }
 
 
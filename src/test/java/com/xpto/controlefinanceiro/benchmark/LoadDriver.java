@@ -0,0 +1,270 @@
+package com.xpto.controlefinanceiro.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Gerador de carga sem interface: replica uma mistura configurável de POST /transactions, leituras de saldo
+ * de conta e relatórios contra uma instância local (normalmente com SPRING_PROFILES_ACTIVE=local,seed) e
+ * imprime vazão e percentis de latência por operação. Cada cliente envia uma requisição por vez (carga em
+ * malha fechada). Uso:
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.xpto.controlefinanceiro.benchmark.LoadDriver \
+ *     -Dexec.args="--url=http://localhost:8080 --concurrency=32 --duration=60 --mix=create:50,balance:30,report:20"
+ * </pre>
+ */
+public final class LoadDriver {
+
+    enum Operation { CREATE, BALANCE, REPORT, SUMMARY }
+
+    record Options(URI baseUrl, int concurrency, Duration warmup, Duration duration,
+                   Map<Operation, Integer> mix, int maxAccounts, long randomSeed) {
+    }
+
+    record OperationStats(Operation operation, long requests, long rejected, long errors, double throughput,
+                          double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+    }
+
+    private record Target(UUID accountId, UUID customerId) {
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Options options;
+    private final HttpClient client;
+    private final Operation[] weighted;
+
+    public LoadDriver(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<Operation> slots = new ArrayList<>();
+        options.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("mix must have at least one operation with positive weight");
+        }
+        this.weighted = slots.toArray(Operation[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = parse(args);
+        System.out.printf("Carga em %s: %d clientes, aquecimento %ds, medição %ds, mistura %s%n",
+                options.baseUrl(), options.concurrency(), options.warmup().toSeconds(),
+                options.duration().toSeconds(), options.mix());
+
+        List<OperationStats> stats = new LoadDriver(options).run();
+        print(stats, options.duration());
+    }
+
+    static Options parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : values.getOrDefault("mix", "create:50,balance:30,report:20").split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+
+        return new Options(
+                URI.create(values.getOrDefault("url", "http://localhost:8080")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                mix,
+                Integer.parseInt(values.getOrDefault("max-accounts", "10000")),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+    }
+
+    public List<OperationStats> run() throws Exception {
+        List<Target> targets = loadTargets();
+        if (targets.isEmpty()) {
+            throw new IllegalStateException("No accounts found at " + options.baseUrl() + "; seed the database first");
+        }
+
+        execute(targets, options.warmup(), options.randomSeed() - 1);
+        return execute(targets, options.duration(), options.randomSeed());
+    }
+
+    private List<OperationStats> execute(List<Target> targets, Duration duration, long seed) throws Exception {
+        if (duration.isZero()) {
+            return List.of();
+        }
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Map<Operation, Recorder>>> workers = new ArrayList<>();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            for (int w = 0; w < options.concurrency(); w++) {
+                SplittableRandom random = seeds.split();
+                workers.add(executor.submit(() -> work(targets, deadline, random)));
+            }
+
+            Map<Operation, Recorder> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, Recorder>> worker : workers) {
+                worker.get().forEach((operation, recorder) ->
+                        merged.computeIfAbsent(operation, o -> new Recorder()).addAll(recorder));
+            }
+
+            List<OperationStats> stats = new ArrayList<>();
+            merged.forEach((operation, recorder) -> stats.add(recorder.stats(operation, duration)));
+            return stats;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Operation, Recorder> work(List<Target> targets, long deadline, SplittableRandom random) {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        while (System.nanoTime() < deadline) {
+            Operation operation = weighted[random.nextInt(weighted.length)];
+            Target target = targets.get(random.nextInt(targets.size()));
+            Recorder recorder = recorders.computeIfAbsent(operation, o -> new Recorder());
+
+            long start = System.nanoTime();
+            try {
+                int status = client.send(request(operation, target, random), HttpResponse.BodyHandlers.discarding())
+                        .statusCode();
+                recorder.record(System.nanoTime() - start, status);
+            } catch (IOException e) {
+                recorder.record(System.nanoTime() - start, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return recorders;
+    }
+
+    private HttpRequest request(Operation operation, Target target, SplittableRandom random) {
+        LocalDate today = LocalDate.now();
+        return switch (operation) {
+            case CREATE -> HttpRequest.newBuilder(uri("/api/v1/transactions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                            {"accountId":"%s","type":"%s","amount":%d.%02d,"description":"Carga"}"""
+                            .formatted(target.accountId(), random.nextInt(100) < 60 ? "CREDIT" : "DEBIT",
+                                    random.nextInt(1, 500), random.nextInt(100))))
+                    .build();
+            case BALANCE -> HttpRequest.newBuilder(uri("/api/v1/accounts/" + target.accountId())).GET().build();
+            case REPORT -> HttpRequest.newBuilder(uri("/api/v1/reports/customer/" + target.customerId()
+                    + "/balance-period?start=" + today.minusDays(30) + "&end=" + today)).GET().build();
+            case SUMMARY -> HttpRequest.newBuilder(uri("/api/v1/reports/customers/balance-summary?date=" + today))
+                    .GET().build();
+        };
+    }
+
+    private List<Target> loadTargets() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/v1/accounts")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/v1/accounts returned " + response.statusCode());
+        }
+
+        List<Target> targets = new ArrayList<>();
+        for (JsonNode account : JSON.readTree(response.body())) {
+            if (targets.size() == options.maxAccounts()) {
+                break;
+            }
+            targets.add(new Target(UUID.fromString(account.get("id").asText()),
+                    UUID.fromString(account.get("customerId").asText())));
+        }
+        return targets;
+    }
+
+    private URI uri(String path) {
+        return options.baseUrl().resolve(path);
+    }
+
+    static void print(List<OperationStats> stats, Duration duration) {
+        System.out.printf("%-8s %10s %9s %8s %10s %9s %9s %9s %9s%n",
+                "op", "requests", "rejected", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (OperationStats s : stats) {
+            total += s.requests();
+            System.out.printf("%-8s %10d %9d %8d %10.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    s.operation(), s.requests(), s.rejected(), s.errors(), s.throughput(),
+                    s.p50Millis(), s.p90Millis(), s.p99Millis(), s.maxMillis());
+        }
+        System.out.printf("total    %10d %30.1f req/s%n", total, total / (double) duration.toSeconds());
+    }
+
+    // Latências de uma operação, em nanossegundos, sem boxing
+    static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long rejected;
+        private long errors;
+
+        void record(long nanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            // 4xx é recusa de negócio (ex.: saldo insuficiente); 5xx e falha de conexão são erro
+            if (status >= 500 || status < 0) {
+                errors++;
+            } else if (status >= 400) {
+                rejected++;
+            }
+        }
+
+        void addAll(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i], 200);
+            }
+            rejected += other.rejected;
+            errors += other.errors;
+        }
+
+        OperationStats stats(Operation operation, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new OperationStats(operation, size, rejected, errors, size / (double) duration.toSeconds(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
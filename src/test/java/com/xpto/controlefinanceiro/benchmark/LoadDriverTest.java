@@ -0,0 +1,69 @@
+package com.xpto.controlefinanceiro.benchmark;
+
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.seed.dtos.DatasetSeedRequestDTO;
+import com.xpto.controlefinanceiro.modules.seed.service.DatasetSeeder;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LoadDriverTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DatasetSeeder datasetSeeder;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void shouldParseOptions() {
+        LoadDriver.Options options = LoadDriver.parse(new String[]{
+                "--url=http://localhost:9090", "--concurrency=8", "--duration=5", "--mix=create:70,summary:30"});
+
+        assertEquals(URI.create("http://localhost:9090"), options.baseUrl());
+        assertEquals(8, options.concurrency());
+        assertEquals(Duration.ofSeconds(5), options.duration());
+        assertEquals(Map.of(LoadDriver.Operation.CREATE, 70, LoadDriver.Operation.SUMMARY, 30), options.mix());
+    }
+
+    @Test
+    void shouldReplayTheMixAgainstARunningApplication() throws Exception {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+        datasetSeeder.seed(new DatasetSeedRequestDTO(10, 1, 10, 30, 100, 1L));
+
+        List<LoadDriver.OperationStats> stats = new LoadDriver(LoadDriver.parse(new String[]{
+                "--url=http://localhost:" + port, "--concurrency=4", "--warmup=0", "--duration=2",
+                "--mix=create:50,balance:30,report:20"})).run();
+
+        assertEquals(3, stats.size());
+        for (LoadDriver.OperationStats operation : stats) {
+            assertTrue(operation.requests() > 0, operation.operation() + " sent no requests");
+            assertEquals(0, operation.errors(), operation.operation() + " had errors");
+            assertTrue(operation.p99Millis() >= operation.p50Millis());
+        }
+    }
+}
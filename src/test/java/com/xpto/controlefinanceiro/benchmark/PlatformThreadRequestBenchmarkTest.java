@@ -0,0 +1,14 @@
+package com.xpto.controlefinanceiro.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.ActiveProfiles;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@ActiveProfiles("test")
+class PlatformThreadRequestBenchmarkTest extends RequestThroughputBenchmark {
+
+    @Override
+    protected String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,180 @@
+package com.xpto.controlefinanceiro.benchmark;
+
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Mede requisições/s e latência (p50/p99) de POST /transactions e de um relatório sem cache, com muitos
+ * clientes simultâneos. As subclasses sobem a aplicação com e sem o perfil "virtual"; a configuração do
+ * Tomcat e do pool é a mesma nas duas. Só roda com -Dbenchmark=true:
+ * ./mvnw test -Dtest='*RequestBenchmarkTest' -Dbenchmark=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "xpto.reports.cache.max-size=0",
+        "server.tomcat.threads.max=50",
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+abstract class RequestThroughputBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 200);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.seconds", 10));
+    private static final int CUSTOMERS = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private final List<UUID> customerIds = new ArrayList<>();
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    protected abstract String mode();
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = new Customer();
+            customer.setName("Cliente Benchmark " + i);
+            customer.setPhone("8198888" + String.format("%04d", i));
+            customer.setCustomerType(CustomerType.PF);
+            customerRepository.save(customer);
+            customerIds.add(customer.getId());
+
+            Account account = new Account();
+            account.setCustomer(customer);
+            account.setBank("XPTO Bank");
+            account.setAgency("0001");
+            account.setNumber("B-" + i);
+            account.setInitialBalance(new BigDecimal("1000000.00"));
+            account.setBalance(new BigDecimal("1000000.00"));
+            accountRepository.save(account);
+            accountIds.add(account.getId());
+        }
+    }
+
+    @Test
+    void postTransactions() throws Exception {
+        run("POST /api/v1/transactions", i -> HttpRequest.newBuilder(uri("/api/v1/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"accountId":"%s","type":"%s","amount":1.00,"description":"benchmark"}
+                        """.formatted(accountIds.get(i % CUSTOMERS), i % 2 == 0 ? "CREDIT" : "DEBIT")))
+                .build());
+    }
+
+    @Test
+    void getCustomerBalancePeriodReport() throws Exception {
+        String start = LocalDate.now().minusDays(30).toString();
+        String end = LocalDate.now().toString();
+        run("GET /api/v1/reports/customer/{id}/balance-period", i -> HttpRequest.newBuilder(uri(
+                        "/api/v1/reports/customer/" + customerIds.get(i % CUSTOMERS)
+                                + "/balance-period?start=" + start + "&end=" + end))
+                .GET()
+                .build());
+    }
+
+    private void run(String name, IntFunction<HttpRequest> request) throws Exception {
+        load(request, WARMUP);
+        Result result = load(request, MEASUREMENT);
+
+        System.out.printf("[%s] %s: %.1f req/s, p50=%.1fms, p99=%.1fms, erros=%d, concorrência=%d, processadores=%d%n",
+                mode(), name,
+                result.latencies.length / (MEASUREMENT.toMillis() / 1000.0),
+                percentile(result.latencies, 0.50), percentile(result.latencies, 0.99),
+                result.errors, CONCURRENCY, Runtime.getRuntime().availableProcessors());
+    }
+
+    private Result load(IntFunction<HttpRequest> request, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> perClient = new ArrayList<>();
+
+        // Clientes em threads de plataforma, para não disputar as carrier threads do servidor no modo virtual
+        try (ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY)) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                List<Long> latencies = new ArrayList<>();
+                perClient.add(latencies);
+                int client = c;
+                clients.submit(() -> {
+                    int i = client;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = this.client.send(
+                                    request.apply(i), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - start);
+                        i += CONCURRENCY;
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long[] all = perClient.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray();
+        Arrays.sort(all);
+        return new Result(all, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
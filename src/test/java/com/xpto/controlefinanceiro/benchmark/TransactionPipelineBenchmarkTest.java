@@ -0,0 +1,163 @@
+package com.xpto.controlefinanceiro.benchmark;
+
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.pipeline.TransactionWritePipeline;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Vazão e latência (p50/p99) de criar transações com muitos clientes simultâneos, direto no serviço (um
+ * commit por transação) e pelo {@link TransactionWritePipeline} com vários tamanhos de lote. O H2 em memória
+ * não paga fsync no commit, que é justamente o que o commit em grupo economiza; para números realistas aponte
+ * para um PostgreSQL. Só roda com -Dbenchmark=true:
+ * ./mvnw test -Dtest=TransactionPipelineBenchmarkTest -Dbenchmark=true [-Dbenchmark.batch-sizes=1,8,32,128]
+ *     [-Dspring.datasource.url=jdbc:postgresql://localhost:5432/bench -Dspring.datasource.username=... ...]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+@ActiveProfiles("test")
+class TransactionPipelineBenchmarkTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 64);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 3));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.seconds", 5));
+    private static final Duration MAX_WAIT = Duration.ofMillis(Long.getLong("benchmark.max-wait-millis", 2));
+    private static final String BATCH_SIZES = System.getProperty("benchmark.batch-sizes", "1,8,32,128");
+    private static final int ACCOUNTS = 200;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer customer = new Customer();
+        customer.setName("Cliente Benchmark Pipeline");
+        customer.setPhone("81988880000");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setCustomer(customer);
+            account.setBank("XPTO Bank");
+            account.setAgency("0001");
+            account.setNumber("PB-" + i);
+            account.setInitialBalance(new BigDecimal("1000000.00"));
+            account.setBalance(new BigDecimal("1000000.00"));
+            accountRepository.save(account);
+            accountIds.add(account.getId());
+        }
+    }
+
+    @Test
+    void compareDirectCommitsWithGroupCommit() throws Exception {
+        run("direto", transactionService::create);
+
+        for (String size : BATCH_SIZES.split(",")) {
+            int batchSize = Integer.parseInt(size.trim());
+            TransactionWritePipeline pipeline = new TransactionWritePipeline(transactionService,
+                    new SimpleMeterRegistry(), true, batchSize, MAX_WAIT, 100_000);
+            try {
+                run("lote " + batchSize, pipeline::create);
+            } finally {
+                pipeline.shutdown();
+            }
+        }
+    }
+
+    private void run(String name, Function<TransactionRequestDTO, ?> create) throws Exception {
+        load(create, WARMUP);
+        Result result = load(create, MEASUREMENT);
+
+        System.out.printf("[%s] %.1f tx/s, p50=%.2fms, p99=%.2fms, erros=%d, concorrência=%d, max-wait=%dms%n",
+                name, result.latencies.length / (MEASUREMENT.toMillis() / 1000.0),
+                percentile(result.latencies, 0.50), percentile(result.latencies, 0.99),
+                result.errors, CONCURRENCY, MAX_WAIT.toMillis());
+    }
+
+    private Result load(Function<TransactionRequestDTO, ?> create, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> perClient = new ArrayList<>();
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY)) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                List<Long> latencies = new ArrayList<>();
+                perClient.add(latencies);
+                int client = c;
+                clients.submit(() -> {
+                    int i = client;
+                    while (System.nanoTime() < deadline) {
+                        TransactionRequestDTO request = new TransactionRequestDTO(accountIds.get(i % ACCOUNTS),
+                                i % 2 == 0 ? TransactionType.CREDIT : TransactionType.DEBIT, BigDecimal.ONE, "benchmark");
+                        long start = System.nanoTime();
+                        try {
+                            create.apply(request);
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - start);
+                        i += CONCURRENCY;
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long[] all = perClient.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray();
+        Arrays.sort(all);
+        return new Result(all, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.xpto.controlefinanceiro.benchmark;
+
+import com.xpto.controlefinanceiro.common.persistence.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara inserções com chave primária UUIDv4 (aleatória) e UUIDv7 (crescente no tempo) numa tabela com o
+ * formato de transactions: vazão e tamanho final do índice/tabela. Com chaves aleatórias cada inserção cai
+ * numa página qualquer do índice, que divide ao encher e fica com ~50-70% de ocupação; com UUIDv7 as
+ * inserções vão sempre para a última página. Por padrão usa H2 em arquivo (em target/) (tamanho via DISK_SPACE_USED);
+ * apontando para um PostgreSQL mede o índice da chave primária, e com a extensão pgstattuple também a
+ * densidade das folhas. Só roda com -Dbenchmark=true:
+ * ./mvnw test -Dtest=UuidInsertBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ *     [-Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/bench -Dbenchmark.jdbc-user=... -Dbenchmark.jdbc-password=...]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UuidInsertBenchmarkTest {
+
+    private static final String URL = System.getProperty("benchmark.jdbc-url", "jdbc:h2:./target/uuid-insert-benchmark");
+    private static final String USER = System.getProperty("benchmark.jdbc-user", "sa");
+    private static final String PASSWORD = System.getProperty("benchmark.jdbc-password", "");
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int BATCH_SIZE = 1_000;
+
+    @Test
+    void compareRandomAndTimeOrderedKeys() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD)) {
+            connection.setAutoCommit(false);
+
+            // Aquecimento do JIT e do driver com poucas linhas
+            insert(connection, "uuid_bench_v4", UUID::randomUUID, ROWS / 20);
+            insert(connection, "uuid_bench_v7", UuidV7::next, ROWS / 20);
+
+            long v4 = insert(connection, "uuid_bench_v4", UUID::randomUUID, ROWS);
+            long v7 = insert(connection, "uuid_bench_v7", UuidV7::next, ROWS);
+
+            System.out.printf("%d linhas em %s%n", ROWS, connection.getMetaData().getDatabaseProductName());
+            report(connection, "v4", "uuid_bench_v4", v4);
+            report(connection, "v7", "uuid_bench_v7", v7);
+
+            drop(connection, "uuid_bench_v4");
+            drop(connection, "uuid_bench_v7");
+        }
+    }
+
+    private long insert(Connection connection, String table, Supplier<UUID> ids, int rows) throws SQLException {
+        drop(connection, table);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, account_id UUID NOT NULL, "
+                    + "amount NUMERIC(15, 2) NOT NULL, date TIMESTAMP NOT NULL)");
+        }
+        connection.commit();
+
+        UUID accountId = UUID.randomUUID();
+        Timestamp date = Timestamp.valueOf(LocalDateTime.now());
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, account_id, amount, date) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setObject(2, accountId);
+                insert.setBigDecimal(3, BigDecimal.TEN);
+                insert.setTimestamp(4, date);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(rows, count(connection, table));
+        return elapsed;
+    }
+
+    private void report(Connection connection, String label, String table, long elapsedNanos) throws SQLException {
+        System.out.printf("%s: %.0f linhas/s, %s%n", label, ROWS / (elapsedNanos / 1e9), size(connection, table));
+    }
+
+    private String size(Connection connection, String table) throws SQLException {
+        if (URL.startsWith("jdbc:postgresql:")) {
+            String index = table + "_pkey";
+            String size = "indice " + queryLong(connection, "SELECT pg_relation_size('" + index + "')") / 1024 + " KiB";
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(
+                         "SELECT leaf_pages, avg_leaf_density, leaf_fragmentation FROM pgstatindex('" + index + "')")) {
+                result.next();
+                return size + String.format(", %d folhas, densidade %.1f%%, fragmentacao %.1f%%",
+                        result.getLong(1), result.getDouble(2), result.getDouble(3));
+            } catch (SQLException e) {
+                connection.rollback();
+                return size + " (sem pgstattuple)";
+            }
+        }
+        return "tabela+indices " + queryLong(connection, "SELECT DISK_SPACE_USED('" + table.toUpperCase() + "')") / 1024 + " KiB";
+    }
+
+    private long count(Connection connection, String table) throws SQLException {
+        return queryLong(connection, "SELECT COUNT(*) FROM " + table);
+    }
+
+    private long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private void drop(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+        }
+        connection.commit();
+    }
+}
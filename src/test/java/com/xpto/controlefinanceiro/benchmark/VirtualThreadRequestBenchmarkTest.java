@@ -0,0 +1,14 @@
+package com.xpto.controlefinanceiro.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.ActiveProfiles;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@ActiveProfiles({"test", "virtual"})
+class VirtualThreadRequestBenchmarkTest extends RequestThroughputBenchmark {
+
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,93 @@
+package com.xpto.controlefinanceiro.common.metrics;
+
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account account;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer customer = new Customer();
+        customer.setName("Cliente Métricas");
+        customer.setPhone("81977770000");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+
+        account = new Account();
+        account.setCustomer(customer);
+        account.setBank("XPTO Bank");
+        account.setAgency("0001");
+        account.setNumber("M-1");
+        account.setInitialBalance(BigDecimal.TEN);
+        account.setBalance(BigDecimal.TEN);
+        accountRepository.save(account);
+    }
+
+    @Test
+    void shouldExposeServiceRequestAndDatabaseMetricsInPrometheusFormat() throws Exception {
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"accountId":"%s","type":"DEBIT","amount":50.00,"description":"Sem saldo"}
+                                """.formatted(account.getId())))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/customers/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "xpto_service_calls_seconds_bucket{class=\"TransactionServiceImpl\",method=\"create\",outcome=\"InsufficientBalanceException\"")))
+                .andExpect(content().string(containsString("xpto_transactions_insufficient_balance_total")))
+                .andExpect(content().string(containsString(
+                        "xpto_not_found_total{class=\"CustomerServiceImpl\",exception=\"CustomerNotFoundException\"")))
+                .andExpect(content().string(containsString(
+                        "xpto_db_statements_count{method=\"POST\",uri=\"/api/v1/transactions\"")))
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\"")));
+    }
+}
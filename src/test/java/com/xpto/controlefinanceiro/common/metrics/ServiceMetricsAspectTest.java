@@ -0,0 +1,116 @@
+package com.xpto.controlefinanceiro.common.metrics;
+
+import com.xpto.controlefinanceiro.modules.customer.exceptions.CustomerNotFoundException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobNotFoundException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldTimeSuccessfulCallsByClassMethodAndOutcome() {
+        SampleServiceImpl service = proxy(new SampleServiceImpl(null));
+
+        service.succeed();
+        service.succeed();
+
+        assertEquals(2, registry.get(ServiceMetricsAspect.SERVICE_CALLS)
+                .tag("class", "SampleServiceImpl")
+                .tag("method", "succeed")
+                .tag("outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    void shouldCountInsufficientBalance() {
+        SampleServiceImpl service = proxy(new SampleServiceImpl(null));
+
+        assertThrows(InsufficientBalanceException.class, service::debit);
+
+        assertEquals(1, registry.get(ServiceMetricsAspect.INSUFFICIENT_BALANCE).counter().count());
+        assertEquals(1, registry.get(ServiceMetricsAspect.SERVICE_CALLS)
+                .tag("outcome", "InsufficientBalanceException").timer().count());
+    }
+
+    @Test
+    void shouldCountNotFoundOnlyOnceWhenServicesAreNested() {
+        SampleServiceImpl inner = proxy(new SampleServiceImpl(null));
+        SampleServiceImpl outer = proxy(new SampleServiceImpl(inner));
+
+        assertThrows(CustomerNotFoundException.class, outer::find);
+
+        assertEquals(1, registry.get(ServiceMetricsAspect.NOT_FOUND)
+                .tag("exception", "CustomerNotFoundException").counter().count());
+        assertEquals(2, registry.get(ServiceMetricsAspect.SERVICE_CALLS)
+                .tag("method", "find").timer().count());
+    }
+
+    // Conta pelo tipo, não pelo nome: uma exceção que só termina em NotFoundException não é recurso inexistente
+    @Test
+    void shouldCountOnlyResourceNotFoundExceptions() {
+        SampleServiceImpl service = proxy(new SampleServiceImpl(null));
+
+        assertThrows(ReportJobNotFoundException.class, service::findJob);
+        assertThrows(LegacyLookupNotFoundException.class, service::failWithSimilarName);
+
+        assertEquals(1, registry.get(ServiceMetricsAspect.NOT_FOUND)
+                .tag("exception", "ReportJobNotFoundException").counter().count());
+        assertNull(registry.find(ServiceMetricsAspect.NOT_FOUND)
+                .tag("exception", "LegacyLookupNotFoundException").counter());
+    }
+
+    private SampleServiceImpl proxy(SampleServiceImpl target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        return factory.getProxy();
+    }
+}
+
+// O pointcut alcança qualquer classe *ServiceImpl da aplicação
+class SampleServiceImpl {
+
+    private final SampleServiceImpl delegate;
+
+    SampleServiceImpl(SampleServiceImpl delegate) {
+        this.delegate = delegate;
+    }
+
+    public String succeed() {
+        return "ok";
+    }
+
+    public void debit() {
+        throw new InsufficientBalanceException("Insufficient balance");
+    }
+
+    public void findJob() {
+        throw new ReportJobNotFoundException("Report job not found");
+    }
+
+    public void failWithSimilarName() {
+        throw new LegacyLookupNotFoundException();
+    }
+
+    public void find() {
+        if (delegate != null) {
+            delegate.find();
+        }
+        throw new CustomerNotFoundException("Customer not found");
+    }
+}
+
+class LegacyLookupNotFoundException extends RuntimeException {
+}
@@ -0,0 +1,115 @@
+package com.xpto.controlefinanceiro.common.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementMetricsFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        counter = new SqlStatementCounter();
+    }
+
+    @Test
+    void shouldRecordStatementsPerRoute() throws Exception {
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(counter, registry, 10, true);
+
+        filter.doFilter(request("budgeted"), new MockHttpServletResponse(), executing(2));
+
+        assertEquals(2.0, registry.get(SqlStatementMetricsFilter.DB_STATEMENTS)
+                .tag("method", "GET").tag("uri", "/sample").summary().totalAmount());
+    }
+
+    @Test
+    void shouldFailWhenRouteExceedsDeclaredBudget() {
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(counter, registry, 10, true);
+
+        QueryBudgetExceededException ex = assertThrows(QueryBudgetExceededException.class,
+                () -> filter.doFilter(request("budgeted"), new MockHttpServletResponse(), executing(3)));
+
+        assertTrue(ex.getMessage().contains("executed 3 SQL statements (budget 2)"));
+        assertEquals(1, registry.get(SqlStatementMetricsFilter.QUERY_BUDGET_EXCEEDED).counter().count());
+    }
+
+    @Test
+    void shouldUseDefaultBudgetForRoutesWithoutAnnotation() throws Exception {
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(counter, registry, 4, true);
+
+        filter.doFilter(request("unbudgeted"), new MockHttpServletResponse(), executing(4));
+
+        assertThrows(QueryBudgetExceededException.class,
+                () -> filter.doFilter(request("unbudgeted"), new MockHttpServletResponse(), executing(5)));
+    }
+
+    @Test
+    void shouldScaleBudgetWithTheItemsOfTheRequest() throws Exception {
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(counter, registry, 10, true);
+
+        filter.doFilter(request("batch"), new MockHttpServletResponse(), executing(7, 3));
+
+        QueryBudgetExceededException ex = assertThrows(QueryBudgetExceededException.class,
+                () -> filter.doFilter(request("batch"), new MockHttpServletResponse(), executing(8, 3)));
+        assertTrue(ex.getMessage().contains("executed 8 SQL statements (budget 7)"));
+    }
+
+    @Test
+    void shouldOnlyCountWhenNotFailing() throws Exception {
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(counter, registry, 10, false);
+
+        filter.doFilter(request("budgeted"), new MockHttpServletResponse(), executing(5));
+
+        assertEquals(1, registry.get(SqlStatementMetricsFilter.QUERY_BUDGET_EXCEEDED)
+                .tag("uri", "/sample").counter().count());
+    }
+
+    private FilterChain executing(int statements) {
+        return executing(statements, 0);
+    }
+
+    private FilterChain executing(int statements, int items) {
+        return (request, response) -> {
+            if (items > 0) {
+                request.setAttribute(QueryBudget.ITEMS_ATTRIBUTE, items);
+            }
+            for (int i = 0; i < statements; i++) {
+                counter.inspect("select 1");
+            }
+            // Comandos fora de uma requisição não entram na conta
+            assertEquals(statements, counter.current());
+        };
+    }
+
+    private MockHttpServletRequest request(String handlerMethod) throws NoSuchMethodException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/sample");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/sample");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new SampleController(), SampleController.class.getMethod(handlerMethod)));
+        return request;
+    }
+
+    static class SampleController {
+
+        @QueryBudget(2)
+        public void budgeted() {
+        }
+
+        public void unbudgeted() {
+        }
+
+        @QueryBudget(value = 1, perItem = 2)
+        public void batch() {
+        }
+    }
+}
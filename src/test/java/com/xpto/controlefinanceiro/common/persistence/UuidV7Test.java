@@ -0,0 +1,58 @@
+package com.xpto.controlefinanceiro.common.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void shouldSetVersionAndVariantBits() {
+        UUID id = UuidV7.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void shouldCarryTheCreationTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        assertTrue(UuidV7.timestamp(id) >= before);
+        // O contador pode ter empurrado o timestamp alguns milissegundos à frente, mas não muito
+        assertTrue(UuidV7.timestamp(id) <= after + 1000);
+    }
+
+    @Test
+    void shouldBeStrictlyIncreasingInDatabaseOrder() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(UuidV7.next());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(compareUnsigned(ids.get(i - 1), ids.get(i)) < 0, "posição " + i);
+        }
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+    }
+
+    @Test
+    void shouldKeepIncreasingWhenTheClockGoesBackwards() {
+        UUID first = UuidV7.next(System.currentTimeMillis() + 100);
+        UUID second = UuidV7.next(System.currentTimeMillis());
+
+        assertTrue(compareUnsigned(first, second) < 0);
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
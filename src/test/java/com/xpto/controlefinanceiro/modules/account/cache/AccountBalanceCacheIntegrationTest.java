@@ -0,0 +1,115 @@
+package com.xpto.controlefinanceiro.modules.account.cache;
+
+import com.xpto.controlefinanceiro.common.metrics.SqlStatementCounter;
+import com.xpto.controlefinanceiro.modules.account.dtos.AccountResponseDTO;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.account.service.AccountsService;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountBalanceCacheIntegrationTest {
+
+    @Autowired
+    private AccountsService accountsService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountBalanceCache balanceCache;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account account;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+        balanceCache.invalidateAll();
+
+        Customer customer = new Customer();
+        customer.setName("Cliente Cache");
+        customer.setPhone("81999990000");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+
+        account = new Account();
+        account.setCustomer(customer);
+        account.setBank("XPTO Bank");
+        account.setAgency("0001");
+        account.setNumber("C-1");
+        account.setInitialBalance(new BigDecimal("100.00"));
+        account.setBalance(new BigDecimal("100.00"));
+        accountRepository.save(account);
+    }
+
+    @Test
+    void shouldServeCommittedBalanceWithoutQueryingTheDatabase() {
+        accountsService.findById(account.getId());
+
+        transactionService.create(new TransactionRequestDTO(account.getId(), TransactionType.CREDIT, new BigDecimal("25.50"), "Cache"));
+        transactionService.createBatch(List.of(
+                new TransactionRequestDTO(account.getId(), TransactionType.DEBIT, new BigDecimal("5.50"), "Lote")));
+
+        sqlStatementCounter.start();
+        AccountResponseDTO cached = accountsService.findById(account.getId());
+        long statements = sqlStatementCounter.stop();
+
+        assertEquals(0, statements);
+        assertEquals(0, new BigDecimal("120.00").compareTo(cached.balance()));
+        assertEquals(0, accountRepository.findById(account.getId()).orElseThrow().getBalance().compareTo(cached.balance()));
+    }
+
+    @Test
+    void shouldKeepCachedBalanceWhenTheTransactionRollsBack() {
+        accountsService.findById(account.getId());
+
+        assertThrows(InsufficientBalanceException.class, () -> transactionService.create(
+                new TransactionRequestDTO(account.getId(), TransactionType.DEBIT, new BigDecimal("1000.00"), "Recusada")));
+
+        assertEquals(0, new BigDecimal("100.00").compareTo(accountsService.findById(account.getId()).balance()));
+    }
+
+    @Test
+    void shouldRepairEntriesChangedBehindTheCacheOnVerification() {
+        accountsService.findById(account.getId());
+        Account changed = accountRepository.findById(account.getId()).orElseThrow();
+        changed.setBalance(new BigDecimal("101.00"));
+        accountRepository.save(changed);
+
+        assertEquals(0, new BigDecimal("100.00").compareTo(accountsService.findById(account.getId()).balance()));
+        assertEquals(1, balanceCache.verify());
+        assertEquals(0, new BigDecimal("101.00").compareTo(accountsService.findById(account.getId()).balance()));
+    }
+}
@@ -0,0 +1,160 @@
+package com.xpto.controlefinanceiro.modules.account.cache;
+
+import com.xpto.controlefinanceiro.common.events.AccountBalanceChangedEvent;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangeType;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
+import com.xpto.controlefinanceiro.modules.account.dtos.AccountResponseDTO;
+import com.xpto.controlefinanceiro.modules.account.exceptions.AccountNotFoundException;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AccountBalanceCacheTest {
+
+    private final UUID customerId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+
+    private AccountRepository accountRepository;
+    private CustomerRepository customerRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private AccountBalanceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        customerRepository = mock(CustomerRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AccountBalanceCache(accountRepository, customerRepository, meterRegistry, 100, Duration.ZERO, 2);
+    }
+
+    @Test
+    void shouldLoadEachAccountOnce() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.account(accountId, id -> {
+                loads.incrementAndGet();
+                return account(id, "100.00");
+            });
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheFailedLoads() {
+        assertThrows(AccountNotFoundException.class, () -> cache.account(accountId, id -> {
+            throw new AccountNotFoundException("Account not found with id: " + id);
+        }));
+
+        assertEquals(new BigDecimal("10.00"), cache.account(accountId, id -> account(id, "10.00")).balance());
+    }
+
+    @Test
+    void shouldWriteCommittedBalanceThroughToCachedAccounts() {
+        cache.account(accountId, id -> account(id, "100.00"));
+
+        cache.onAccountBalanceChanged(new AccountBalanceChangedEvent(accountId, customerId, new BigDecimal("130.00")));
+
+        assertEquals(new BigDecimal("130.00"), cache.account(accountId, id -> fail("should be cached")).balance());
+    }
+
+    @Test
+    void shouldIgnoreBalanceChangesOfAccountsNotInCache() {
+        cache.onAccountBalanceChanged(new AccountBalanceChangedEvent(accountId, customerId, new BigDecimal("130.00")));
+
+        assertEquals(new BigDecimal("130.50"), cache.account(accountId, id -> account(id, "130.50")).balance());
+    }
+
+    @Test
+    void shouldDropCustomerBalanceWhenAnAccountOfTheCustomerChanges() {
+        cache.customerBalance(customerId, id -> new BigDecimal("500.00"));
+
+        cache.onAccountBalanceChanged(new AccountBalanceChangedEvent(accountId, customerId, new BigDecimal("130.00")));
+
+        assertEquals(new BigDecimal("530.00"), cache.customerBalance(customerId, id -> new BigDecimal("530.00")));
+    }
+
+    @Test
+    void shouldDropEveryEntryOfTheCustomerWhenItsAccountsChange() {
+        UUID otherAccountId = UUID.randomUUID();
+        cache.account(accountId, id -> account(id, "100.00"));
+        cache.account(otherAccountId, id -> new AccountResponseDTO(id, "XPTO Bank", "0001", "2", BigDecimal.ONE,
+                BigDecimal.ONE, UUID.randomUUID(), true));
+
+        cache.onCustomerDataChanged(CustomerDataChangedEvent.of(customerId, CustomerDataChangeType.ACCOUNT));
+
+        assertEquals(new BigDecimal("0.00"), cache.account(accountId, id -> account(id, "0.00")).balance());
+        assertEquals(BigDecimal.ONE, cache.account(otherAccountId, id -> fail("should be cached")).balance());
+    }
+
+    @Test
+    void shouldKeepEntriesOnTransactionEvents() {
+        cache.account(accountId, id -> account(id, "100.00"));
+
+        cache.onCustomerDataChanged(CustomerDataChangedEvent.transaction(customerId, accountId, null));
+
+        assertEquals(new BigDecimal("100.00"), cache.account(accountId, id -> fail("should be cached")).balance());
+    }
+
+    @Test
+    void verifyShouldReplaceStaleEntriesWithTheDatabaseValue() {
+        UUID goneAccountId = UUID.randomUUID();
+        UUID matchingAccountId = UUID.randomUUID();
+        cache.account(accountId, id -> account(id, "100.00"));
+        cache.account(goneAccountId, id -> account(id, "1.00"));
+        cache.account(matchingAccountId, id -> account(id, "7.00"));
+        when(accountRepository.findAllById(any())).thenReturn(
+                List.of(entity(accountId, "90.00"), entity(matchingAccountId, "7.00")));
+
+        int fixed = cache.verify();
+
+        assertEquals(2, fixed);
+        assertEquals(2.0, meterRegistry.counter("xpto.accounts.balance.cache.mismatches").count());
+        assertEquals(new BigDecimal("90.00"), cache.account(accountId, id -> fail("should be cached")).balance());
+        assertEquals(new BigDecimal("5.00"), cache.account(goneAccountId, id -> account(id, "5.00")).balance());
+        // Três contas com lotes de duas: duas consultas
+        verify(accountRepository, times(2)).findAllById(any());
+    }
+
+    @Test
+    void verifyShouldDropStaleCustomerBalances() {
+        cache.customerBalance(customerId, id -> new BigDecimal("500.00"));
+        when(customerRepository.calcularSaldoCliente(customerId)).thenReturn(new BigDecimal("480.00"));
+
+        assertEquals(1, cache.verify());
+        assertEquals(new BigDecimal("480.00"), cache.customerBalance(customerId, customerRepository::calcularSaldoCliente));
+    }
+
+    private AccountResponseDTO account(UUID id, String balance) {
+        return new AccountResponseDTO(id, "XPTO Bank", "0001", "1", new BigDecimal(balance), new BigDecimal("100.00"),
+                customerId, true);
+    }
+
+    private Account entity(UUID id, String balance) {
+        return Account.builder()
+                .id(id)
+                .bank("XPTO Bank")
+                .agency("0001")
+                .number("1")
+                .balance(new BigDecimal(balance))
+                .initialBalance(new BigDecimal("100.00"))
+                .customer(Customer.builder().id(customerId).build())
+                .active(true)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.xpto.controlefinanceiro.modules.account.service;
 
+import com.xpto.controlefinanceiro.modules.account.cache.AccountBalanceCache;
 import com.xpto.controlefinanceiro.modules.account.dtos.AccountRequestDTO;
 import com.xpto.controlefinanceiro.modules.account.dtos.AccountUpdateDTO;
 import com.xpto.controlefinanceiro.modules.account.exceptions.AccountNotFoundException;
@@ -9,11 +10,14 @@ import com.xpto.controlefinanceiro.modules.customer.exceptions.CustomerNotFoundE
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
 import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,7 +37,8 @@ class AccountsServiceImplTest {
         accountRepository = mock(AccountRepository.class);
         customerRepository = mock(CustomerRepository.class);
         transactionRepository = mock(TransactionRepository.class);
-        accountsService = new AccountsServiceImpl(accountRepository, customerRepository, transactionRepository);
+        accountsService = new AccountsServiceImpl(accountRepository, customerRepository, transactionRepository, mock(ApplicationEventPublisher.class),
+                new AccountBalanceCache(accountRepository, customerRepository, new SimpleMeterRegistry(), 100, Duration.ZERO, 100));
     }
 
     @Test
@@ -11,6 +11,7 @@ import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepositor
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
@@ -27,7 +28,7 @@ class AddressServiceImplTest {
     void setUp() {
         addressRepository = mock(AddressRepository.class);
         customerRepository = mock(CustomerRepository.class);
-        addressService = new AddressServiceImpl(addressRepository, customerRepository);
+        addressService = new AddressServiceImpl(addressRepository, customerRepository, mock(ApplicationEventPublisher.class));
     }
 
     @Test
@@ -152,7 +153,8 @@ class AddressServiceImplTest {
     @Test
     void shouldDeleteAddress() {
         UUID id = UUID.randomUUID();
-        Address address = Address.builder().id(id).build();
+        Customer customer = Customer.builder().id(UUID.randomUUID()).build();
+        Address address = Address.builder().id(id).customer(customer).build();
 
         when(addressRepository.findById(id)).thenReturn(Optional.of(address));
 
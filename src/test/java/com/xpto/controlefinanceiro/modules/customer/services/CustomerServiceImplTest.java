@@ -1,5 +1,6 @@
 package com.xpto.controlefinanceiro.modules.customer.services;
 
+import com.xpto.controlefinanceiro.modules.account.cache.AccountBalanceCache;
 import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
 import com.xpto.controlefinanceiro.modules.address.repository.AddressRepository;
 import com.xpto.controlefinanceiro.modules.customer.dtos.CustomerRequestDto;
@@ -12,10 +13,13 @@ import com.xpto.controlefinanceiro.modules.customer.exceptions.CustomerNotFoundE
 import com.xpto.controlefinanceiro.modules.customer.mappers.CustomerMapper;
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,7 +39,8 @@ class CustomerServiceImplTest {
         accountRepository = mock(AccountRepository.class);
         addressRepository = mock(AddressRepository.class);
         initialSetupService = mock(InitialCustomerSetupService.class);
-        service = new CustomerServiceImpl(repository, initialSetupService, accountRepository, addressRepository);
+        service = new CustomerServiceImpl(repository, initialSetupService, accountRepository, addressRepository, mock(ApplicationEventPublisher.class),
+                new AccountBalanceCache(accountRepository, repository, new SimpleMeterRegistry(), 100, Duration.ZERO, 100));
     }
 
     @Test
@@ -0,0 +1,237 @@
+package com.xpto.controlefinanceiro.modules.reports.cache;
+
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangeType;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.reports.dtos.ReportCacheStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReportCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 5, 17);
+
+    private AccountRepository accountRepository;
+    private ReportCache reportCache;
+
+    private final UUID customerId = UUID.randomUUID();
+    private final UUID otherCustomerId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        reportCache = new ReportCache(accountRepository, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldReturnCachedReportAndCountHitsAndMisses() {
+        AtomicInteger loads = new AtomicInteger();
+
+        String first = reportCache.get(ReportCacheKey.customerBalance(customerId), () -> "report-" + loads.incrementAndGet());
+        String second = reportCache.get(ReportCacheKey.customerBalance(customerId), () -> "report-" + loads.incrementAndGet());
+
+        assertEquals("report-1", first);
+        assertEquals("report-1", second);
+        assertEquals(1, loads.get());
+
+        ReportCacheStatsDTO stats = reportCache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void shouldEvictOnlyReportsAffectedByTransaction() {
+        cacheAll();
+        when(accountRepository.findCustomerIdById(accountId)).thenReturn(Optional.of(customerId));
+
+        reportCache.onCustomerDataChanged(CustomerDataChangedEvent.transaction(accountId, TODAY));
+
+        assertFalse(isCached(ReportCacheKey.customerBalance(customerId)));
+        assertFalse(isCached(ReportCacheKey.customerBalancePeriod(customerId, TODAY.minusDays(30), TODAY.minusDays(10))));
+        assertTrue(isCached(ReportCacheKey.customerBalance(otherCustomerId)));
+        assertFalse(isCached(ReportCacheKey.balanceSummary(TODAY)));
+        assertTrue(isCached(ReportCacheKey.balanceSummary(TODAY.minusDays(1))));
+        assertFalse(isCached(ReportCacheKey.companyRevenue(TODAY.minusDays(30), TODAY)));
+        assertTrue(isCached(ReportCacheKey.companyRevenue(TODAY.minusDays(30), TODAY.minusDays(1))));
+        assertEquals(1, reportCache.stats().invalidations());
+    }
+
+    @Test
+    void shouldEvictOnlyCustomerReportsOnAddressChange() {
+        cacheAll();
+
+        reportCache.onCustomerDataChanged(CustomerDataChangedEvent.of(customerId, CustomerDataChangeType.ADDRESS));
+
+        assertFalse(isCached(ReportCacheKey.customerBalance(customerId)));
+        assertTrue(isCached(ReportCacheKey.customerBalance(otherCustomerId)));
+        assertTrue(isCached(ReportCacheKey.balanceSummary(TODAY.minusDays(1))));
+        assertTrue(isCached(ReportCacheKey.companyRevenue(TODAY.minusDays(30), TODAY)));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void shouldEvictSummariesOfAnyDateOnAccountChangeButKeepRevenue() {
+        cacheAll();
+
+        reportCache.onCustomerDataChanged(CustomerDataChangedEvent.of(customerId, CustomerDataChangeType.ACCOUNT));
+
+        assertFalse(isCached(ReportCacheKey.balanceSummary(TODAY.minusDays(1))));
+        assertTrue(isCached(ReportCacheKey.companyRevenue(TODAY.minusDays(30), TODAY)));
+    }
+
+    @Test
+    void shouldEvictEverySharedReportOnProfileChange() {
+        cacheAll();
+
+        reportCache.onCustomerDataChanged(CustomerDataChangedEvent.of(customerId, CustomerDataChangeType.PROFILE));
+
+        assertFalse(isCached(ReportCacheKey.balanceSummary(TODAY.minusDays(1))));
+        assertFalse(isCached(ReportCacheKey.companyRevenue(TODAY.minusDays(30), TODAY.minusDays(1))));
+        assertTrue(isCached(ReportCacheKey.customerBalance(otherCustomerId)));
+    }
+
+    @Test
+    void shouldNotKeepReportComputedWhileAnInvalidationHappened() {
+        ReportCacheKey key = ReportCacheKey.customerBalance(customerId);
+
+        reportCache.get(key, () -> {
+            reportCache.onCustomerDataChanged(CustomerDataChangedEvent.of(customerId, CustomerDataChangeType.ACCOUNT));
+            return "stale";
+        });
+
+        assertFalse(isCached(key));
+    }
+
+    @Test
+    void shouldKeepReportComputedWhileAnotherCustomerChanged() {
+        ReportCacheKey key = ReportCacheKey.customerBalance(customerId);
+
+        reportCache.get(key, () -> {
+            reportCache.onCustomerDataChanged(CustomerDataChangedEvent.of(otherCustomerId, CustomerDataChangeType.ACCOUNT));
+            return "fresh";
+        });
+
+        assertTrue(isCached(key));
+    }
+
+    @Test
+    void shouldComputeConcurrentMissesForTheSameKeyOnce() throws Exception {
+        ReportCacheKey key = ReportCacheKey.balanceSummary(TODAY);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadingStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> slowLoader = () -> {
+            loads.incrementAndGet();
+            loadingStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "summary";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> reportCache.get(key, slowLoader)));
+            assertTrue(loadingStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> reportCache.get(key, slowLoader)));
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("summary", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldEvictLeastValuableEntriesWhenFull() {
+        ReportCache small = new ReportCache(accountRepository, 10, Duration.ofMinutes(5));
+        for (int i = 0; i < 50; i++) {
+            small.get(ReportCacheKey.balanceSummary(TODAY.minusDays(i)), () -> "summary");
+        }
+
+        ReportCacheStatsDTO stats = small.stats();
+        assertTrue(stats.size() <= 10);
+        assertTrue(stats.evictions() >= 40);
+    }
+
+    // Sem relatório de cliente em cache (os que havia expiraram), a transação avulsa não consulta o cliente
+    @Test
+    void shouldNotLookUpTheCustomerOnceItsReportsAreGone() throws Exception {
+        ReportCache shortLived = new ReportCache(accountRepository, 100, Duration.ofMillis(1));
+        shortLived.get(ReportCacheKey.customerBalance(customerId), () -> "balance");
+        Thread.sleep(20);
+        assertEquals(0, shortLived.stats().size());
+
+        shortLived.onCustomerDataChanged(CustomerDataChangedEvent.transaction(accountId, TODAY));
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void shouldNotLookUpTheCustomerOnceItsReportsWereEvictedBySize() {
+        ReportCache small = new ReportCache(accountRepository, 2, Duration.ofMinutes(5));
+        small.get(ReportCacheKey.customerBalance(customerId), () -> "balance");
+        // Lidos com frequência, os resumos tomam o lugar do relatório do cliente, lido uma vez só
+        for (int i = 0; i < 10; i++) {
+            for (int read = 0; read < 5; read++) {
+                small.get(ReportCacheKey.balanceSummary(TODAY.minusDays(i)), () -> "summary");
+            }
+        }
+        small.stats();
+
+        small.onCustomerDataChanged(CustomerDataChangedEvent.transaction(accountId, TODAY.minusDays(30)));
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void shouldLookUpTheCustomerAgainAfterInvalidateAll() {
+        cacheAll();
+
+        reportCache.invalidateAll();
+        reportCache.onCustomerDataChanged(CustomerDataChangedEvent.transaction(accountId, TODAY));
+
+        verifyNoInteractions(accountRepository);
+    }
+
+    private void cacheAll() {
+        reportCache.get(ReportCacheKey.customerBalance(customerId), () -> "balance");
+        reportCache.get(ReportCacheKey.customerBalancePeriod(customerId, TODAY.minusDays(30), TODAY.minusDays(10)), () -> "period");
+        reportCache.get(ReportCacheKey.customerBalance(otherCustomerId), () -> "other");
+        reportCache.get(ReportCacheKey.balanceSummary(TODAY), () -> "summary-today");
+        reportCache.get(ReportCacheKey.balanceSummary(TODAY.minusDays(1)), () -> "summary-yesterday");
+        reportCache.get(ReportCacheKey.companyRevenue(TODAY.minusDays(30), TODAY), () -> "revenue");
+        reportCache.get(ReportCacheKey.companyRevenue(TODAY.minusDays(30), TODAY.minusDays(1)), () -> "revenue-closed");
+    }
+
+    private boolean isCached(ReportCacheKey key) {
+        return !"miss".equals(reportCache.get(key, () -> "miss"));
+    }
+}
@@ -4,9 +4,12 @@ package com.xpto.controlefinanceiro.modules.reports.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xpto.controlefinanceiro.modules.account.model.Account;
 import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.dtos.CustomerRequestDto;
 import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.reports.cache.ReportCache;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
 import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
 import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
 import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
@@ -25,7 +28,10 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -45,6 +51,9 @@ public class ReportControllerIntegrationTest {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private ReportCache reportCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -55,6 +64,7 @@ public class ReportControllerIntegrationTest {
 
     @BeforeEach
     public void setup() {
+        reportCache.invalidateAll();
         transactionRepository.deleteAll();
         accountRepository.deleteAll();
         customerRepository.deleteAll();
@@ -131,6 +141,24 @@ public class ReportControllerIntegrationTest {
                 .andExpect(jsonPath("$.customers").isArray());
     }
 
+    @Test
+    public void testGetBalanceSummaryAggregatesTransactionsUntilDate() throws Exception {
+        // Saldo inicial 1000, crédito de 300 há 10 dias e débito de 100 há 5 dias
+        mockMvc.perform(get("/api/v1/reports/customers/balance-summary")
+                        .param("date", LocalDate.now().toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers.length()").value(1))
+                .andExpect(jsonPath("$.customers[0].customerName").value("Cliente Teste"))
+                .andExpect(jsonPath("$.customers[0].balance").value(1200));
+
+        mockMvc.perform(get("/api/v1/reports/customers/balance-summary")
+                        .param("date", LocalDate.now().minusDays(7).toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].balance").value(1300));
+    }
+
     @Test
     public void testGetCompanyRevenueReport() throws Exception {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
@@ -146,6 +174,158 @@ public class ReportControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.startDate").value(startDate))
                 .andExpect(jsonPath("$.endDate").value(endDate))
-                .andExpect(jsonPath("$.totalRevenue").isNumber());
+                .andExpect(jsonPath("$.totalRevenue").value(400))
+                .andExpect(jsonPath("$.customers.length()").value(1))
+                .andExpect(jsonPath("$.customers[0].customerName").value("Cliente Teste"))
+                .andExpect(jsonPath("$.customers[0].transactionCount").value(2))
+                .andExpect(jsonPath("$.customers[0].totalAmount").value(400));
+    }
+
+    @Test
+    public void testCachedBalanceReportIsInvalidatedByNewTransaction() throws Exception {
+        mockMvc.perform(get("/api/v1/reports/customer/{customerId}/balance", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentBalance").value(1200));
+        mockMvc.perform(get("/api/v1/reports/customer/{customerId}/balance", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalMovements").value(2));
+
+        long hits = reportCache.stats().hits();
+        assertTrue(hits >= 1);
+
+        TransactionRequestDTO credit = new TransactionRequestDTO(account.getId(), TransactionType.CREDIT, BigDecimal.valueOf(50), "Depósito");
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(credit)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/reports/customer/{customerId}/balance", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentBalance").value(1250))
+                .andExpect(jsonPath("$.totalMovements").value(3));
+
+        mockMvc.perform(get("/api/v1/reports/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(hits))
+                .andExpect(jsonPath("$.invalidations").isNumber());
+    }
+
+    @Test
+    public void testCachedSummaryIsInvalidatedByCustomerUpdate() throws Exception {
+        mockMvc.perform(get("/api/v1/reports/customers/balance-summary")
+                        .param("date", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].customerName").value("Cliente Teste"));
+
+        mockMvc.perform(put("/api/v1/customers/{id}", customer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Cliente Renomeado\",\"phone\":\"81983670589\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/reports/customers/balance-summary")
+                        .param("date", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].customerName").value("Cliente Renomeado"));
+    }
+
+    @Test
+    public void testCachedSummaryAndRevenueAreInvalidatedByNewCustomer() throws Exception {
+        mockMvc.perform(get("/api/v1/reports/customers/balance-summary")
+                        .param("date", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers.length()").value(1));
+        mockMvc.perform(get("/api/v1/reports/revenue")
+                        .param("startDate", LocalDate.now().minusMonths(1).toString())
+                        .param("endDate", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers.length()").value(1));
+
+        // O cadastro cria a conta e o depósito inicial de 100,00
+        mockMvc.perform(post("/api/v1/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CustomerRequestDto("Cliente Novo", CustomerType.PF, "98765432100", null, "81983670590"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/reports/customers/balance-summary")
+                        .param("date", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers.length()").value(2))
+                .andExpect(jsonPath("$.customers[?(@.customerName == 'Cliente Novo')].balance").value(100.0));
+        mockMvc.perform(get("/api/v1/reports/revenue")
+                        .param("startDate", LocalDate.now().minusMonths(1).toString())
+                        .param("endDate", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers.length()").value(2))
+                .andExpect(jsonPath("$.totalRevenue").value(500));
+    }
+
+    @Test
+    public void testReportJobRunsInBackgroundAndResultCanBeDownloaded() throws Exception {
+        String response = mockMvc.perform(post("/api/v1/reports/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"BALANCE_SUMMARY\",\"startDate\":\"" + LocalDate.now() + "\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").exists())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(response).get("id").asText();
+
+        String status = "QUEUED";
+        for (int i = 0; i < 200 && !status.equals("COMPLETED") && !status.equals("FAILED"); i++) {
+            Thread.sleep(25);
+            String job = mockMvc.perform(get("/api/v1/reports/jobs/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(job).get("status").asText();
+        }
+
+        mockMvc.perform(get("/api/v1/reports/jobs/{id}", jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.progress").value(100))
+                .andExpect(jsonPath("$.result.customers[0].balance").value(1200));
+
+        mockMvc.perform(get("/api/v1/reports/jobs/{id}/result", jobId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"report-" + jobId + ".json\""))
+                .andExpect(jsonPath("$.customers[0].customerName").value("Cliente Teste"));
+    }
+
+    @Test
+    public void testReportJobValidationAndNotFound() throws Exception {
+        mockMvc.perform(post("/api/v1/reports/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"CUSTOMER_BALANCE\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/reports/jobs/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testCustomerBalanceStaysWithinQueryBudgetWithManyAccounts() throws Exception {
+        // Uma consulta por conta estouraria o @QueryBudget da rota e o filtro derrubaria a requisição
+        for (int i = 0; i < 15; i++) {
+            Account extra = new Account();
+            extra.setCustomer(customer);
+            extra.setBank("Nubank Bank");
+            extra.setAgency("1234");
+            extra.setNumber("N1-" + i);
+            extra.setInitialBalance(BigDecimal.TEN);
+            extra.setBalance(BigDecimal.TEN);
+            accountRepository.save(extra);
+
+            Transaction credit = new Transaction();
+            credit.setAccount(extra);
+            credit.setAmount(BigDecimal.ONE);
+            credit.setType(TransactionType.CREDIT);
+            credit.setDate(LocalDateTime.now().minusDays(1));
+            transactionRepository.save(credit);
+        }
+
+        mockMvc.perform(get("/api/v1/reports/customer/{customerId}/balance", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.creditMovements").value(16))
+                .andExpect(jsonPath("$.totalMovements").value(17));
     }
 }
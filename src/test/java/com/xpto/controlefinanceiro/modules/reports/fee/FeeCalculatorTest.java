@@ -0,0 +1,126 @@
+package com.xpto.controlefinanceiro.modules.reports.fee;
+
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeeCalculatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 5, 17);
+
+    @Test
+    void shouldMatchLegacyAlgorithmOnRandomHistories() {
+        Random random = new Random(42);
+
+        for (int run = 0; run < 300; run++) {
+            LocalDate customerSince = TODAY.minusDays(random.nextInt(4000));
+            int size = random.nextInt(400);
+            List<Transaction> transactions = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                // Inclui datas antes do cadastro e depois de hoje para exercitar as bordas
+                int offset = random.nextInt((int) (TODAY.toEpochDay() - customerSince.toEpochDay()) + 90) - 30;
+                transactions.add(transactionOn(customerSince.plusDays(offset).atTime(random.nextInt(24), 0)));
+            }
+            Collections.shuffle(transactions, random);
+
+            assertEquals(legacyTotalFee(customerSince, transactions, TODAY),
+                    FeeCalculator.calculateTotalFee(customerSince, transactions, TODAY),
+                    "run " + run);
+        }
+    }
+
+    @Test
+    void shouldMatchLegacyAlgorithmOnDenseWindows() {
+        LocalDate customerSince = TODAY.minusDays(95);
+        List<Transaction> transactions = new ArrayList<>();
+        // 5, 15 e 25 transações nas três primeiras janelas: uma de cada faixa de taxa
+        int[] perWindow = {5, 15, 25};
+        for (int window = 0; window < perWindow.length; window++) {
+            for (int i = 0; i < perWindow[window]; i++) {
+                transactions.add(transactionOn(customerSince.plusDays(window * 30L + i % 30).atStartOfDay()));
+            }
+        }
+
+        BigDecimal expected = legacyTotalFee(customerSince, transactions, TODAY);
+        assertEquals(expected, FeeCalculator.calculateTotalFee(customerSince, transactions, TODAY));
+        assertEquals(0, new BigDecimal("28.75").compareTo(expected));
+    }
+
+    @Test
+    void shouldCountWindowBoundariesLikeLegacyAlgorithm() {
+        LocalDate customerSince = TODAY.minusDays(60);
+        List<Transaction> transactions = List.of(
+                transactionOn(customerSince.minusDays(1).atTime(23, 59)),
+                transactionOn(customerSince.atStartOfDay()),
+                transactionOn(customerSince.plusDays(29).atTime(23, 59)),
+                transactionOn(customerSince.plusDays(30).atStartOfDay()),
+                transactionOn(TODAY.atTime(12, 0)),
+                transactionOn(TODAY.plusDays(29).atStartOfDay()),
+                transactionOn(TODAY.plusDays(30).atStartOfDay())
+        );
+
+        assertEquals(legacyTotalFee(customerSince, transactions, TODAY),
+                FeeCalculator.calculateTotalFee(customerSince, transactions, TODAY));
+    }
+
+    @Test
+    void shouldMatchLegacyAlgorithmForEmptyHistoryAndFutureCustomer() {
+        assertEquals(legacyTotalFee(TODAY.minusDays(400), List.of(), TODAY),
+                FeeCalculator.calculateTotalFee(TODAY.minusDays(400), List.of(), TODAY));
+        assertEquals(legacyTotalFee(TODAY.plusDays(1), List.of(transactionOn(TODAY.atStartOfDay())), TODAY),
+                FeeCalculator.calculateTotalFee(TODAY.plusDays(1), List.of(transactionOn(TODAY.atStartOfDay())), TODAY));
+    }
+
+    private static Transaction transactionOn(LocalDateTime date) {
+        return Transaction.builder()
+                .type(TransactionType.CREDIT)
+                .amount(BigDecimal.TEN)
+                .date(date)
+                .build();
+    }
+
+    /**
+     * Cópia do algoritmo original (uma varredura completa da lista por janela de 30 dias),
+     * mantida como referência para o teste diferencial.
+     */
+    private static BigDecimal legacyTotalFee(LocalDate customerSince, List<Transaction> transactions, LocalDate today) {
+        LocalDate startDate = customerSince;
+        BigDecimal total = BigDecimal.ZERO;
+
+        while (!startDate.isAfter(today)) {
+            final LocalDate currentStartDate = startDate;
+            LocalDate endDate = currentStartDate.plusDays(30);
+
+            long count = transactions.stream()
+                    .filter(t -> {
+                        LocalDate date = t.getDate().toLocalDate();
+                        return !date.isBefore(currentStartDate) && date.isBefore(endDate);
+                    })
+                    .count();
+
+            BigDecimal feePerTransaction;
+            if (count <= 10) {
+                feePerTransaction = BigDecimal.valueOf(1.00);
+            } else if (count <= 20) {
+                feePerTransaction = BigDecimal.valueOf(0.75);
+            } else {
+                feePerTransaction = BigDecimal.valueOf(0.50);
+            }
+
+            total = total.add(feePerTransaction.multiply(BigDecimal.valueOf(count)));
+            startDate = endDate;
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,261 @@
+package com.xpto.controlefinanceiro.modules.reports.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.common.persistence.UuidV7;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CustomersBalanceSummaryReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.ReportJobRequestDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.ReportJobResponseDTO;
+import com.xpto.controlefinanceiro.modules.reports.enums.ReportJobStatus;
+import com.xpto.controlefinanceiro.modules.reports.enums.ReportType;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.InvalidReportJobException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobNotFinishedException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobNotFoundException;
+import com.xpto.controlefinanceiro.modules.reports.exceptions.ReportJobQueueFullException;
+import com.xpto.controlefinanceiro.modules.reports.parallel.CustomerIdRange;
+import com.xpto.controlefinanceiro.modules.reports.parallel.PartitionedReportExecutor;
+import com.xpto.controlefinanceiro.modules.reports.repository.ReportRepository;
+import com.xpto.controlefinanceiro.modules.reports.services.ReportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReportJobServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 5, 17);
+
+    @TempDir
+    Path resultDir;
+
+    private final ReportService reportService = mock(ReportService.class);
+    private ReportJobService reportJobService;
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.shutdown();
+    }
+
+    @Test
+    void shouldRunReportInBackgroundAndKeepResultOnDisk() throws Exception {
+        reportJobService = newService(2, 10, Duration.ofHours(1));
+        when(reportService.generateSummaryReport(DATE)).thenReturn(summary());
+
+        ReportJobResponseDTO submitted = reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE, null));
+        ReportJobResponseDTO finished = awaitFinished(submitted.id());
+
+        assertEquals(ReportJobStatus.COMPLETED, finished.status());
+        assertEquals(100, finished.progress());
+        assertEquals("17/05/2025", finished.result().get("reportDate").asText());
+        assertEquals("Cliente", finished.result().get("customers").get(0).get("customerName").asText());
+
+        Path resultFile = reportJobService.getResultFile(submitted.id());
+        assertTrue(Files.exists(resultFile));
+        assertEquals(resultDir, resultFile.getParent());
+    }
+
+    @Test
+    void shouldJoinRunningJobForTheSameReport() throws Exception {
+        reportJobService = newService(2, 10, Duration.ofHours(1));
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.generateSummaryReport(DATE)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return summary();
+        });
+
+        ReportJobResponseDTO first = reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE, null));
+        ReportJobResponseDTO second = reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE, null));
+        assertEquals(first.id(), second.id());
+        assertThrows(ReportJobNotFinishedException.class, () -> reportJobService.getResultFile(first.id()));
+
+        release.countDown();
+        awaitFinished(first.id());
+        verify(reportService, times(1)).generateSummaryReport(DATE);
+
+        // Depois de concluído, um novo pedido gera um novo job
+        ReportJobResponseDTO third = reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE, null));
+        assertNotEquals(first.id(), third.id());
+    }
+
+    @Test
+    void shouldRejectJobsWhenQueueIsFull() throws Exception {
+        reportJobService = newService(1, 1, Duration.ofHours(1));
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.generateSummaryReport(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return summary();
+        });
+
+        reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE, null));
+        reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE.minusDays(1), null));
+
+        assertThrows(ReportJobQueueFullException.class, () ->
+                reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE.minusDays(2), null)));
+        release.countDown();
+    }
+
+    // Pedidos simultâneos do mesmo relatório com a fila cheia: todo id devolvido pode ser consultado
+    @Test
+    void shouldKeepEveryReturnedJobIdQueryableWhenTheQueueRejects() throws Exception {
+        reportJobService = newService(1, 1, Duration.ofHours(1));
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.generateSummaryReport(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return summary();
+        });
+        reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE, null));
+        reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE.minusDays(1), null));
+
+        ExecutorService submitters = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UUID>> ids = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                ids.add(submitters.submit(() -> {
+                    try {
+                        return reportJobService.submit(
+                                new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE.minusDays(2), null)).id();
+                    } catch (ReportJobQueueFullException e) {
+                        return null;
+                    }
+                }));
+            }
+            for (Future<UUID> id : ids) {
+                UUID jobId = id.get(5, TimeUnit.SECONDS);
+                if (jobId != null) {
+                    // Quem se juntou antes da recusa pode ver o job ainda QUEUED, mas nunca um id inexistente
+                    ReportJobResponseDTO job = awaitFinished(jobId);
+                    assertEquals(ReportJobStatus.FAILED, job.status());
+                    assertEquals("Report job queue is full", job.error());
+                }
+            }
+        } finally {
+            submitters.shutdownNow();
+            release.countDown();
+        }
+    }
+
+    // O progresso vem das faixas de clientes concluídas pelo executor, não de marcos fixos
+    @Test
+    void shouldReportCompletedPartitionsWhileRunning() throws Exception {
+        reportJobService = newService(1, 10, Duration.ofHours(1));
+        ReportRepository reportRepository = mock(ReportRepository.class);
+        when(reportRepository.countCustomers()).thenReturn(2L);
+        when(reportRepository.findCustomerIds(any(Pageable.class))).thenReturn(List.of(UuidV7.next()));
+        PartitionedReportExecutor executor =
+                new PartitionedReportExecutor(2, false, mock(PlatformTransactionManager.class), reportRepository);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        when(reportService.generateSummaryReport(DATE)).thenAnswer(invocation -> {
+            executor.execute(range -> {
+                if (!range.afterId().equals(CustomerIdRange.FIRST_ID)) {
+                    release.orTimeout(5, TimeUnit.SECONDS).join();
+                }
+                return List.of();
+            });
+            return summary();
+        });
+
+        try {
+            ReportJobResponseDTO submitted = reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE, null));
+            ReportJobResponseDTO running = reportJobService.get(submitted.id());
+            for (int i = 0; i < 500 && running.completedPartitions() < 1; i++) {
+                Thread.sleep(10);
+                running = reportJobService.get(submitted.id());
+            }
+
+            assertEquals(ReportJobStatus.RUNNING, running.status());
+            assertEquals(1, running.completedPartitions());
+            assertEquals(2, running.totalPartitions());
+            assertEquals(50, running.progress());
+
+            release.complete(null);
+            ReportJobResponseDTO finished = awaitFinished(submitted.id());
+            assertEquals(2, finished.completedPartitions());
+            assertEquals(100, finished.progress());
+        } finally {
+            release.complete(null);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRecordFailureMessage() throws Exception {
+        reportJobService = newService(1, 10, Duration.ofHours(1));
+        UUID customerId = UUID.randomUUID();
+        when(reportService.generateCustomerBalanceReport(customerId)).thenThrow(new IllegalStateException("boom"));
+
+        ReportJobResponseDTO submitted = reportJobService.submit(new ReportJobRequestDTO(ReportType.CUSTOMER_BALANCE, customerId, null, null));
+        ReportJobResponseDTO finished = awaitFinished(submitted.id());
+
+        assertEquals(ReportJobStatus.FAILED, finished.status());
+        assertEquals("boom", finished.error());
+        assertNull(finished.result());
+    }
+
+    @Test
+    void shouldExpireFinishedJobsAndDeleteTheirResults() throws Exception {
+        reportJobService = newService(1, 10, Duration.ofMillis(200));
+        when(reportService.generateSummaryReport(DATE)).thenReturn(summary());
+
+        ReportJobResponseDTO submitted = reportJobService.submit(new ReportJobRequestDTO(ReportType.BALANCE_SUMMARY, null, DATE, null));
+        awaitFinished(submitted.id());
+        Path resultFile = reportJobService.getResultFile(submitted.id());
+
+        Thread.sleep(300);
+
+        assertThrows(ReportJobNotFoundException.class, () -> reportJobService.get(submitted.id()));
+        assertFalse(Files.exists(resultFile));
+    }
+
+    @Test
+    void shouldValidateParametersOfEachReportType() {
+        reportJobService = newService(1, 10, Duration.ofHours(1));
+
+        assertThrows(InvalidReportJobException.class, () ->
+                reportJobService.submit(new ReportJobRequestDTO(ReportType.CUSTOMER_BALANCE, null, null, null)));
+        assertThrows(InvalidReportJobException.class, () ->
+                reportJobService.submit(new ReportJobRequestDTO(ReportType.COMPANY_REVENUE, null, DATE, null)));
+        assertThrows(InvalidReportJobException.class, () ->
+                reportJobService.submit(new ReportJobRequestDTO(ReportType.COMPANY_REVENUE, null, DATE, DATE.minusDays(1))));
+        verifyNoInteractions(reportService);
+    }
+
+    private ReportJobService newService(int threads, int queueCapacity, Duration resultTtl) {
+        return new ReportJobService(reportService, new ObjectMapper(), threads, queueCapacity, resultDir, resultTtl, false);
+    }
+
+    private ReportJobResponseDTO awaitFinished(UUID id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ReportJobResponseDTO job = reportJobService.get(id);
+            if (job.status() == ReportJobStatus.COMPLETED || job.status() == ReportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Report job " + id + " did not finish");
+        return null;
+    }
+
+    private static CustomersBalanceSummaryReportDTO summary() {
+        return new CustomersBalanceSummaryReportDTO("17/05/2025", List.of(
+                new CustomersBalanceSummaryReportDTO.CustomerBalanceSummary("Cliente", "01/01/2024", new BigDecimal("10.00"))));
+    }
+}
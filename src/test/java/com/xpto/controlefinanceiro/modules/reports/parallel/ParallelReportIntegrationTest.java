@@ -0,0 +1,184 @@
+package com.xpto.controlefinanceiro.modules.reports.parallel;
+
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CompanyRevenueReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CustomersBalanceSummaryReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.repository.ReportRepository;
+import com.xpto.controlefinanceiro.modules.reports.services.ReportServiceImpl;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "xpto.reports.parallelism=4")
+@ActiveProfiles("test")
+class ParallelReportIntegrationTest {
+
+    private static final int CUSTOMERS = 60;
+
+    @Autowired
+    private ReportServiceImpl parallelReportService;
+
+    @Autowired
+    private PartitionedReportExecutor parallelExecutor;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PartitionedReportExecutor serialExecutor;
+    private ReportServiceImpl serialReportService;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        serialExecutor = new PartitionedReportExecutor(1, false, transactionManager, reportRepository);
+        serialReportService = new ReportServiceImpl(
+                customerRepository, transactionRepository, accountRepository, reportRepository, serialExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        serialExecutor.shutdown();
+    }
+
+    @Test
+    void shouldProduceTheSameSummaryAsTheSerialReport() {
+        seed(CUSTOMERS, 5);
+        LocalDate date = LocalDate.now();
+
+        CustomersBalanceSummaryReportDTO parallel = parallelReportService.generateSummaryReport(date);
+        CustomersBalanceSummaryReportDTO serial = serialReportService.generateSummaryReport(date);
+
+        assertEquals(CUSTOMERS, parallel.customers().size());
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    void shouldProduceTheSameRevenueAsTheSerialReport() {
+        seed(CUSTOMERS, 5);
+        LocalDate start = LocalDate.now().minusDays(30);
+        LocalDate end = LocalDate.now();
+
+        CompanyRevenueReportDTO parallel = parallelReportService.generateCompanyRevenueReport(start, end);
+        CompanyRevenueReportDTO serial = serialReportService.generateCompanyRevenueReport(start, end);
+
+        assertEquals(CUSTOMERS, parallel.customers().size());
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    void shouldSplitCustomersEvenlyAcrossPartitions() {
+        seed(CUSTOMERS, 0);
+
+        List<CustomerIdRange> ranges = parallelExecutor.ranges();
+
+        assertEquals(4, ranges.size());
+        for (CustomerIdRange range : ranges) {
+            LocalDate today = LocalDate.now();
+            assertEquals(CUSTOMERS / 4, reportRepository.findCustomerBalances(today, today.atStartOfDay(),
+                    today.plusDays(1).atStartOfDay(), range.afterId(), range.lastId(), Limit.unlimited()).size());
+        }
+    }
+
+    // Medição opcional: mvn test -Dtest=ParallelReportIntegrationTest -Dbenchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkSerialVersusParallel() {
+        seed(2_000, 20);
+        LocalDate date = LocalDate.now();
+        LocalDate start = date.minusDays(30);
+
+        for (int i = 0; i < 3; i++) {
+            serialReportService.generateSummaryReport(date);
+            parallelReportService.generateSummaryReport(date);
+        }
+
+        long serialSummary = measure(() -> serialReportService.generateSummaryReport(date));
+        long parallelSummary = measure(() -> parallelReportService.generateSummaryReport(date));
+        long serialRevenue = measure(() -> serialReportService.generateCompanyRevenueReport(start, date));
+        long parallelRevenue = measure(() -> parallelReportService.generateCompanyRevenueReport(start, date));
+
+        System.out.printf("processadores=%d%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("balance-summary: serial=%dms paralelo=%dms (%.2fx)%n",
+                serialSummary, parallelSummary, (double) serialSummary / parallelSummary);
+        System.out.printf("company-revenue: serial=%dms paralelo=%dms (%.2fx)%n",
+                serialRevenue, parallelRevenue, (double) serialRevenue / parallelRevenue);
+    }
+
+    private long measure(Supplier<?> report) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            report.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000;
+    }
+
+    private void seed(int customers, int transactionsPerCustomer) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            Customer customer = new Customer();
+            customer.setName("Cliente " + i);
+            customer.setPhone("8199999" + String.format("%04d", i));
+            customer.setCustomerType(CustomerType.PF);
+            customer.setCreatedAt(LocalDate.now().minusYears(1));
+            customerRepository.save(customer);
+
+            Account account = new Account();
+            account.setCustomer(customer);
+            account.setBank("XPTO Bank");
+            account.setAgency("0001");
+            account.setNumber("P-" + i);
+            account.setInitialBalance(BigDecimal.valueOf(100 + i));
+            account.setBalance(BigDecimal.valueOf(100 + i));
+            accountRepository.save(account);
+
+            for (int t = 0; t < transactionsPerCustomer; t++) {
+                Transaction transaction = new Transaction();
+                transaction.setAccount(account);
+                transaction.setType(t % 3 == 0 ? TransactionType.DEBIT : TransactionType.CREDIT);
+                transaction.setAmount(BigDecimal.valueOf(10 + t));
+                transaction.setDate(LocalDateTime.now().minusDays(t + 1));
+                transactions.add(transaction);
+            }
+        }
+        transactionRepository.saveAll(transactions);
+    }
+}
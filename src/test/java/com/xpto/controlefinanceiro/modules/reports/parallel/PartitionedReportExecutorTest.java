@@ -0,0 +1,186 @@
+package com.xpto.controlefinanceiro.modules.reports.parallel;
+
+import com.xpto.controlefinanceiro.common.persistence.UuidV7;
+import com.xpto.controlefinanceiro.modules.reports.repository.ReportRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PartitionedReportExecutorTest {
+
+    @Test
+    void shouldSplitTheWholeIdSpaceAtTheGivenBoundaries() {
+        List<UUID> boundaries = IntStream.range(0, 6).mapToObj(i -> UuidV7.next()).toList();
+
+        List<CustomerIdRange> ranges = CustomerIdRange.split(boundaries);
+
+        assertEquals(7, ranges.size());
+        assertEquals(CustomerIdRange.FIRST_ID, ranges.get(0).afterId());
+        assertEquals(CustomerIdRange.LAST_ID, ranges.get(6).lastId());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1).lastId(), ranges.get(i).afterId());
+            assertEquals(boundaries.get(i - 1), ranges.get(i).afterId());
+        }
+    }
+
+    @Test
+    void shouldCutPartitionsAtEvenlySpacedCustomers() {
+        List<UUID> ids = sortedIds(100);
+        ReportRepository reportRepository = repositoryWith(ids);
+        PartitionedReportExecutor executor =
+                new PartitionedReportExecutor(4, false, mock(PlatformTransactionManager.class), reportRepository);
+
+        try {
+            List<CustomerIdRange> ranges = executor.ranges();
+
+            assertEquals(4, ranges.size());
+            for (CustomerIdRange range : ranges) {
+                assertEquals(25, ids.stream().filter(id -> contains(range, id)).count());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldUseFewerPartitionsWhenThereAreFewerCustomers() {
+        ReportRepository reportRepository = repositoryWith(sortedIds(2));
+        PartitionedReportExecutor executor =
+                new PartitionedReportExecutor(8, false, mock(PlatformTransactionManager.class), reportRepository);
+
+        try {
+            assertEquals(2, executor.ranges().size());
+            verify(reportRepository, times(1)).findCustomerIds(any(Pageable.class));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRunOnceOverAllIdsWhenSerial() {
+        ReportRepository reportRepository = mock(ReportRepository.class);
+        PartitionedReportExecutor executor =
+                new PartitionedReportExecutor(1, false, mock(PlatformTransactionManager.class), reportRepository);
+        List<CustomerIdRange> seen = new ArrayList<>();
+
+        List<String> result = executor.execute(range -> {
+            seen.add(range);
+            return List.of("a", "b");
+        });
+
+        assertEquals(List.of("a", "b"), result);
+        assertEquals(List.of(CustomerIdRange.all()), seen);
+        verifyNoInteractions(reportRepository);
+    }
+
+    @Test
+    void shouldMergePartialResultsInRangeOrder() {
+        List<UUID> ids = sortedIds(500);
+        PartitionedReportExecutor executor =
+                new PartitionedReportExecutor(4, false, mock(PlatformTransactionManager.class), repositoryWith(ids));
+
+        try {
+            List<UUID> result = executor.execute(range -> ids.stream().filter(id -> contains(range, id)).toList());
+
+            assertEquals(ids, result);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldMergePartialResultsInRangeOrderOnVirtualThreads() {
+        PartitionedReportExecutor executor = new PartitionedReportExecutor(8, true,
+                mock(PlatformTransactionManager.class), repositoryWith(sortedIds(80)));
+
+        try {
+            List<Boolean> result = executor.execute(range -> List.of(Thread.currentThread().isVirtual()));
+
+            assertEquals(8, result.size());
+            assertTrue(result.stream().allMatch(Boolean::booleanValue));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldReportTheWholeIdSpaceAsOnePartitionWhenSerial() {
+        PartitionedReportExecutor executor =
+                new PartitionedReportExecutor(1, false, mock(PlatformTransactionManager.class), mock(ReportRepository.class));
+        List<String> progress = new ArrayList<>();
+
+        ReportProgress.track((completed, total) -> progress.add(completed + "/" + total),
+                () -> executor.execute(range -> List.of("a")));
+
+        assertEquals(List.of("0/1", "1/1"), progress);
+    }
+
+    @Test
+    void shouldReportEachCompletedPartition() {
+        List<UUID> ids = sortedIds(100);
+        PartitionedReportExecutor executor =
+                new PartitionedReportExecutor(4, false, mock(PlatformTransactionManager.class), repositoryWith(ids));
+        List<String> progress = new CopyOnWriteArrayList<>();
+
+        try {
+            ReportProgress.track((completed, total) -> progress.add(completed + "/" + total),
+                    () -> executor.execute(range -> List.of(range)));
+
+            // As faixas terminam em qualquer ordem, mas cada uma conta uma vez
+            assertEquals("0/4", progress.get(0));
+            assertEquals(Set.of("1/4", "2/4", "3/4", "4/4"), Set.copyOf(progress.subList(1, progress.size())));
+            assertEquals(5, progress.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotReportProgressOutsideATrackedReport() {
+        PartitionedReportExecutor executor =
+                new PartitionedReportExecutor(1, false, mock(PlatformTransactionManager.class), mock(ReportRepository.class));
+        List<String> progress = new ArrayList<>();
+
+        ReportProgress.track((completed, total) -> progress.add(completed + "/" + total), () -> "done");
+        executor.execute(range -> List.of("a"));
+
+        assertTrue(progress.isEmpty());
+    }
+
+    // Repositório falso que responde contagem e posição como o banco, a partir de uma lista ordenada
+    private static ReportRepository repositoryWith(List<UUID> sortedIds) {
+        ReportRepository reportRepository = mock(ReportRepository.class);
+        when(reportRepository.countCustomers()).thenReturn((long) sortedIds.size());
+        when(reportRepository.findCustomerIds(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(0);
+            return List.of(sortedIds.get((int) page.getOffset()));
+        });
+        return reportRepository;
+    }
+
+    private static List<UUID> sortedIds(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID())
+                .sorted(PartitionedReportExecutorTest::compareUnsigned)
+                .toList();
+    }
+
+    private static boolean contains(CustomerIdRange range, UUID id) {
+        return compareUnsigned(id, range.afterId()) > 0 && compareUnsigned(id, range.lastId()) <= 0;
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
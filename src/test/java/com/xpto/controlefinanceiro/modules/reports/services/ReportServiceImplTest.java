@@ -5,6 +5,9 @@ import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
 import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
 import com.xpto.controlefinanceiro.modules.reports.dtos.*;
+import com.xpto.controlefinanceiro.modules.reports.parallel.PartitionedReportExecutor;
+import com.xpto.controlefinanceiro.modules.reports.projections.CustomerBalanceRow;
+import com.xpto.controlefinanceiro.modules.reports.repository.ReportRepository;
 import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
 import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
 import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
@@ -13,6 +16,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -32,6 +37,11 @@ class ReportServiceImplTest {
     private TransactionRepository transactionRepository;
     @Mock
     private AccountRepository accountRepository;
+    @Mock
+    private ReportRepository reportRepository;
+    @Spy
+    private PartitionedReportExecutor partitionedReportExecutor =
+            new PartitionedReportExecutor(1, false, mock(PlatformTransactionManager.class), mock(ReportRepository.class));
 
     @InjectMocks
     private ReportServiceImpl reportService;
@@ -78,9 +88,9 @@ class ReportServiceImplTest {
     @Test
     void testGenerateCustomerBalanceReport() {
         UUID customerId = mockCustomer.getId();
-        when(customerRepository.findById(customerId)).thenReturn(Optional.of(mockCustomer));
+        when(customerRepository.findWithAddressesById(customerId)).thenReturn(Optional.of(mockCustomer));
         when(accountRepository.findByCustomerId(customerId)).thenReturn(List.of(mockAccount));
-        when(transactionRepository.findByAccountId(mockAccount.getId())).thenReturn(mockTransactions);
+        when(transactionRepository.findByAccountCustomerId(customerId)).thenReturn(mockTransactions);
 
         CustomerBalanceReportDTO report = reportService.generateCustomerBalanceReport(customerId);
 
@@ -99,9 +109,10 @@ class ReportServiceImplTest {
         LocalDate start = LocalDate.now().minusDays(1);
         LocalDate end = LocalDate.now().plusDays(1);
 
-        when(customerRepository.findById(customerId)).thenReturn(Optional.of(mockCustomer));
+        when(customerRepository.findWithAddressesById(customerId)).thenReturn(Optional.of(mockCustomer));
         when(accountRepository.findByCustomerId(customerId)).thenReturn(List.of(mockAccount));
-        when(transactionRepository.findByAccountId(mockAccount.getId())).thenReturn(mockTransactions);
+        when(transactionRepository.findByCustomerIdAndPeriod(customerId, start.atStartOfDay(), end.plusDays(1).atStartOfDay()))
+                .thenReturn(mockTransactions);
 
         CustomerBalancePeriodReportDTO report = reportService.generateCustomerBalancePeriodReport(customerId, start, end);
 
@@ -115,16 +126,17 @@ class ReportServiceImplTest {
     @Test
     void testGenerateSummaryReport() {
         LocalDate date = LocalDate.now();
-        when(customerRepository.findAll()).thenReturn(List.of(mockCustomer));
-        when(accountRepository.findByCustomerId(mockCustomer.getId())).thenReturn(List.of(mockAccount));
-        when(transactionRepository.findByAccountIdAndDateLessThanEqual(eq(mockAccount.getId()), any()))
-                .thenReturn(mockTransactions);
+        when(reportRepository.findCustomerBalances(eq(date), eq(date.atStartOfDay()), eq(date.plusDays(1).atStartOfDay()), any(), any(), any()))
+                .thenReturn(List.of(new CustomerBalanceRow(
+                        mockCustomer.getId(), "Test Customer", mockCustomer.getCreatedAt(), new BigDecimal("110.00"))));
 
         CustomersBalanceSummaryReportDTO report = reportService.generateSummaryReport(date);
 
         assertNotNull(report);
         assertEquals(1, report.customers().size());
         assertEquals("Test Customer", report.customers().get(0).customerName());
+        assertEquals(new BigDecimal("110.00"), report.customers().get(0).balance());
+        verifyNoInteractions(customerRepository, accountRepository, transactionRepository);
     }
 
     @Test
@@ -132,14 +144,17 @@ class ReportServiceImplTest {
         LocalDate start = LocalDate.now().minusDays(5);
         LocalDate end = LocalDate.now().plusDays(5);
 
-        when(customerRepository.findAll()).thenReturn(List.of(mockCustomer));
-        when(accountRepository.findByCustomerId(mockCustomer.getId())).thenReturn(List.of(mockAccount));
-        when(transactionRepository.findByAccountId(mockAccount.getId())).thenReturn(mockTransactions);
+        when(reportRepository.findCustomerRevenues(eq(start.atStartOfDay()), eq(end.plusDays(1).atStartOfDay()), any(), any()))
+                .thenReturn(List.of(
+                        new CompanyRevenueReportDTO.CustomerRevenue("Test Customer", 2, new BigDecimal("50.00")),
+                        new CompanyRevenueReportDTO.CustomerRevenue("Other Customer", 1, new BigDecimal("25.00"))));
 
         CompanyRevenueReportDTO report = reportService.generateCompanyRevenueReport(start, end);
 
         assertNotNull(report);
-        assertEquals(1, report.customers().size());
+        assertEquals(2, report.customers().size());
         assertEquals("Test Customer", report.customers().get(0).customerName());
+        assertEquals(new BigDecimal("75.00"), report.totalRevenue());
+        verifyNoInteractions(customerRepository, accountRepository, transactionRepository);
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.xpto.controlefinanceiro.modules.seed.service;
+
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.reports.cache.ReportCache;
+import com.xpto.controlefinanceiro.modules.reports.dtos.CustomersBalanceSummaryReportDTO;
+import com.xpto.controlefinanceiro.modules.reports.services.ReportService;
+import com.xpto.controlefinanceiro.modules.seed.dtos.DatasetSeedRequestDTO;
+import com.xpto.controlefinanceiro.modules.seed.dtos.DatasetSeedResultDTO;
+import com.xpto.controlefinanceiro.modules.snapshot.repository.DailyBalanceSnapshotRepository;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DatasetSeederIntegrationTest {
+
+    @Autowired
+    private DatasetSeeder datasetSeeder;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DailyBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportCache reportCache;
+
+    @BeforeEach
+    void setup() {
+        reportCache.invalidateAll();
+        snapshotRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void shouldSeedConsistentCustomersAccountsAndTransactions() {
+        DatasetSeedResultDTO result = datasetSeeder.seed(new DatasetSeedRequestDTO(12, 2, 25, 90, 7, 1L));
+
+        assertEquals(12, result.customers());
+        assertEquals(24, result.accounts());
+        assertEquals(600, result.transactions());
+        assertEquals(12, customerRepository.count());
+        assertEquals(24, accountRepository.count());
+        assertEquals(600, transactionRepository.count());
+        assertTrue(result.snapshots() > 0);
+
+        for (Account account : accountRepository.findAll()) {
+            List<Transaction> transactions = transactionRepository.findByAccountId(account.getId());
+            BigDecimal net = transactions.stream()
+                    .map(t -> t.getType() == TransactionType.CREDIT ? t.getAmount() : t.getAmount().negate())
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(0, account.getInitialBalance().add(net).compareTo(account.getBalance()));
+            assertTrue(account.getBalance().signum() >= 0);
+        }
+
+        // O resumo de saldos (via snapshots reconstruídos) bate com o saldo gravado das contas
+        CustomersBalanceSummaryReportDTO summary = reportService.generateSummaryReport(LocalDate.now());
+        BigDecimal summaryTotal = summary.customers().stream()
+                .map(CustomersBalanceSummaryReportDTO.CustomerBalanceSummary::balance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal accountsTotal = accountRepository.findAll().stream()
+                .map(Account::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, accountsTotal.compareTo(summaryTotal));
+    }
+
+    @Test
+    void shouldAllowSeedingMoreThanOnce() {
+        datasetSeeder.seed(new DatasetSeedRequestDTO(3, 1, 5, 30, 100, 1L));
+        datasetSeeder.seed(new DatasetSeedRequestDTO(3, 1, 5, 30, 100, 1L));
+
+        assertEquals(6, customerRepository.count());
+        assertEquals(30, transactionRepository.count());
+    }
+}
@@ -0,0 +1,153 @@
+package com.xpto.controlefinanceiro.modules.snapshot.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.reports.cache.ReportCache;
+import com.xpto.controlefinanceiro.modules.snapshot.model.DailyBalanceSnapshot;
+import com.xpto.controlefinanceiro.modules.snapshot.repository.DailyBalanceSnapshotRepository;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BalanceSnapshotIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ReportCache reportCache;
+
+    @Autowired
+    private DailyBalanceSnapshotRepository snapshotRepository;
+
+    private Account account;
+
+    @BeforeEach
+    void setup() {
+        reportCache.invalidateAll();
+        snapshotRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer customer = new Customer();
+        customer.setName("Cliente Snapshot");
+        customer.setPhone("81999997777");
+        customer.setCustomerType(CustomerType.PF);
+        customer.setCreatedAt(LocalDate.now().minusYears(1));
+        customerRepository.save(customer);
+
+        account = new Account();
+        account.setCustomer(customer);
+        account.setBank("XPTO Bank");
+        account.setAgency("0001");
+        account.setNumber("12345-6");
+        account.setInitialBalance(new BigDecimal("1000.00"));
+        account.setBalance(new BigDecimal("1200.00"));
+        accountRepository.save(account);
+
+        // Histórico anterior aos snapshots: crédito de 300 há 10 dias e débito de 100 há 5 dias
+        saveTransaction(TransactionType.CREDIT, "300.00", LocalDateTime.now().minusDays(10));
+        saveTransaction(TransactionType.DEBIT, "100.00", LocalDateTime.now().minusDays(5));
+    }
+
+    @Test
+    void shouldRebuildOneSnapshotPerDayWithMovement() throws Exception {
+        mockMvc.perform(post("/api/v1/balance-snapshots/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts").value(1))
+                .andExpect(jsonPath("$.snapshots").value(2));
+
+        List<DailyBalanceSnapshot> snapshots = snapshotRepository.findByAccountIdOrderBySnapshotDate(account.getId());
+        assertEquals(2, snapshots.size());
+        assertEquals(LocalDate.now().minusDays(10), snapshots.get(0).getSnapshotDate());
+        assertEquals(0, new BigDecimal("1300.00").compareTo(snapshots.get(0).getClosingBalance()));
+        assertEquals(0, new BigDecimal("1200.00").compareTo(snapshots.get(1).getClosingBalance()));
+    }
+
+    @Test
+    void shouldSeedTodaySnapshotFromFullHistoryAndAccumulateLaterTransactions() throws Exception {
+        createTransaction(TransactionType.CREDIT, "50.00");
+        createTransaction(TransactionType.DEBIT, "20.00");
+
+        List<DailyBalanceSnapshot> snapshots = snapshotRepository.findByAccountIdOrderBySnapshotDate(account.getId());
+        assertEquals(1, snapshots.size());
+        assertEquals(LocalDate.now(), snapshots.get(0).getSnapshotDate());
+        assertEquals(0, new BigDecimal("1230.00").compareTo(snapshots.get(0).getClosingBalance()));
+    }
+
+    @Test
+    void shouldReadSummaryFromSnapshotsPlusTheDayMovement() throws Exception {
+        mockMvc.perform(post("/api/v1/balance-snapshots/rebuild")).andExpect(status().isOk());
+        createTransaction(TransactionType.CREDIT, "50.00");
+
+        assertSummaryBalance(LocalDate.now(), 1250);
+        assertSummaryBalance(LocalDate.now().plusDays(1), 1250);
+        assertSummaryBalance(LocalDate.now().minusDays(5), 1200);
+        assertSummaryBalance(LocalDate.now().minusDays(7), 1300);
+        assertSummaryBalance(LocalDate.now().minusDays(11), 1000);
+    }
+
+    private void assertSummaryBalance(LocalDate date, int expected) throws Exception {
+        mockMvc.perform(get("/api/v1/reports/customers/balance-summary")
+                        .param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers.length()").value(1))
+                .andExpect(jsonPath("$.customers[0].balance").value(expected));
+    }
+
+    private void createTransaction(TransactionType type, String amount) throws Exception {
+        TransactionRequestDTO dto = new TransactionRequestDTO(account.getId(), type, new BigDecimal(amount), "Snapshot");
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+    }
+
+    private void saveTransaction(TransactionType type, String amount, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDate(date);
+        transactionRepository.save(transaction);
+    }
+}
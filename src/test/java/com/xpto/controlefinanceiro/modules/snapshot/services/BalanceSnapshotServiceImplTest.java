@@ -0,0 +1,126 @@
+package com.xpto.controlefinanceiro.modules.snapshot.services;
+
+import com.xpto.controlefinanceiro.modules.account.exceptions.AccountNotFoundException;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.snapshot.dtos.BalanceSnapshotRebuildDTO;
+import com.xpto.controlefinanceiro.modules.snapshot.model.DailyBalanceSnapshot;
+import com.xpto.controlefinanceiro.modules.snapshot.projections.DailyNetRow;
+import com.xpto.controlefinanceiro.modules.snapshot.repository.DailyBalanceSnapshotRepository;
+import com.xpto.controlefinanceiro.modules.snapshot.service.BalanceSnapshotServiceImpl;
+import com.xpto.controlefinanceiro.modules.transaction.concurrency.AccountLockStripes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BalanceSnapshotServiceImplTest {
+
+    private DailyBalanceSnapshotRepository snapshotRepository;
+    private AccountRepository accountRepository;
+
+    private BalanceSnapshotServiceImpl balanceSnapshotService;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final LocalDate today = LocalDate.of(2025, 5, 17);
+
+    @BeforeEach
+    void setUp() {
+        snapshotRepository = mock(DailyBalanceSnapshotRepository.class);
+        accountRepository = mock(AccountRepository.class);
+
+        balanceSnapshotService = new BalanceSnapshotServiceImpl(
+                snapshotRepository,
+                accountRepository,
+                new AccountLockStripes(16),
+                mock(PlatformTransactionManager.class)
+        );
+    }
+
+    @Test
+    void shouldAddMovementToExistingSnapshotOfTheDay() {
+        when(snapshotRepository.addToClosingBalance(accountId, today, new BigDecimal("25.00"))).thenReturn(1);
+
+        balanceSnapshotService.registerMovement(accountId, today, new BigDecimal("25.00"));
+
+        verify(snapshotRepository, never()).save(any());
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void shouldSeedFirstSnapshotOfTheDayFromPreviousSnapshot() {
+        DailyBalanceSnapshot previous = DailyBalanceSnapshot.builder()
+                .accountId(accountId)
+                .snapshotDate(today.minusDays(3))
+                .closingBalance(new BigDecimal("500.00"))
+                .build();
+
+        when(snapshotRepository.addToClosingBalance(any(), any(), any())).thenReturn(0);
+        when(snapshotRepository.findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(accountId, today))
+                .thenReturn(Optional.of(previous));
+        when(snapshotRepository.sumNetByAccountIdAndPeriod(accountId, today.minusDays(2).atStartOfDay(), today.plusDays(1).atStartOfDay()))
+                .thenReturn(new BigDecimal("-40.00"));
+
+        balanceSnapshotService.registerMovement(accountId, today, new BigDecimal("-40.00"));
+
+        ArgumentCaptor<DailyBalanceSnapshot> captor = ArgumentCaptor.forClass(DailyBalanceSnapshot.class);
+        verify(snapshotRepository).save(captor.capture());
+        assertEquals(today, captor.getValue().getSnapshotDate());
+        assertEquals(new BigDecimal("460.00"), captor.getValue().getClosingBalance());
+        verify(snapshotRepository, never()).sumNetByAccountIdBefore(any(), any());
+    }
+
+    @Test
+    void shouldSumFullHistoryWhenThereIsNoPreviousSnapshot() {
+        when(snapshotRepository.findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(accountId, today))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findById(accountId))
+                .thenReturn(Optional.of(Account.builder().id(accountId).initialBalance(new BigDecimal("1000.00")).build()));
+        when(snapshotRepository.sumNetByAccountIdBefore(accountId, today.plusDays(1).atStartOfDay()))
+                .thenReturn(new BigDecimal("200.00"));
+
+        assertEquals(new BigDecimal("1200.00"), balanceSnapshotService.closingBalance(accountId, today));
+    }
+
+    @Test
+    void shouldThrowWhenAccountDoesNotExist() {
+        when(snapshotRepository.findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(accountId, today))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findById(accountId)).thenReturn(Optional.empty());
+
+        assertThrows(AccountNotFoundException.class, () -> balanceSnapshotService.closingBalance(accountId, today));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRebuildRunningClosingBalancePerDay() {
+        when(accountRepository.findAllIds()).thenReturn(List.of(accountId));
+        when(accountRepository.findById(accountId))
+                .thenReturn(Optional.of(Account.builder().id(accountId).initialBalance(new BigDecimal("100.00")).build()));
+        when(snapshotRepository.findDailyNetByAccountId(accountId)).thenReturn(List.of(
+                new DailyNetRow(today.minusDays(10), new BigDecimal("50.00")),
+                new DailyNetRow(today.minusDays(4), new BigDecimal("-30.00"))
+        ));
+
+        BalanceSnapshotRebuildDTO result = balanceSnapshotService.rebuildAll();
+
+        assertEquals(1, result.accounts());
+        assertEquals(2, result.snapshots());
+        verify(snapshotRepository).deleteByAccountId(accountId);
+
+        ArgumentCaptor<List<DailyBalanceSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(captor.capture());
+        assertEquals(new BigDecimal("150.00"), captor.getValue().get(0).getClosingBalance());
+        assertEquals(new BigDecimal("120.00"), captor.getValue().get(1).getClosingBalance());
+        assertEquals(today.minusDays(4), captor.getValue().get(1).getSnapshotDate());
+    }
+}
@@ -7,6 +7,7 @@ import com.xpto.controlefinanceiro.modules.customer.dtos.CustomerRequestDto;
 import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
 import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
 import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferRequestDTO;
 import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
 import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +21,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -129,7 +132,7 @@ class TransactionalControllerIntegrationTest {
 
         mockMvc.perform(get("/api/v1/transactions"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()", greaterThanOrEqualTo(1)));
+                .andExpect(jsonPath("$.items.length()", greaterThanOrEqualTo(1)));
     }
 
 
@@ -149,7 +152,7 @@ class TransactionalControllerIntegrationTest {
 
         mockMvc.perform(get("/api/v1/transactions/account/" + accountId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.items.length()").value(1));
     }
 
     @Test
@@ -168,7 +171,7 @@ class TransactionalControllerIntegrationTest {
 
         mockMvc.perform(get("/api/v1/transactions/customer/" + customerId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items.length()").value(2));
     }
 
     @Test
@@ -186,4 +189,289 @@ class TransactionalControllerIntegrationTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Insufficient balance to perform this debit transaction"));
     }
+
+    @Test
+    void shouldCreateTransactionsInBatch() throws Exception {
+        List<TransactionRequestDTO> batch = List.of(
+                new TransactionRequestDTO(accountId, TransactionType.CREDIT, BigDecimal.valueOf(100), "Lote 1"),
+                new TransactionRequestDTO(accountId, TransactionType.DEBIT, BigDecimal.valueOf(5000), "Lote 2"),
+                new TransactionRequestDTO(UUID.randomUUID(), TransactionType.CREDIT, BigDecimal.valueOf(10), "Lote 3"),
+                new TransactionRequestDTO(accountId, TransactionType.DEBIT, BigDecimal.valueOf(600), "Lote 4")
+        );
+
+        mockMvc.perform(post("/api/v1/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$.results[0].transaction.id").exists())
+                .andExpect(jsonPath("$.results[1].reason").value("INSUFFICIENT_BALANCE"))
+                .andExpect(jsonPath("$.results[2].reason").value("ACCOUNT_NOT_FOUND"))
+                .andExpect(jsonPath("$.results[3].status").value("ACCEPTED"));
+
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(500));
+    }
+
+    // O orçamento do lote cresce por conta; uma consulta a mais por transação estoura (fail-on-exceed) e falha o teste
+    @Test
+    void shouldKeepMultiAccountBatchWithinItsQueryBudget() throws Exception {
+        List<UUID> accounts = new ArrayList<>(List.of(accountId));
+        for (int i = 0; i < 7; i++) {
+            accounts.add(createAccount("B-" + i));
+        }
+
+        // Uma conta por item, cada uma no seu primeiro movimento do dia: o pior caso por conta
+        List<TransactionRequestDTO> spread = accounts.stream()
+                .map(account -> new TransactionRequestDTO(account, TransactionType.CREDIT, BigDecimal.ONE, "Lote"))
+                .toList();
+        mockMvc.perform(post("/api/v1/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(spread)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(8));
+
+        List<TransactionRequestDTO> batch = new ArrayList<>();
+        for (UUID account : accounts) {
+            batch.add(new TransactionRequestDTO(account, TransactionType.CREDIT, BigDecimal.valueOf(50), "Lote"));
+            batch.add(new TransactionRequestDTO(account, TransactionType.DEBIT, BigDecimal.valueOf(20), "Lote"));
+            batch.add(new TransactionRequestDTO(account, TransactionType.DEBIT, BigDecimal.valueOf(5000), "Lote"));
+        }
+        mockMvc.perform(post("/api/v1/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(16))
+                .andExpect(jsonPath("$.rejected").value(8));
+    }
+
+    @Test
+    void shouldPageThroughAccountTransactionsWithCursor() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            TransactionRequestDTO transaction = new TransactionRequestDTO(
+                    accountId, TransactionType.CREDIT, BigDecimal.valueOf(10 + i), "Página " + i);
+            mockMvc.perform(post("/api/v1/transactions")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(transaction)))
+                    .andExpect(status().isCreated());
+        }
+
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/v1/transactions/account/" + accountId).param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            var json = objectMapper.readTree(body);
+            json.get("items").forEach(item -> assertThat(seen.add(item.get("id").asText())).isTrue());
+            cursor = json.get("nextCursor").isNull() ? null : json.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(5);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions").param("cursor", "@@invalid@@"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldExportCustomerTransactionsAsNdjson() throws Exception {
+        TransactionRequestDTO transaction = new TransactionRequestDTO(
+                accountId, TransactionType.CREDIT, BigDecimal.valueOf(42), "Exportação");
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transaction)))
+                .andExpect(status().isCreated());
+
+        MvcResult export = mockMvc.perform(get("/api/v1/transactions/customer/" + customerId + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertThat(lines).hasSize(2);
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).get("id").asText()).isNotBlank();
+        }
+    }
+
+    @Test
+    void shouldExportCustomerTransactionsAsCsv() throws Exception {
+        TransactionRequestDTO transaction = new TransactionRequestDTO(
+                accountId, TransactionType.DEBIT, BigDecimal.valueOf(10), "Compra, parcelada");
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transaction)))
+                .andExpect(status().isCreated());
+
+        MvcResult export = mockMvc.perform(get("/api/v1/transactions/customer/" + customerId + "/export")
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertThat(lines[0]).isEqualTo("id,accountId,type,amount,date,description");
+        assertThat(lines).hasSize(3);
+        assertThat(body).contains("\"Compra, parcelada\"");
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenExportingUnknownCustomer() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions/customer/" + UUID.randomUUID() + "/export"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldTransferBetweenAccounts() throws Exception {
+        UUID destinationId = createAccount("765432-1", BigDecimal.valueOf(50));
+
+        mockMvc.perform(post("/api/v1/transactions/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransferRequestDTO(accountId, destinationId, BigDecimal.valueOf(300), "Aluguel"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.debit.accountId").value(accountId.toString()))
+                .andExpect(jsonPath("$.debit.type").value("DEBIT"))
+                .andExpect(jsonPath("$.credit.accountId").value(destinationId.toString()))
+                .andExpect(jsonPath("$.credit.type").value("CREDIT"));
+
+        mockMvc.perform(get("/api/v1/accounts/" + accountId))
+                .andExpect(jsonPath("$.balance").value(700.0));
+        mockMvc.perform(get("/api/v1/accounts/" + destinationId))
+                .andExpect(jsonPath("$.balance").value(350.0));
+    }
+
+    @Test
+    void shouldRejectTransferWithoutEnoughBalanceAndKeepBothAccounts() throws Exception {
+        UUID destinationId = createAccount("765432-1", BigDecimal.valueOf(50));
+
+        mockMvc.perform(post("/api/v1/transactions/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransferRequestDTO(accountId, destinationId, BigDecimal.valueOf(5000), "Alto demais"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Insufficient balance to perform this transfer"));
+
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualByComparingTo(BigDecimal.valueOf(1000));
+        assertThat(accountRepository.findById(destinationId).orElseThrow().getBalance()).isEqualByComparingTo(BigDecimal.valueOf(50));
+        assertThat(transactionRepository.findByAccountId(destinationId)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectTransferToTheSameAccount() throws Exception {
+        mockMvc.perform(post("/api/v1/transactions/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransferRequestDTO(accountId, accountId, BigDecimal.TEN, null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Transfer"));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenTransferringToUnknownAccount() throws Exception {
+        mockMvc.perform(post("/api/v1/transactions/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransferRequestDTO(accountId, UUID.randomUUID(), BigDecimal.TEN, null))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnTheOriginalTransactionWhenTheIdempotencyKeyIsRepeated() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(
+                new TransactionRequestDTO(accountId, TransactionType.DEBIT, BigDecimal.valueOf(200), "Reenvio"));
+
+        String first = mockMvc.perform(post("/api/v1/transactions")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String retry = mockMvc.perform(post("/api/v1/transactions")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readTree(retry)).isEqualTo(objectMapper.readTree(first));
+        assertThat(transactionRepository.findByAccountId(accountId)).hasSize(1);
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualByComparingTo(BigDecimal.valueOf(800));
+    }
+
+    @Test
+    void shouldRejectAnIdempotencyKeyReusedWithADifferentRequest() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/api/v1/transactions")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransactionRequestDTO(accountId, TransactionType.CREDIT, BigDecimal.valueOf(10), null))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/v1/transactions")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransactionRequestDTO(accountId, TransactionType.CREDIT, BigDecimal.valueOf(20), null))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").value("Idempotency Key Conflict"));
+
+        assertThat(transactionRepository.findByAccountId(accountId)).hasSize(1);
+    }
+
+    @Test
+    void shouldRejectAnIdempotencyKeyThatIsTooLong() throws Exception {
+        mockMvc.perform(post("/api/v1/transactions")
+                        .header("Idempotency-Key", "k".repeat(256))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransactionRequestDTO(accountId, TransactionType.CREDIT, BigDecimal.TEN, null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Idempotency Key"));
+    }
+
+    private UUID createAccount(String number, BigDecimal balance) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AccountRequestDTO("XPTO Bank", "0001", number, balance, customerId))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return UUID.fromString(objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText());
+    }
+
+    private UUID createAccount(String number) throws Exception {
+        AccountRequestDTO account = new AccountRequestDTO("XPTO Bank", "0001", number, BigDecimal.valueOf(1000), customerId);
+        String response = mockMvc.perform(post("/api/v1/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return UUID.fromString(objectMapper.readTree(response).get("id").asText());
+    }
 }
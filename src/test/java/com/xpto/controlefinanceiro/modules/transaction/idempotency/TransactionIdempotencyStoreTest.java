@@ -0,0 +1,97 @@
+package com.xpto.controlefinanceiro.modules.transaction.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.IdempotencyKeyConflictException;
+import com.xpto.controlefinanceiro.modules.transaction.model.TransactionIdempotencyKey;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionIdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionIdempotencyStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final TransactionRequestDTO request =
+            new TransactionRequestDTO(UUID.randomUUID(), TransactionType.CREDIT, new BigDecimal("25.00"), "Pix");
+    private final TransactionResponseDTO response = new TransactionResponseDTO(UUID.randomUUID(), request.accountId(),
+            request.type(), request.amount(), LocalDateTime.of(2025, 3, 1, 10, 30), request.description());
+
+    private TransactionIdempotencyKeyRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TransactionIdempotencyKeyRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        store = new TransactionIdempotencyStore(repository, objectMapper, mock(PlatformTransactionManager.class),
+                meterRegistry, 100, Duration.ofHours(24), Duration.ZERO);
+    }
+
+    @Test
+    void shouldTreatEquivalentAmountsAsTheSameRequest() {
+        TransactionRequestDTO sameAmount = new TransactionRequestDTO(request.accountId(), request.type(), new BigDecimal("25"), "Pix");
+        TransactionRequestDTO otherAmount = new TransactionRequestDTO(request.accountId(), request.type(), new BigDecimal("25.01"), "Pix");
+
+        assertEquals(TransactionIdempotencyStore.fingerprint(request), TransactionIdempotencyStore.fingerprint(sameAmount));
+        assertNotEquals(TransactionIdempotencyStore.fingerprint(request), TransactionIdempotencyStore.fingerprint(otherAmount));
+    }
+
+    @Test
+    void shouldSaveTheResponseAsJsonAndReadItBackFromTheDatabaseOnce() throws Exception {
+        String fingerprint = TransactionIdempotencyStore.fingerprint(request);
+        store.save("key", fingerprint, response);
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(repository).insert(eq("key"), eq(fingerprint), json.capture(), any(LocalDateTime.class));
+        when(repository.findById("key")).thenReturn(Optional.of(
+                new TransactionIdempotencyKey("key", fingerprint, json.getValue(), LocalDateTime.now())));
+
+        assertTrue(store.findCached("key", fingerprint).isEmpty());
+        assertEquals(response, store.find("key", fingerprint).orElseThrow());
+        assertEquals(response, store.findCached("key", fingerprint).orElseThrow());
+        verify(repository, times(1)).findById("key");
+        assertEquals(2, meterRegistry.counter("xpto.transactions.idempotency.replays").count());
+    }
+
+    @Test
+    void shouldReplayRememberedResponsesWithoutTheDatabase() {
+        String fingerprint = TransactionIdempotencyStore.fingerprint(request);
+        store.remember("key", fingerprint, response);
+
+        assertSame(response, store.find("key", fingerprint).orElseThrow());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldRejectTheSameKeyWithADifferentRequest() {
+        store.remember("key", TransactionIdempotencyStore.fingerprint(request), response);
+        TransactionRequestDTO other = new TransactionRequestDTO(request.accountId(), TransactionType.DEBIT, request.amount(), "Pix");
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.findCached("key", TransactionIdempotencyStore.fingerprint(other)));
+    }
+
+    @Test
+    void shouldReturnEmptyForUnknownKeys() {
+        when(repository.findById("missing")).thenReturn(Optional.empty());
+
+        assertTrue(store.find("missing", TransactionIdempotencyStore.fingerprint(request)).isEmpty());
+    }
+}
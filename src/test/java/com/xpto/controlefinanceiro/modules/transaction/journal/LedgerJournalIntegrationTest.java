@@ -0,0 +1,229 @@
+package com.xpto.controlefinanceiro.modules.transaction.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.dtos.CustomerRequestDto;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LedgerJournalIntegrationTest {
+
+    private static final Path DIRECTORY = createDirectory();
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("xpto.transactions.journal.enabled", () -> "true");
+        registry.add("xpto.transactions.journal.directory", DIRECTORY::toString);
+        registry.add("xpto.transactions.journal.flush-interval", () -> "0");
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LedgerReconciler reconciler;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LedgerJournal journal;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    // Só o que foi commitado entra no diário, e o diário refaz os saldos do banco a partir dos saldos iniciais
+    @Test
+    void shouldJournalEveryCommittedTransactionAndRebuildBalances() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer customer = new Customer();
+        customer.setName("Cliente Diário");
+        customer.setPhone("81999990002");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+        Account source = createAccount(customer, "L-1", new BigDecimal("500.00"));
+        Account destination = createAccount(customer, "L-2", new BigDecimal("50.00"));
+        long before = journal.lastSequence();
+
+        transactionService.create(new TransactionRequestDTO(source.getId(), TransactionType.CREDIT, new BigDecimal("120.00"), "Salário"));
+        transactionService.create(new TransactionRequestDTO(source.getId(), TransactionType.DEBIT, new BigDecimal("20.10"), "Café"));
+        assertThrows(InsufficientBalanceException.class, () -> transactionService.create(
+                new TransactionRequestDTO(destination.getId(), TransactionType.DEBIT, new BigDecimal("9999.00"), "Recusado")));
+        transactionService.createBatch(List.of(
+                new TransactionRequestDTO(source.getId(), TransactionType.DEBIT, new BigDecimal("5.00"), "Lote"),
+                new TransactionRequestDTO(destination.getId(), TransactionType.CREDIT, new BigDecimal("7.00"), "Lote")));
+        transactionService.transfer(new TransferRequestDTO(source.getId(), destination.getId(), new BigDecimal("100.00"), "Transferência"));
+        journal.flush();
+
+        LedgerReplay.Result result = LedgerReplay.replay(DIRECTORY);
+
+        assertEquals(transactionRepository.count(), result.lastSequence() - before);
+        Map<UUID, BigDecimal> balances = result.balances(Map.of(
+                source.getId(), source.getInitialBalance(),
+                destination.getId(), destination.getInitialBalance()));
+        for (Account account : List.of(source, destination)) {
+            BigDecimal stored = accountRepository.findById(account.getId()).orElseThrow().getBalance();
+            assertEquals(0, stored.compareTo(balances.get(account.getId())), "balance of " + account.getNumber());
+        }
+    }
+
+    // Contas abertas pela API, com o depósito inicial do cadastro, são refeitas pelo diário como as demais
+    @Test
+    void shouldRebuildBalancesOfAccountsCreatedThroughTheApi() throws Exception {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+        long before = journal.lastSequence();
+
+        UUID first = createCustomer("Cliente Diário API", "11122233344");
+        UUID second = createCustomer("Outro Cliente Diário", "55566677788");
+        List<Account> accounts = accountRepository.findAll();
+        assertEquals(2, accounts.size());
+        UUID source = accountOf(accounts, first).getId();
+        UUID destination = accountOf(accounts, second).getId();
+        post("/api/v1/transactions", new TransactionRequestDTO(source, TransactionType.CREDIT, new BigDecimal("250.00"), "Salário"));
+        post("/api/v1/transactions", new TransactionRequestDTO(destination, TransactionType.DEBIT, new BigDecimal("30.45"), "Mercado"));
+        post("/api/v1/transactions/transfer", new TransferRequestDTO(source, destination, new BigDecimal("80.00"), "Aluguel"));
+        journal.flush();
+
+        LedgerReplay.Result result = LedgerReplay.replay(DIRECTORY);
+
+        assertEquals(transactionRepository.count(), result.lastSequence() - before);
+        assertEquals(0, new BigDecimal("100.00").compareTo(result.netByAccount().get(destination).add(new BigDecimal("30.45"))
+                .subtract(new BigDecimal("80.00"))), "initial deposit journaled");
+        for (Account account : accountRepository.findAll()) {
+            BigDecimal replayed = result.balances(Map.of(account.getId(), account.getInitialBalance())).get(account.getId());
+            assertEquals(0, account.getBalance().compareTo(replayed), "balance of " + account.getNumber());
+        }
+    }
+
+    // Queda entre o commit e a escrita no diário: a reconciliação da subida acrescenta o que faltou, uma vez só
+    @Test
+    void shouldAppendCommittedTransactionsMissingFromTheJournal() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer customer = new Customer();
+        customer.setName("Cliente Reconciliação");
+        customer.setPhone("81999990003");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+        Account account = createAccount(customer, "R-1", new BigDecimal("10.00"));
+        transactionService.create(new TransactionRequestDTO(account.getId(), TransactionType.CREDIT, new BigDecimal("5.00"), "Pix"));
+
+        // Commit sem a escrita no diário, como numa queda logo depois do commit
+        Transaction lost = new Transaction();
+        lost.setAccount(account);
+        lost.setType(TransactionType.CREDIT);
+        lost.setAmount(new BigDecimal("42.00"));
+        lost.setDescription("Perdida");
+        lost.setDate(LocalDateTime.now());
+        transactionRepository.save(lost);
+        Account stored = accountRepository.findById(account.getId()).orElseThrow();
+        stored.setBalance(stored.getBalance().add(lost.getAmount()));
+        accountRepository.save(stored);
+        long before = journal.lastSequence();
+
+        assertEquals(1, reconciler.reconcile());
+        assertEquals(0, reconciler.reconcile());
+
+        List<UUID> appended = new ArrayList<>();
+        LedgerReplay.read(DIRECTORY, record -> {
+            if (record.sequence() > before) {
+                appended.add(record.transactionId());
+            }
+        });
+        assertEquals(List.of(lost.getId()), appended);
+        BigDecimal replayed = LedgerReplay.replay(DIRECTORY).balances(Map.of(account.getId(), account.getInitialBalance()))
+                .get(account.getId());
+        assertEquals(0, accountRepository.findById(account.getId()).orElseThrow().getBalance().compareTo(replayed));
+    }
+
+    private UUID createCustomer(String name, String cpf) throws Exception {
+        String response = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CustomerRequestDto(name, CustomerType.PF, cpf, null, "81999990001"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return UUID.fromString(objectMapper.readTree(response).get("id").asText());
+    }
+
+    private void post(String uri, Object body) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(uri)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated());
+    }
+
+    private static Account accountOf(List<Account> accounts, UUID customerId) {
+        return accounts.stream().filter(account -> account.getCustomer().getId().equals(customerId)).findFirst().orElseThrow();
+    }
+
+    private Account createAccount(Customer customer, String number, BigDecimal initialBalance) {
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setBank("XPTO Bank");
+        account.setAgency("0001");
+        account.setNumber(number);
+        account.setInitialBalance(initialBalance);
+        account.setBalance(initialBalance);
+        return accountRepository.save(account);
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("xpto-ledger-it");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
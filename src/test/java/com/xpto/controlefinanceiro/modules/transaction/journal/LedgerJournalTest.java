@@ -0,0 +1,265 @@
+package com.xpto.controlefinanceiro.modules.transaction.journal;
+
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.events.TransactionsBookedEvent;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.LedgerJournalCorruptedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerJournalTest {
+
+    // Cabeçalho + 4 registros por segmento, para forçar a troca de segmento
+    private static final DataSize SMALL_SEGMENT = DataSize.ofBytes(5L * LedgerRecord.SIZE);
+
+    @TempDir
+    Path directory;
+
+    private final UUID accountA = UUID.randomUUID();
+    private final UUID accountB = UUID.randomUUID();
+    private final List<LedgerJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() {
+        opened.forEach(LedgerJournal::close);
+    }
+
+    @Test
+    void shouldReplayNetMovementsPerAccountAcrossSegments() {
+        LedgerJournal journal = open();
+
+        journal.append(List.of(credit(accountA, "100.00"), debit(accountA, "30.50")));
+        journal.append(List.of(credit(accountB, "0.01")));
+        for (int i = 0; i < 5; i++) {
+            journal.append(List.of(debit(accountB, "1.00"), credit(accountA, "2.25")));
+        }
+        journal.flush();
+
+        LedgerReplay.Result result = LedgerReplay.replay(directory);
+
+        assertEquals(13, result.records());
+        assertEquals(13, result.lastSequence());
+        assertEquals(new BigDecimal("80.75"), result.netByAccount().get(accountA));
+        assertEquals(new BigDecimal("-4.99"), result.netByAccount().get(accountB));
+        assertEquals(new BigDecimal("1080.75"),
+                result.balances(Map.of(accountA, new BigDecimal("1000.00"))).get(accountA));
+        assertTrue(LedgerSegments.list(directory).size() > 1);
+    }
+
+    @Test
+    void shouldKeepRecordFieldsAndOrder() {
+        LedgerJournal journal = open();
+        TransactionResponseDTO first = credit(accountA, "12.34");
+        TransactionResponseDTO second = debit(accountB, "5.00");
+        journal.append(List.of(first, second));
+
+        List<LedgerRecord> records = new ArrayList<>();
+        LedgerReplay.read(directory, records::add);
+
+        assertEquals(2, records.size());
+        assertEquals(1, records.get(0).sequence());
+        assertEquals(first.id(), records.get(0).transactionId());
+        assertEquals(accountA, records.get(0).accountId());
+        assertEquals(TransactionType.CREDIT, records.get(0).type());
+        assertEquals(new BigDecimal("12.34"), records.get(0).amount());
+        assertEquals(first.date(), records.get(0).timestamp());
+        assertEquals(TransactionType.DEBIT, records.get(1).type());
+    }
+
+    @Test
+    void shouldContinueTheChainAfterReopening() {
+        LedgerJournal journal = open();
+        journal.append(List.of(credit(accountA, "10.00"), credit(accountA, "10.00"), credit(accountA, "10.00")));
+        journal.close();
+
+        LedgerJournal reopened = open();
+        assertEquals(3, reopened.lastSequence());
+        reopened.append(List.of(debit(accountA, "5.00"), debit(accountA, "5.00")));
+        reopened.flush();
+
+        LedgerReplay.Result result = LedgerReplay.replay(directory);
+        assertEquals(5, result.lastSequence());
+        assertEquals(new BigDecimal("20.00"), result.netByAccount().get(accountA));
+    }
+
+    @Test
+    void shouldDetectATamperedRecord() throws Exception {
+        LedgerJournal journal = open();
+        journal.append(List.of(credit(accountA, "10.00"), credit(accountA, "20.00"), credit(accountA, "30.00")));
+        journal.close();
+
+        // Troca o valor do primeiro registro (offset 40 dentro do registro)
+        try (RandomAccessFile file = new RandomAccessFile(LedgerSegments.list(directory).get(0).toFile(), "rw")) {
+            file.seek(LedgerSegments.offset(0) + 40);
+            file.writeLong(99_999);
+        }
+
+        LedgerJournalCorruptedException error = assertThrows(LedgerJournalCorruptedException.class,
+                () -> LedgerReplay.replay(directory));
+        assertTrue(error.getMessage().contains("sequence 1"));
+    }
+
+    @Test
+    void shouldDetectARemovedSegment() {
+        LedgerJournal journal = open();
+        for (int i = 0; i < 10; i++) {
+            journal.append(List.of(credit(accountA, "1.00")));
+        }
+        journal.close();
+
+        assertTrue(LedgerSegments.list(directory).get(1).toFile().delete());
+
+        assertThrows(LedgerJournalCorruptedException.class, () -> LedgerReplay.replay(directory));
+    }
+
+    @Test
+    void shouldDiscardAnIncompleteLastRecordWhenReopening() throws Exception {
+        LedgerJournal journal = open();
+        journal.append(List.of(credit(accountA, "10.00"), credit(accountA, "20.00")));
+        journal.close();
+
+        // Simula uma queda no meio da escrita do terceiro registro: sequência gravada, hash não
+        try (RandomAccessFile file = new RandomAccessFile(LedgerSegments.list(directory).get(0).toFile(), "rw")) {
+            file.seek(LedgerSegments.offset(2));
+            file.writeLong(3);
+        }
+        assertEquals(2, LedgerReplay.replay(directory).records());
+
+        LedgerJournal reopened = open();
+        assertEquals(2, reopened.lastSequence());
+        reopened.append(List.of(credit(accountA, "5.00")));
+
+        LedgerReplay.Result result = LedgerReplay.replay(directory);
+        assertEquals(3, result.records());
+        assertEquals(new BigDecimal("35.00"), result.netByAccount().get(accountA));
+    }
+
+    // Queda com páginas gravadas fora de ordem: registros depois de um espaço vazio são descartados na retomada
+    @Test
+    void shouldDiscardSlotsLeftAfterAGapWhenReopening() throws Exception {
+        LedgerJournal journal = open();
+        journal.append(List.of(credit(accountA, "10.00"), credit(accountA, "20.00")));
+        journal.close();
+
+        Path segment = LedgerSegments.list(directory).get(0);
+        byte[] stale = new byte[LedgerRecord.SIZE];
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(LedgerSegments.offset(0));
+            file.readFully(stale);
+            // O espaço 2 ficou vazio; o 3 recebeu um registro que não continua a cadeia
+            file.seek(LedgerSegments.offset(3));
+            file.write(stale);
+        }
+
+        LedgerJournal reopened = open();
+        assertEquals(2, reopened.lastSequence());
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+            byte[] slot = new byte[LedgerRecord.SIZE];
+            file.seek(LedgerSegments.offset(3));
+            file.readFully(slot);
+            assertArrayEquals(new byte[LedgerRecord.SIZE], slot);
+        }
+
+        reopened.append(List.of(credit(accountA, "5.00"), credit(accountA, "1.00")));
+        reopened.flush();
+        LedgerReplay.Result result = LedgerReplay.replay(directory);
+        assertEquals(4, result.records());
+        assertEquals(new BigDecimal("36.00"), result.netByAccount().get(accountA));
+    }
+
+    // Fim do diário para a reconciliação: a janela conta da transação mais recente e atravessa segmentos
+    @Test
+    void shouldCollectTheTransactionsWithinTheWindowOfTheNewestRecord() {
+        assertTrue(LedgerReplay.recent(directory, Duration.ofMinutes(5)).isEmpty());
+        LedgerJournal journal = open();
+        LocalDateTime start = LocalDateTime.of(2025, 5, 10, 10, 0);
+        for (int i = 0; i < 6; i++) {
+            journal.append(List.of(at(start)));
+        }
+        List<TransactionResponseDTO> recent = List.of(at(start.plusMinutes(19)), at(start.plusMinutes(20)),
+                at(start.plusMinutes(20)), at(start.plusMinutes(16)));
+        journal.append(recent);
+
+        LedgerReplay.Recent tail = LedgerReplay.recent(directory, Duration.ofMinutes(5)).orElseThrow();
+
+        assertEquals(start.plusMinutes(15), tail.since());
+        assertEquals(recent.stream().map(TransactionResponseDTO::id).collect(Collectors.toSet()),
+                tail.transactionIds());
+        assertEquals(3, LedgerSegments.list(directory).size());
+    }
+
+    // Registro antigo acrescentado pela reconciliação no segmento mais novo não esconde os recentes dos anteriores
+    @Test
+    void shouldKeepCollectingPastAnOlderRecordInTheMiddleOfTheWindow() {
+        LedgerJournal journal = open();
+        LocalDateTime start = LocalDateTime.of(2025, 5, 10, 10, 0);
+        for (int i = 0; i < 4; i++) {
+            journal.append(List.of(at(start)));
+        }
+        List<TransactionResponseDTO> recent = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            recent.add(at(start.plusMinutes(18)));
+        }
+        journal.append(recent);
+        TransactionResponseDTO newest = at(start.plusMinutes(20));
+        journal.append(List.of(at(start.plusMinutes(10)), newest));
+        recent.add(newest);
+
+        LedgerReplay.Recent tail = LedgerReplay.recent(directory, Duration.ofMinutes(5)).orElseThrow();
+
+        assertEquals(start.plusMinutes(15), tail.since());
+        assertEquals(recent.stream().map(TransactionResponseDTO::id).collect(Collectors.toSet()),
+                tail.transactionIds());
+        assertEquals(3, LedgerSegments.list(directory).size());
+    }
+
+    @Test
+    void shouldIgnoreEventsWhenDisabled() {
+        LedgerJournal journal = new LedgerJournal(false, directory.resolve("off"), SMALL_SEGMENT, Duration.ZERO,
+                new SimpleMeterRegistry());
+
+        journal.onTransactionsBooked(new TransactionsBookedEvent(List.of(credit(accountA, "1.00"))));
+
+        assertFalse(directory.resolve("off").toFile().exists());
+        assertThrows(IllegalStateException.class, () -> journal.append(List.of(credit(accountA, "1.00"))));
+    }
+
+    private LedgerJournal open() {
+        LedgerJournal journal = new LedgerJournal(true, directory, SMALL_SEGMENT, Duration.ZERO, new SimpleMeterRegistry());
+        opened.add(journal);
+        return journal;
+    }
+
+    private TransactionResponseDTO at(LocalDateTime date) {
+        return new TransactionResponseDTO(UUID.randomUUID(), accountA, TransactionType.CREDIT, BigDecimal.ONE, date, null);
+    }
+
+    private static TransactionResponseDTO credit(UUID accountId, String amount) {
+        return transaction(accountId, TransactionType.CREDIT, amount);
+    }
+
+    private static TransactionResponseDTO debit(UUID accountId, String amount) {
+        return transaction(accountId, TransactionType.DEBIT, amount);
+    }
+
+    private static TransactionResponseDTO transaction(UUID accountId, TransactionType type, String amount) {
+        return new TransactionResponseDTO(UUID.randomUUID(), accountId, type, new BigDecimal(amount),
+                LocalDateTime.of(2025, 5, 10, 14, 30, 15, 123_456_000), null);
+    }
+}
@@ -0,0 +1,256 @@
+package com.xpto.controlefinanceiro.modules.transaction.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.dtos.CustomerRequestDto;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.transaction.controller.TransactionalController;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.events.TransactionsBookedEvent;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.UndeliverableOutboxEventException;
+import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import com.xpto.controlefinanceiro.modules.transaction.model.TransactionOutboxEvent;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionOutboxRepository;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "xpto.transactions.outbox.enabled=true",
+        "xpto.transactions.outbox.poll-interval=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionOutboxIntegrationTest {
+
+    // Projeção de teste: guarda o que recebeu e pode ser mandada falhar na próxima entrega
+    static class RecordingConsumer implements TransactionOutboxConsumer {
+
+        final List<TransactionResponseDTO> received = new CopyOnWriteArrayList<>();
+        final AtomicBoolean failNext = new AtomicBoolean();
+        final Set<UUID> refused = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void accept(TransactionsBookedEvent event) {
+            if (failNext.compareAndSet(true, false)) {
+                throw new IllegalStateException("projection unavailable");
+            }
+            if (event.transactions().stream().anyMatch(transaction -> refused.contains(transaction.id()))) {
+                throw new UndeliverableOutboxEventException("projection refused the event");
+            }
+            received.addAll(event.transactions());
+        }
+    }
+
+    @TestConfiguration
+    static class ConsumerConfiguration {
+
+        @Bean
+        RecordingConsumer recordingConsumer() {
+            return new RecordingConsumer();
+        }
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionOutboxRelay relay;
+
+    @Autowired
+    private RecordingConsumer consumer;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionOutboxRepository outboxRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account source;
+    private Account destination;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+        consumer.received.clear();
+        consumer.refused.clear();
+
+        Customer customer = new Customer();
+        customer.setName("Cliente Outbox");
+        customer.setPhone("81999990004");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+        source = createAccount(customer, "O-1", new BigDecimal("500.00"));
+        destination = createAccount(customer, "O-2", new BigDecimal("50.00"));
+    }
+
+    // Só o que foi commitado entra no outbox, e cada evento chega aos consumidores uma vez quando nada falha
+    @Test
+    void shouldPublishEveryCommittedTransaction() throws Exception {
+        transactionService.create(new TransactionRequestDTO(source.getId(), TransactionType.CREDIT, new BigDecimal("120.00"), "Salário"));
+        assertThrows(InsufficientBalanceException.class, () -> transactionService.create(
+                new TransactionRequestDTO(destination.getId(), TransactionType.DEBIT, new BigDecimal("9999.00"), "Recusado")));
+        transactionService.createBatch(List.of(
+                new TransactionRequestDTO(source.getId(), TransactionType.DEBIT, new BigDecimal("5.00"), "Lote"),
+                new TransactionRequestDTO(destination.getId(), TransactionType.CREDIT, new BigDecimal("7.00"), "Lote")));
+        transactionService.transfer(new TransferRequestDTO(source.getId(), destination.getId(), new BigDecimal("100.00"), "Transferência"));
+        // A rota mais cara (com Idempotency-Key) continua dentro do orçamento de comandos SQL com o insert no outbox
+        mockMvc.perform(post("/api/v1/transactions")
+                        .header(TransactionalController.IDEMPOTENCY_KEY_HEADER, "outbox-" + UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransactionRequestDTO(destination.getId(), TransactionType.DEBIT, new BigDecimal("1.00"), "Café"))))
+                .andExpect(status().isCreated());
+
+        assertTrue(consumer.received.isEmpty());
+        int delivered = 0;
+        for (int count = relay.relay(); count > 0; count = relay.relay()) {
+            delivered += count;
+        }
+
+        Set<UUID> committed = transactionRepository.findAll().stream().map(Transaction::getId).collect(Collectors.toSet());
+        assertEquals(6, committed.size());
+        assertEquals(committed.size(), delivered);
+        assertEquals(committed, consumer.received.stream().map(TransactionResponseDTO::id).collect(Collectors.toSet()));
+        assertEquals(committed.size(), consumer.received.size());
+        assertEquals(0, relay.relay());
+    }
+
+    @Test
+    void shouldDeliverTheBatchAgainAfterAConsumerFailure() {
+        TransactionResponseDTO created = transactionService.create(
+                new TransactionRequestDTO(source.getId(), TransactionType.CREDIT, new BigDecimal("10.00"), "Pix"));
+        consumer.failNext.set(true);
+
+        assertThrows(IllegalStateException.class, relay::relay);
+        assertTrue(consumer.received.isEmpty());
+
+        assertEquals(1, relay.relay());
+        assertEquals(List.of(created), consumer.received);
+        assertEquals(0, relay.relay());
+    }
+
+    // Um evento que o consumidor recusa é estacionado, os seguintes são entregues e o redrive o devolve à fila
+    @Test
+    void shouldParkARefusedEventDeliverTheOthersAndRedriveIt() throws Exception {
+        TransactionResponseDTO first = transactionService.create(
+                new TransactionRequestDTO(source.getId(), TransactionType.CREDIT, new BigDecimal("1.00"), "Pix"));
+        TransactionResponseDTO refused = transactionService.create(
+                new TransactionRequestDTO(source.getId(), TransactionType.CREDIT, new BigDecimal("2.00"), "Pix"));
+        TransactionResponseDTO last = transactionService.create(
+                new TransactionRequestDTO(source.getId(), TransactionType.CREDIT, new BigDecimal("3.00"), "Pix"));
+        consumer.refused.add(refused.id());
+
+        assertEquals(1, relay.relay());
+        assertEquals(1, relay.relay());
+        assertEquals(0, relay.relay());
+
+        assertEquals(List.of(first, last), consumer.received);
+        TransactionOutboxEvent parked = outboxRepository.findAll().stream()
+                .filter(row -> row.getTransactionId().equals(refused.id()))
+                .findFirst().orElseThrow();
+        assertNotNull(parked.getParkedAt());
+        assertNull(parked.getPublishedAt());
+        assertEquals(1, parked.getAttempts());
+        assertEquals("projection refused the event", parked.getLastError());
+
+        consumer.refused.clear();
+        mockMvc.perform(post("/api/v1/transactions/outbox/redrive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.redriven").value(1));
+
+        assertEquals(1, relay.relay());
+        assertEquals(List.of(first, last, refused), consumer.received);
+        assertEquals(0, relay.relay());
+    }
+
+    // Consumidor fora do ar não estaciona nada, por mais vezes que falhe: o evento espera na cabeça da fila
+    @Test
+    void shouldNeverParkAnEventWhileTheConsumerIsUnavailable() {
+        TransactionResponseDTO created = transactionService.create(
+                new TransactionRequestDTO(source.getId(), TransactionType.CREDIT, new BigDecimal("10.00"), "Pix"));
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            consumer.failNext.set(true);
+            assertThrows(IllegalStateException.class, relay::relay);
+        }
+
+        TransactionOutboxEvent pending = outboxRepository.findAll().get(0);
+        assertNull(pending.getParkedAt());
+        assertEquals(5, pending.getAttempts());
+        assertEquals(1, relay.relay());
+        assertEquals(List.of(created), consumer.received);
+    }
+
+    // O depósito inicial do cadastro passa pelo serviço de transações e também entra no outbox
+    @Test
+    void shouldPublishTheInitialDepositOfANewCustomer() throws Exception {
+        mockMvc.perform(post("/api/v1/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CustomerRequestDto("Cliente Novo Outbox", CustomerType.PF, "32165498700", null, "81999990005"))))
+                .andExpect(status().isCreated());
+
+        assertEquals(1, relay.relay());
+
+        assertEquals(1, consumer.received.size());
+        assertEquals("Initial deposit", consumer.received.get(0).description());
+        assertEquals(0, new BigDecimal("100.00").compareTo(consumer.received.get(0).amount()));
+    }
+
+    private Account createAccount(Customer customer, String number, BigDecimal initialBalance) {
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setBank("XPTO Bank");
+        account.setAgency("0001");
+        account.setNumber(number);
+        account.setInitialBalance(initialBalance);
+        account.setBalance(initialBalance);
+        return accountRepository.save(account);
+    }
+}
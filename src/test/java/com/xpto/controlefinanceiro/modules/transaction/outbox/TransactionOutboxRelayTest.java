@@ -0,0 +1,237 @@
+package com.xpto.controlefinanceiro.modules.transaction.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.events.TransactionsBookedEvent;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.UndeliverableOutboxEventException;
+import com.xpto.controlefinanceiro.modules.transaction.model.TransactionOutboxEvent;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class TransactionOutboxRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private TransactionOutboxRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private List<TransactionOutboxConsumer> consumers;
+    private TransactionOutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(TransactionOutboxRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        consumers = new ArrayList<>();
+        ObjectProvider<TransactionOutboxConsumer> provider = mock(ObjectProvider.class);
+        when(provider.orderedStream()).thenAnswer(invocation -> consumers.stream());
+        relay = new TransactionOutboxRelay(repository, objectMapper, transactionManager, provider,
+                meterRegistry, true, 3, Duration.ZERO, Duration.ofHours(24), Duration.ZERO, Duration.ZERO);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldDeliverPendingEventsInOrderToEveryConsumerAndThenMarkThem() throws Exception {
+        TransactionResponseDTO first = transaction("10.00");
+        TransactionResponseDTO second = transaction("20.00");
+        List<TransactionOutboxEvent> pending = List.of(row(first), row(second));
+        when(repository.claimPending(Limit.of(3))).thenReturn(pending);
+        List<TransactionsBookedEvent> received = new ArrayList<>();
+        consumers.add(received::add);
+        consumers.add(received::add);
+
+        assertEquals(2, relay.relay());
+
+        assertEquals(List.of(new TransactionsBookedEvent(List.of(first, second)),
+                new TransactionsBookedEvent(List.of(first, second))), received);
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).markPublished(ids.capture(), any(LocalDateTime.class));
+        assertEquals(pending.stream().map(TransactionOutboxEvent::getId).toList(), List.copyOf(ids.getValue()));
+        assertEquals(2, meterRegistry.counter("xpto.transactions.outbox.delivered").count());
+    }
+
+    // Travar, entregar e marcar acontecem na mesma transação: outro nó não pega o lote enquanto ele é entregue
+    @Test
+    void shouldClaimDeliverAndMarkTheBatchInOneTransaction() throws Exception {
+        when(repository.claimPending(Limit.of(3))).thenReturn(List.of(row(transaction("10.00"))));
+        TransactionOutboxConsumer consumer = mock(TransactionOutboxConsumer.class);
+        consumers.add(consumer);
+
+        assertEquals(1, relay.relay());
+
+        InOrder inOrder = inOrder(transactionManager, repository, consumer);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(repository).claimPending(Limit.of(3));
+        inOrder.verify(consumer).accept(any(TransactionsBookedEvent.class));
+        inOrder.verify(repository).markPublished(anyCollection(), any(LocalDateTime.class));
+        inOrder.verify(transactionManager).commit(any());
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    // A falha é relançada só depois do commit, para a tentativa contada na linha não ser desfeita
+    @Test
+    void shouldCommitTheRecordedFailureBeforeRethrowing() throws Exception {
+        when(repository.claimPending(Limit.of(3))).thenReturn(List.of(row(transaction("10.00"))));
+        consumers.add(event -> {
+            throw new IllegalStateException("projection unavailable");
+        });
+
+        assertThrows(IllegalStateException.class, relay::relay);
+
+        InOrder inOrder = inOrder(repository, transactionManager);
+        inOrder.verify(repository).recordFailure(any(UUID.class), eq(1), isNull(), eq("projection unavailable"));
+        inOrder.verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void shouldLeaveTheBatchPendingWhenAConsumerFails() throws Exception {
+        when(repository.claimPending(Limit.of(3))).thenReturn(List.of(row(transaction("10.00"))));
+        List<TransactionsBookedEvent> received = new ArrayList<>();
+        consumers.add(received::add);
+        consumers.add(event -> {
+            throw new IllegalStateException("projection unavailable");
+        });
+
+        assertThrows(IllegalStateException.class, relay::relay);
+
+        // O primeiro consumidor já recebeu e vai receber de novo: entrega pelo menos uma vez
+        assertEquals(1, received.size());
+        verify(repository, never()).markPublished(anyCollection(), any(LocalDateTime.class));
+        verify(repository).recordFailure(any(UUID.class), eq(1), isNull(), eq("projection unavailable"));
+    }
+
+    // O lote que falha é refeito um a um: quem vem antes do evento recusado é entregue e marcado
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPublishTheEventsBeforeTheOneThatFails() throws Exception {
+        TransactionResponseDTO first = transaction("10.00");
+        TransactionResponseDTO refused = transaction("20.00");
+        List<TransactionOutboxEvent> pending = List.of(row(first), row(refused), row(transaction("30.00")));
+        when(repository.claimPending(Limit.of(3))).thenReturn(pending);
+        List<TransactionsBookedEvent> received = new ArrayList<>();
+        consumers.add(event -> {
+            if (event.transactions().contains(refused)) {
+                throw new IllegalStateException("refused");
+            }
+            received.add(event);
+        });
+
+        assertThrows(IllegalStateException.class, relay::relay);
+
+        assertEquals(List.of(new TransactionsBookedEvent(List.of(first))), received);
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).markPublished(ids.capture(), any(LocalDateTime.class));
+        assertEquals(List.of(pending.get(0).getId()), List.copyOf(ids.getValue()));
+        verify(repository).recordFailure(eq(pending.get(1).getId()), eq(1), isNull(), eq("refused"));
+    }
+
+    // Payload ilegível nunca vai ser entregue: o evento é estacionado e o relay segue
+    @Test
+    void shouldParkAnUnreadableEvent() throws Exception {
+        TransactionOutboxEvent unreadable = new TransactionOutboxEvent(UUID.randomUUID(), UUID.randomUUID(), "{",
+                LocalDateTime.now(), null, 2, null, "Could not read outbox event payload");
+        when(repository.claimPending(Limit.of(3))).thenReturn(List.of(unreadable, row(transaction("10.00"))));
+        TransactionOutboxConsumer consumer = mock(TransactionOutboxConsumer.class);
+        consumers.add(consumer);
+
+        assertEquals(0, relay.relay());
+
+        verify(repository).recordFailure(eq(unreadable.getId()), eq(3), any(LocalDateTime.class),
+                eq("Could not read outbox event payload"));
+        verify(repository, never()).markPublished(anyCollection(), any(LocalDateTime.class));
+        verifyNoInteractions(consumer);
+        assertEquals(1, meterRegistry.counter("xpto.transactions.outbox.parked").count());
+    }
+
+    @Test
+    void shouldParkAnEventRejectedByAConsumer() throws Exception {
+        TransactionResponseDTO first = transaction("10.00");
+        TransactionOutboxEvent rejected = row(transaction("20.00"));
+        when(repository.claimPending(Limit.of(3))).thenReturn(List.of(row(first), rejected));
+        List<TransactionsBookedEvent> received = new ArrayList<>();
+        consumers.add(event -> {
+            if (event.transactions().stream().anyMatch(transaction -> transaction.id().equals(rejected.getTransactionId()))) {
+                throw new UndeliverableOutboxEventException("unknown account");
+            }
+            received.add(event);
+        });
+
+        assertEquals(1, relay.relay());
+
+        assertEquals(List.of(new TransactionsBookedEvent(List.of(first))), received);
+        verify(repository).recordFailure(eq(rejected.getId()), eq(1), any(LocalDateTime.class), eq("unknown account"));
+        assertEquals(1, meterRegistry.counter("xpto.transactions.outbox.parked").count());
+    }
+
+    // Falha que não é do evento (consumidor fora do ar) é refeita sem limite, por mais tentativas que já tenha
+    @Test
+    void shouldNeverParkAnEventOnAnOrdinaryFailure() {
+        TransactionResponseDTO transaction = transaction("10.00");
+        TransactionOutboxEvent failing = new TransactionOutboxEvent(UUID.randomUUID(), transaction.id(),
+                "{\"id\":\"" + transaction.id() + "\"}", LocalDateTime.now(), null, 50, null, "projection unavailable");
+        when(repository.claimPending(Limit.of(3))).thenReturn(List.of(failing));
+        consumers.add(event -> {
+            throw new IllegalStateException("projection unavailable");
+        });
+
+        assertThrows(IllegalStateException.class, relay::relay);
+
+        verify(repository).recordFailure(eq(failing.getId()), eq(51), isNull(), eq("projection unavailable"));
+        assertEquals(0, meterRegistry.counter("xpto.transactions.outbox.parked").count());
+    }
+
+    @Test
+    void shouldRequeueParkedEventsOnRedrive() {
+        when(repository.redriveParked()).thenReturn(2);
+
+        assertEquals(2, relay.redriveParked());
+    }
+
+    @Test
+    void shouldDoNothingWithoutPendingEvents() {
+        when(repository.claimPending(Limit.of(3))).thenReturn(List.of());
+        TransactionOutboxConsumer consumer = mock(TransactionOutboxConsumer.class);
+        consumers.add(consumer);
+
+        assertEquals(0, relay.relay());
+
+        verifyNoInteractions(consumer);
+        verify(repository, never()).markPublished(anyCollection(), any(LocalDateTime.class));
+    }
+
+    private TransactionOutboxEvent row(TransactionResponseDTO transaction) throws Exception {
+        return new TransactionOutboxEvent(UUID.randomUUID(), transaction.id(), objectMapper.writeValueAsString(transaction),
+                LocalDateTime.now(), null, 0, null, null);
+    }
+
+    private static TransactionResponseDTO transaction(String amount) {
+        return new TransactionResponseDTO(UUID.randomUUID(), UUID.randomUUID(), TransactionType.CREDIT,
+                new BigDecimal(amount), LocalDateTime.of(2025, 3, 1, 10, 30), "Pix");
+    }
+}
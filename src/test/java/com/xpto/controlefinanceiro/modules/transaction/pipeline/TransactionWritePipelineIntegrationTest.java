@@ -0,0 +1,157 @@
+package com.xpto.controlefinanceiro.modules.transaction.pipeline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "xpto.transactions.pipeline.enabled=true",
+        "xpto.transactions.pipeline.max-batch-size=16",
+        "xpto.transactions.pipeline.max-wait=5ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionWritePipelineIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 40;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransactionWritePipeline pipeline;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        customer = new Customer();
+        customer.setName("Cliente Pipeline");
+        customer.setPhone("81999990003");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+    }
+
+    @Test
+    void shouldGroupConcurrentRequestsWithoutLosingUpdates() throws Exception {
+        List<UUID> accountIds = List.of(createAccount("P-1").getId(), createAccount("P-2").getId());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    boolean credit = i % 2 == 0;
+                    pipeline.create(new TransactionRequestDTO(accountIds.get((thread + i) % 2),
+                            credit ? TransactionType.CREDIT : TransactionType.DEBIT,
+                            credit ? new BigDecimal("5.00") : new BigDecimal("3.00"), "Pipeline"));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        int perAccount = THREADS * OPERATIONS_PER_THREAD / 2;
+        BigDecimal expected = INITIAL_BALANCE
+                .add(new BigDecimal("5.00").multiply(BigDecimal.valueOf(perAccount / 2)))
+                .subtract(new BigDecimal("3.00").multiply(BigDecimal.valueOf(perAccount / 2)));
+        for (UUID accountId : accountIds) {
+            assertEquals(0, expected.compareTo(accountRepository.findById(accountId).orElseThrow().getBalance()));
+            assertEquals(perAccount, transactionRepository.findByAccountId(accountId).size());
+        }
+    }
+
+    @Test
+    void shouldAnswerTheRouteThroughThePipeline() throws Exception {
+        UUID accountId = createAccount("P-3").getId();
+
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransactionRequestDTO(accountId, TransactionType.DEBIT, new BigDecimal("250.00"), "Aluguel"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.accountId").value(accountId.toString()))
+                .andExpect(jsonPath("$.amount").value(250.0));
+
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransactionRequestDTO(accountId, TransactionType.DEBIT, new BigDecimal("5000.00"), "Alto demais"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Insufficient balance to perform this debit transaction"));
+
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransactionRequestDTO(UUID.randomUUID(), TransactionType.CREDIT, BigDecimal.TEN, null))))
+                .andExpect(status().isNotFound());
+
+        assertEquals(0, new BigDecimal("750.00").compareTo(accountRepository.findById(accountId).orElseThrow().getBalance()));
+    }
+
+    private Account createAccount(String number) {
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setBank("XPTO Bank");
+        account.setAgency("0001");
+        account.setNumber(number);
+        account.setInitialBalance(INITIAL_BALANCE);
+        account.setBalance(INITIAL_BALANCE);
+        return accountRepository.save(account);
+    }
+}
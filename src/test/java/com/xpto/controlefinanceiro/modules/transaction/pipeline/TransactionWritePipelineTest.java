@@ -0,0 +1,201 @@
+package com.xpto.controlefinanceiro.modules.transaction.pipeline;
+
+import com.xpto.controlefinanceiro.modules.account.exceptions.AccountNotFoundException;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionBatchItemResultDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionBatchResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.BatchRejectionReason;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.TransactionBatchRolledBackException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.TransactionPipelineFullException;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransactionWritePipelineTest {
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private TransactionService transactionService;
+    private TransactionWritePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = mock(TransactionService.class);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void shouldWriteRequestsThatArriveTogetherInOneBatch() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionService.createBatch(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return acceptAll(invocation.getArgument(0));
+        }).thenAnswer(invocation -> acceptAll(invocation.getArgument(0)));
+        pipeline = start(3, Duration.ofMillis(1), 100);
+
+        // O primeiro ocupa a escritora; os três seguintes chegam enquanto ela grava e saem no mesmo lote
+        CompletableFuture<TransactionResponseDTO> first = pipeline.submit(request("1.00"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<TransactionResponseDTO>> next = List.of(
+                pipeline.submit(request("2.00")), pipeline.submit(request("3.00")), pipeline.submit(request("4.00")));
+        release.countDown();
+
+        assertEquals(new BigDecimal("1.00"), first.get(5, TimeUnit.SECONDS).amount());
+        for (int i = 0; i < next.size(); i++) {
+            assertEquals(new BigDecimal((i + 2) + ".00"), next.get(i).get(5, TimeUnit.SECONDS).amount());
+        }
+        verify(transactionService, times(2)).createBatch(anyList());
+        verify(transactionService).createBatch(argThat(items -> items.size() == 3));
+    }
+
+    @Test
+    void shouldCompleteEachRequestWithItsOwnRejection() {
+        when(transactionService.createBatch(anyList())).thenAnswer(invocation -> {
+            List<TransactionRequestDTO> items = invocation.getArgument(0);
+            List<TransactionBatchItemResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                TransactionRequestDTO item = items.get(i);
+                results.add(switch (item.description()) {
+                    case "missing" -> TransactionBatchItemResultDTO.rejected(i, BatchRejectionReason.ACCOUNT_NOT_FOUND, "Account not found with id: x");
+                    case "poor" -> TransactionBatchItemResultDTO.rejected(i, BatchRejectionReason.INSUFFICIENT_BALANCE, "Insufficient balance to perform this debit transaction");
+                    default -> TransactionBatchItemResultDTO.accepted(i, response(item));
+                });
+            }
+            return new TransactionBatchResponseDTO(0, 0, results);
+        });
+        pipeline = start(10, Duration.ofMillis(50), 100);
+
+        CompletableFuture<TransactionResponseDTO> ok = pipeline.submit(request("1.00", "ok"));
+        CompletableFuture<TransactionResponseDTO> missing = pipeline.submit(request("1.00", "missing"));
+        CompletableFuture<TransactionResponseDTO> poor = pipeline.submit(request("1.00", "poor"));
+
+        assertEquals("ok", ok.join().description());
+        assertInstanceOf(AccountNotFoundException.class, assertThrows(ExecutionException.class, missing::get).getCause());
+        InsufficientBalanceException error = assertThrows(InsufficientBalanceException.class,
+                () -> pipeline.create(request("1.00", "poor")));
+        assertEquals("Insufficient balance to perform this debit transaction", error.getMessage());
+        assertInstanceOf(InsufficientBalanceException.class, assertThrows(ExecutionException.class, poor::get).getCause());
+    }
+
+    @Test
+    void shouldRetryItemByItemWhenTheWholeBatchRolledBack() {
+        when(transactionService.createBatch(anyList())).thenThrow(new TransactionBatchRolledBackException(
+                "Transaction batch rolled back before commit", new DataIntegrityViolationException("boom")));
+        when(transactionService.create(any(TransactionRequestDTO.class))).thenAnswer(invocation -> {
+            TransactionRequestDTO item = invocation.getArgument(0);
+            if ("bad".equals(item.description())) {
+                throw new DataIntegrityViolationException("bad item");
+            }
+            return response(item);
+        });
+        pipeline = start(10, Duration.ofMillis(50), 100);
+
+        CompletableFuture<TransactionResponseDTO> good = pipeline.submit(request("1.00", "good"));
+        CompletableFuture<TransactionResponseDTO> bad = pipeline.submit(request("1.00", "bad"));
+
+        assertEquals("good", good.join().description());
+        assertInstanceOf(DataIntegrityViolationException.class, assertThrows(ExecutionException.class, bad::get).getCause());
+    }
+
+    // Falha no commit: o lote pode ter sido gravado, então nenhum item é refeito
+    @Test
+    void shouldFailEveryItemWithoutRetryingWhenTheCommitFails() {
+        TransactionSystemException commitFailure = new TransactionSystemException("Could not commit JPA transaction");
+        when(transactionService.createBatch(anyList())).thenThrow(commitFailure);
+        pipeline = start(10, Duration.ofMillis(50), 100);
+
+        CompletableFuture<TransactionResponseDTO> first = pipeline.submit(request("1.00", "first"));
+        CompletableFuture<TransactionResponseDTO> second = pipeline.submit(request("2.00", "second"));
+
+        assertSame(commitFailure, assertThrows(ExecutionException.class, first::get).getCause());
+        assertSame(commitFailure, assertThrows(ExecutionException.class, second::get).getCause());
+        verify(transactionService, never()).create(any(TransactionRequestDTO.class));
+    }
+
+    @Test
+    void shouldRejectWhenTheQueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionService.createBatch(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return acceptAll(invocation.getArgument(0));
+        });
+        pipeline = start(1, Duration.ZERO, 1);
+
+        CompletableFuture<TransactionResponseDTO> inFlight = pipeline.submit(request("1.00"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<TransactionResponseDTO> queued = pipeline.submit(request("2.00"));
+
+        assertThrows(TransactionPipelineFullException.class, () -> pipeline.submit(request("3.00")));
+
+        release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldRefuseSubmissionsWhenDisabled() {
+        pipeline = new TransactionWritePipeline(transactionService, new SimpleMeterRegistry(), false, 10, Duration.ZERO, 10);
+
+        assertFalse(pipeline.isEnabled());
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(request("1.00")));
+        verifyNoInteractions(transactionService);
+    }
+
+    private TransactionWritePipeline start(int maxBatchSize, Duration maxWait, int queueCapacity) {
+        return new TransactionWritePipeline(transactionService, new SimpleMeterRegistry(), true, maxBatchSize, maxWait, queueCapacity);
+    }
+
+    private TransactionRequestDTO request(String amount) {
+        return request(amount, null);
+    }
+
+    private TransactionRequestDTO request(String amount, String description) {
+        return new TransactionRequestDTO(accountId, TransactionType.CREDIT, new BigDecimal(amount), description);
+    }
+
+    private static TransactionBatchResponseDTO acceptAll(List<TransactionRequestDTO> items) {
+        List<TransactionBatchItemResultDTO> results = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            results.add(TransactionBatchItemResultDTO.accepted(i, response(items.get(i))));
+        }
+        return new TransactionBatchResponseDTO(results.size(), 0, results);
+    }
+
+    private static TransactionResponseDTO response(TransactionRequestDTO request) {
+        return new TransactionResponseDTO(UUID.randomUUID(), request.accountId(), request.type(), request.amount(),
+                LocalDateTime.now(), request.description());
+    }
+}
@@ -0,0 +1,139 @@
+package com.xpto.controlefinanceiro.modules.transaction.services;
+
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionConcurrencyIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 40;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("10000.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        customer = new Customer();
+        customer.setName("Cliente Concorrência");
+        customer.setPhone("81999990000");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+    }
+
+    @Test
+    void shouldNotLoseUpdatesWhenManyThreadsWriteToTheSameAccount() throws Exception {
+        Account account = createAccount("0001-1");
+
+        BigDecimal credits = new BigDecimal("5.00").multiply(BigDecimal.valueOf(THREADS * OPERATIONS_PER_THREAD / 2));
+        BigDecimal debits = new BigDecimal("3.00").multiply(BigDecimal.valueOf(THREADS * OPERATIONS_PER_THREAD / 2));
+
+        runConcurrently(List.of(account.getId()));
+
+        Account reloaded = accountRepository.findById(account.getId()).orElseThrow();
+        assertEquals(0, INITIAL_BALANCE.add(credits).subtract(debits).compareTo(reloaded.getBalance()));
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, transactionRepository.findByAccountId(account.getId()).size());
+    }
+
+    @Test
+    void shouldKeepEveryAccountConsistentWhenThreadsWriteToDifferentAccounts() throws Exception {
+        List<UUID> accountIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accountIds.add(createAccount("0002-" + i).getId());
+        }
+
+        runConcurrently(accountIds);
+
+        int operationsPerAccount = THREADS * OPERATIONS_PER_THREAD / accountIds.size();
+        BigDecimal credits = new BigDecimal("5.00").multiply(BigDecimal.valueOf(operationsPerAccount / 2));
+        BigDecimal debits = new BigDecimal("3.00").multiply(BigDecimal.valueOf(operationsPerAccount / 2));
+
+        for (UUID accountId : accountIds) {
+            Account reloaded = accountRepository.findById(accountId).orElseThrow();
+            assertEquals(0, INITIAL_BALANCE.add(credits).subtract(debits).compareTo(reloaded.getBalance()));
+        }
+    }
+
+    private void runConcurrently(List<UUID> accountIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    UUID accountId = accountIds.get((thread + i) % accountIds.size());
+                    boolean credit = i % 2 == 0;
+                    transactionService.create(new TransactionRequestDTO(
+                            accountId,
+                            credit ? TransactionType.CREDIT : TransactionType.DEBIT,
+                            credit ? new BigDecimal("5.00") : new BigDecimal("3.00"),
+                            "Stress"
+                    ));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private Account createAccount(String number) {
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setBank("XPTO Bank");
+        account.setAgency("0001");
+        account.setNumber(number);
+        account.setInitialBalance(INITIAL_BALANCE);
+        account.setBalance(INITIAL_BALANCE);
+        return accountRepository.save(account);
+    }
+}
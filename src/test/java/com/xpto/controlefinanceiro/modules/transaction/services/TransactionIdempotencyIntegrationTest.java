@@ -0,0 +1,151 @@
+package com.xpto.controlefinanceiro.modules.transaction.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.snapshot.service.BalanceSnapshotService;
+import com.xpto.controlefinanceiro.modules.transaction.concurrency.AccountLockStripes;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.idempotency.TransactionIdempotencyStore;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionIdempotencyKeyRepository;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionIdempotencyIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionIdempotencyStore idempotencyStore;
+
+    @Autowired
+    private TransactionIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Account account;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer customer = new Customer();
+        customer.setName("Cliente Idempotência");
+        customer.setPhone("81999990001");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+
+        account = new Account();
+        account.setCustomer(customer);
+        account.setBank("XPTO Bank");
+        account.setAgency("0001");
+        account.setNumber("I-1");
+        account.setInitialBalance(INITIAL_BALANCE);
+        account.setBalance(INITIAL_BALANCE);
+        account = accountRepository.save(account);
+    }
+
+    @Test
+    void shouldReplayFromTheDatabaseAfterTheMemoryIsLost() {
+        String key = UUID.randomUUID().toString();
+        TransactionRequestDTO dto = new TransactionRequestDTO(account.getId(), TransactionType.DEBIT, new BigDecimal("100.00"), "Boleto");
+
+        TransactionResponseDTO first = transactionService.create(dto, key);
+        idempotencyStore.invalidateAll();
+        TransactionResponseDTO retry = transactionService.create(dto, key);
+
+        assertEquals(first, retry);
+        assertTrue(idempotencyKeyRepository.existsById(key));
+        assertEquals(1, transactionRepository.findByAccountId(account.getId()).size());
+        assertEquals(0, new BigDecimal("900.00").compareTo(accountRepository.findById(account.getId()).orElseThrow().getBalance()));
+    }
+
+    // Reenvios simultâneos divididos entre duas instâncias do serviço, cada uma com seus locks e sua memória
+    // (como dois nós): só uma movimentação sobrevive e todos recebem a mesma resposta
+    @Test
+    void shouldCreateOnlyOneTransactionForConcurrentRetriesOnTwoNodes() throws Exception {
+        TransactionIdempotencyStore otherStore = new TransactionIdempotencyStore(idempotencyKeyRepository, objectMapper,
+                transactionManager, new SimpleMeterRegistry(), 100, Duration.ofHours(24), Duration.ZERO);
+        TransactionService otherNode = new TransactionServiceImpl(transactionRepository, accountRepository, customerRepository,
+                new AccountLockStripes(256), balanceSnapshotService, eventPublisher, transactionManager, 1000, 500, otherStore);
+
+        String key = UUID.randomUUID().toString();
+        TransactionRequestDTO dto = new TransactionRequestDTO(account.getId(), TransactionType.CREDIT, new BigDecimal("10.00"), "Retry");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TransactionResponseDTO>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            TransactionService node = t % 2 == 0 ? transactionService : otherNode;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return node.create(dto, key);
+            }));
+        }
+
+        start.countDown();
+        UUID transactionId = futures.get(0).get(60, TimeUnit.SECONDS).id();
+        for (Future<TransactionResponseDTO> future : futures) {
+            assertEquals(transactionId, future.get(60, TimeUnit.SECONDS).id());
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, transactionRepository.findByAccountId(account.getId()).size());
+        assertEquals(0, new BigDecimal("1010.00").compareTo(accountRepository.findById(account.getId()).orElseThrow().getBalance()));
+    }
+}
@@ -1,24 +1,49 @@
 package com.xpto.controlefinanceiro.modules.transaction.services;
 
+import com.xpto.controlefinanceiro.common.events.AccountBalanceChangedEvent;
+import com.xpto.controlefinanceiro.common.events.CustomerDataChangedEvent;
 import com.xpto.controlefinanceiro.modules.account.exceptions.AccountNotFoundException;
 import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.projections.AccountBalanceRow;
 import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
 import com.xpto.controlefinanceiro.modules.customer.exceptions.CustomerNotFoundException;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
 import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.snapshot.service.BalanceSnapshotService;
+import com.xpto.controlefinanceiro.modules.transaction.concurrency.AccountLockStripes;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionBatchResponseDTO;
 import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionRequestDTO;
 import com.xpto.controlefinanceiro.modules.transaction.dtos.TransactionResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferResponseDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.BatchItemStatus;
+import com.xpto.controlefinanceiro.modules.transaction.enums.BatchRejectionReason;
 import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.BatchSizeExceededException;
 import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InvalidCursorException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InvalidIdempotencyKeyException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InvalidTransferException;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.TransactionBatchRolledBackException;
+import com.xpto.controlefinanceiro.modules.transaction.idempotency.TransactionIdempotencyStore;
 import com.xpto.controlefinanceiro.modules.transaction.model.Transaction;
+import com.xpto.controlefinanceiro.modules.transaction.pagination.TransactionCursor;
 import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
 
 import com.xpto.controlefinanceiro.modules.transaction.service.TransactionServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +56,9 @@ class TransactionServiceImplTest {
     private TransactionRepository transactionRepository;
     private AccountRepository accountRepository;
     private CustomerRepository customerRepository;
+    private BalanceSnapshotService balanceSnapshotService;
+    private ApplicationEventPublisher eventPublisher;
+    private TransactionIdempotencyStore idempotencyStore;
 
     private TransactionServiceImpl transactionService;
 
@@ -39,11 +67,21 @@ class TransactionServiceImplTest {
         transactionRepository = mock(TransactionRepository.class);
         accountRepository = mock(AccountRepository.class);
         customerRepository = mock(CustomerRepository.class);
+        balanceSnapshotService = mock(BalanceSnapshotService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        idempotencyStore = mock(TransactionIdempotencyStore.class);
 
         transactionService = new TransactionServiceImpl(
                 transactionRepository,
                 accountRepository,
-                customerRepository
+                customerRepository,
+                new AccountLockStripes(16),
+                balanceSnapshotService,
+                eventPublisher,
+                mock(PlatformTransactionManager.class),
+                1000,
+                500,
+                idempotencyStore
         );
     }
 
@@ -73,8 +111,11 @@ class TransactionServiceImplTest {
                 .date(LocalDateTime.now())
                 .build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountRepository.save(any())).thenReturn(account);
+        UUID customerId = UUID.randomUUID();
+        when(accountRepository.credit(accountId, amount)).thenReturn(1);
+        when(accountRepository.getReferenceById(accountId)).thenReturn(account);
+        when(accountRepository.findBalanceRowById(accountId))
+                .thenReturn(Optional.of(new AccountBalanceRow(accountId, customerId, new BigDecimal("300.00"))));
         when(transactionRepository.save(any())).thenReturn(transaction);
 
         TransactionResponseDTO response = transactionService.create(dto);
@@ -85,7 +126,12 @@ class TransactionServiceImplTest {
         assertEquals(amount, response.amount());
         assertEquals("Salary", response.description());
 
-        assertEquals(new BigDecimal("300.00"), account.getBalance());
+        verify(accountRepository).credit(accountId, amount);
+        verify(balanceSnapshotService).registerMovement(accountId, transaction.getDate().toLocalDate(), amount);
+        verify(eventPublisher).publishEvent(CustomerDataChangedEvent.transaction(customerId, accountId, transaction.getDate().toLocalDate()));
+        verify(eventPublisher).publishEvent(new AccountBalanceChangedEvent(accountId, customerId, new BigDecimal("300.00")));
+        verify(accountRepository, never()).findById(any());
+        verify(accountRepository, never()).save(any());
     }
 
     @Test
@@ -114,8 +160,10 @@ class TransactionServiceImplTest {
                 .date(LocalDateTime.now())
                 .build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountRepository.save(any())).thenReturn(account);
+        when(accountRepository.debit(accountId, amount)).thenReturn(1);
+        when(accountRepository.getReferenceById(accountId)).thenReturn(account);
+        when(accountRepository.findBalanceRowById(accountId))
+                .thenReturn(Optional.of(new AccountBalanceRow(accountId, UUID.randomUUID(), new BigDecimal("150.00"))));
         when(transactionRepository.save(any())).thenReturn(transaction);
 
         TransactionResponseDTO response = transactionService.create(dto);
@@ -126,7 +174,9 @@ class TransactionServiceImplTest {
         assertEquals(amount, response.amount());
         assertEquals("Groceries", response.description());
 
-        assertEquals(new BigDecimal("150.00"), account.getBalance());
+        verify(accountRepository).debit(accountId, amount);
+        verify(balanceSnapshotService).registerMovement(accountId, transaction.getDate().toLocalDate(), amount.negate());
+        verify(accountRepository, never()).save(any());
     }
 
     @Test
@@ -146,13 +196,15 @@ class TransactionServiceImplTest {
                 "Big Purchase"
         );
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
+        when(accountRepository.debit(accountId, amount)).thenReturn(0);
+        when(accountRepository.existsById(accountId)).thenReturn(true);
 
         assertThrows(InsufficientBalanceException.class, () -> {
             transactionService.create(dto);
         });
 
         verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(balanceSnapshotService);
     }
 
     @Test
@@ -166,7 +218,8 @@ class TransactionServiceImplTest {
                 "Some desc"
         );
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.empty());
+        when(accountRepository.credit(any(), any())).thenReturn(0);
+        when(accountRepository.existsById(accountId)).thenReturn(false);
 
         assertThrows(AccountNotFoundException.class, () -> {
             transactionService.create(dto);
@@ -196,13 +249,14 @@ class TransactionServiceImplTest {
                 .date(LocalDateTime.now())
                 .build();
 
-        when(transactionRepository.findAll()).thenReturn(List.of(transaction1, transaction2));
+        when(transactionRepository.findPage(Limit.of(51))).thenReturn(List.of(transaction1, transaction2));
 
-        var result = transactionService.findAll();
+        var result = transactionService.findAll(null, 50);
 
-        assertEquals(2, result.size());
-        assertEquals(transaction1.getId(), result.get(0).id());
-        assertEquals(transaction2.getId(), result.get(1).id());
+        assertEquals(2, result.items().size());
+        assertEquals(transaction1.getId(), result.items().get(0).id());
+        assertEquals(transaction2.getId(), result.items().get(1).id());
+        assertNull(result.nextCursor());
     }
 
 
@@ -221,12 +275,12 @@ class TransactionServiceImplTest {
                 .date(LocalDateTime.now())
                 .build();
 
-        when(transactionRepository.findByAccountId(accountId)).thenReturn(List.of(transaction));
+        when(transactionRepository.findPageByAccountId(accountId, Limit.of(51))).thenReturn(List.of(transaction));
 
-        var result = transactionService.findByAccount(accountId);
+        var result = transactionService.findByAccount(accountId, null, 50);
 
-        assertEquals(1, result.size());
-        assertEquals(accountId, result.get(0).accountId());
+        assertEquals(1, result.items().size());
+        assertEquals(accountId, result.items().get(0).accountId());
     }
 
     @Test
@@ -236,10 +290,10 @@ class TransactionServiceImplTest {
         when(accountRepository.existsById(accountId)).thenReturn(false);
 
         assertThrows(AccountNotFoundException.class, () -> {
-            transactionService.findByAccount(accountId);
+            transactionService.findByAccount(accountId, null, 50);
         });
 
-        verify(transactionRepository, never()).findByAccountId(accountId);
+        verify(transactionRepository, never()).findPageByAccountId(eq(accountId), any());
     }
 
     @Test
@@ -258,13 +312,13 @@ class TransactionServiceImplTest {
                 .date(LocalDateTime.now())
                 .build();
 
-        when(transactionRepository.findByAccountCustomerId(customerId)).thenReturn(List.of(transaction));
+        when(transactionRepository.findPageByCustomerId(customerId, Limit.of(51))).thenReturn(List.of(transaction));
 
-        var result = transactionService.findByCustomer(customerId);
+        var result = transactionService.findByCustomer(customerId, null, 50);
 
-        assertEquals(1, result.size());
-        assertEquals(transaction.getId(), result.get(0).id());
-        assertEquals(accountId, result.get(0).accountId());
+        assertEquals(1, result.items().size());
+        assertEquals(transaction.getId(), result.items().get(0).id());
+        assertEquals(accountId, result.items().get(0).accountId());
     }
 
     @Test
@@ -274,10 +328,234 @@ class TransactionServiceImplTest {
         when(customerRepository.existsById(customerId)).thenReturn(false);
 
         assertThrows(CustomerNotFoundException.class, () -> {
-            transactionService.findByCustomer(customerId);
+            transactionService.findByCustomer(customerId, null, 50);
+        });
+
+        verify(transactionRepository, never()).findPageByCustomerId(eq(customerId), any());
+    }
+
+    @Test
+    void shouldApplyBatchPerAccountAndRejectItemsIndividually() {
+        UUID accountId = UUID.randomUUID();
+        UUID missingAccountId = UUID.randomUUID();
+
+        Customer customer = Customer.builder().id(UUID.randomUUID()).build();
+
+        Account account = Account.builder()
+                .id(accountId)
+                .customer(customer)
+                .balance(new BigDecimal("100.00"))
+                .build();
+
+        List<TransactionRequestDTO> batch = List.of(
+                new TransactionRequestDTO(accountId, TransactionType.DEBIT, new BigDecimal("80.00"), "D1"),
+                new TransactionRequestDTO(accountId, TransactionType.DEBIT, new BigDecimal("50.00"), "D2"),
+                new TransactionRequestDTO(missingAccountId, TransactionType.CREDIT, new BigDecimal("10.00"), "C1"),
+                new TransactionRequestDTO(accountId, TransactionType.CREDIT, new BigDecimal("30.00"), "C2"),
+                new TransactionRequestDTO(accountId, null, new BigDecimal("30.00"), "Invalid")
+        );
+
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(List.of(account));
+        when(transactionRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Transaction> saved = new ArrayList<>();
+            for (Transaction t : invocation.<Iterable<Transaction>>getArgument(0)) {
+                t.setId(UUID.randomUUID());
+                saved.add(t);
+            }
+            return saved;
+        });
+
+        TransactionBatchResponseDTO response = transactionService.createBatch(batch);
+
+        assertEquals(2, response.accepted());
+        assertEquals(3, response.rejected());
+        assertEquals(BatchItemStatus.ACCEPTED, response.results().get(0).status());
+        assertEquals(BatchRejectionReason.INSUFFICIENT_BALANCE, response.results().get(1).reason());
+        assertEquals(BatchRejectionReason.ACCOUNT_NOT_FOUND, response.results().get(2).reason());
+        assertEquals(BatchItemStatus.ACCEPTED, response.results().get(3).status());
+        assertEquals(BatchRejectionReason.INVALID_REQUEST, response.results().get(4).reason());
+
+        assertEquals(new BigDecimal("50.00"), account.getBalance());
+        verify(balanceSnapshotService).registerMovement(accountId, LocalDate.now(), new BigDecimal("-50.00"));
+        verify(balanceSnapshotService, never()).registerMovement(eq(missingAccountId), any(), any());
+        verify(eventPublisher).publishEvent(CustomerDataChangedEvent.transaction(customer.getId(), accountId, LocalDate.now()));
+        verify(eventPublisher).publishEvent(new AccountBalanceChangedEvent(accountId, customer.getId(), new BigDecimal("50.00")));
+        verify(accountRepository, never()).credit(any(), any());
+        verify(accountRepository, never()).debit(any(), any());
+    }
+
+    @Test
+    void shouldTransferBetweenAccountsInOneTransaction() {
+        Customer customer = Customer.builder().id(UUID.randomUUID()).build();
+        Account from = Account.builder().id(UUID.randomUUID()).customer(customer).balance(new BigDecimal("100.00")).build();
+        Account to = Account.builder().id(UUID.randomUUID()).customer(customer).balance(new BigDecimal("10.00")).build();
+
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(List.of(to, from));
+        when(transactionRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransferResponseDTO response = transactionService.transfer(
+                new TransferRequestDTO(from.getId(), to.getId(), new BigDecimal("40.00"), "Aluguel"));
+
+        assertEquals(TransactionType.DEBIT, response.debit().type());
+        assertEquals(from.getId(), response.debit().accountId());
+        assertEquals(TransactionType.CREDIT, response.credit().type());
+        assertEquals(to.getId(), response.credit().accountId());
+        assertEquals(new BigDecimal("60.00"), from.getBalance());
+        assertEquals(new BigDecimal("50.00"), to.getBalance());
+
+        verify(balanceSnapshotService).registerMovement(from.getId(), LocalDate.now(), new BigDecimal("-40.00"));
+        verify(balanceSnapshotService).registerMovement(to.getId(), LocalDate.now(), new BigDecimal("40.00"));
+        verify(eventPublisher).publishEvent(new AccountBalanceChangedEvent(from.getId(), customer.getId(), new BigDecimal("60.00")));
+        verify(eventPublisher).publishEvent(new AccountBalanceChangedEvent(to.getId(), customer.getId(), new BigDecimal("50.00")));
+        verify(accountRepository, never()).credit(any(), any());
+        verify(accountRepository, never()).debit(any(), any());
+    }
+
+    @Test
+    void shouldNotMoveAnythingWhenTheTransferExceedsTheBalance() {
+        Account from = Account.builder().id(UUID.randomUUID()).balance(new BigDecimal("10.00")).build();
+        Account to = Account.builder().id(UUID.randomUUID()).balance(new BigDecimal("10.00")).build();
+
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(List.of(from, to));
+
+        assertThrows(InsufficientBalanceException.class, () -> transactionService.transfer(
+                new TransferRequestDTO(from.getId(), to.getId(), new BigDecimal("10.01"), null)));
+
+        assertEquals(new BigDecimal("10.00"), from.getBalance());
+        assertEquals(new BigDecimal("10.00"), to.getBalance());
+        verify(transactionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldRejectTransferWithMissingAccountOrSameAccount() {
+        UUID accountId = UUID.randomUUID();
+        Account from = Account.builder().id(accountId).balance(new BigDecimal("10.00")).build();
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(List.of(from));
+
+        assertThrows(AccountNotFoundException.class, () -> transactionService.transfer(
+                new TransferRequestDTO(accountId, UUID.randomUUID(), BigDecimal.ONE, null)));
+        assertThrows(InvalidTransferException.class, () -> transactionService.transfer(
+                new TransferRequestDTO(accountId, accountId, BigDecimal.ONE, null)));
+    }
+
+    @Test
+    void shouldReplayTheStoredResponseWithoutTouchingTheAccount() {
+        TransactionRequestDTO dto = new TransactionRequestDTO(UUID.randomUUID(), TransactionType.DEBIT, new BigDecimal("50.00"), "Boleto");
+        TransactionResponseDTO stored = new TransactionResponseDTO(UUID.randomUUID(), dto.accountId(), dto.type(),
+                dto.amount(), LocalDateTime.now(), dto.description());
+        when(idempotencyStore.findCached("key-1", TransactionIdempotencyStore.fingerprint(dto))).thenReturn(Optional.of(stored));
+
+        assertSame(stored, transactionService.create(dto, "key-1"));
+
+        verifyNoInteractions(accountRepository, transactionRepository, balanceSnapshotService, eventPublisher);
+    }
+
+    @Test
+    void shouldStoreTheIdempotencyKeyWithTheCreatedTransaction() {
+        UUID accountId = UUID.randomUUID();
+        UUID customerId = UUID.randomUUID();
+        BigDecimal amount = new BigDecimal("30.00");
+        Account account = Account.builder().id(accountId).build();
+        TransactionRequestDTO dto = new TransactionRequestDTO(accountId, TransactionType.CREDIT, amount, null);
+        String fingerprint = TransactionIdempotencyStore.fingerprint(dto);
+
+        when(idempotencyStore.findCached("key-2", fingerprint)).thenReturn(Optional.empty());
+        when(idempotencyStore.find("key-2", fingerprint)).thenReturn(Optional.empty());
+        when(accountRepository.credit(accountId, amount)).thenReturn(1);
+        when(accountRepository.getReferenceById(accountId)).thenReturn(account);
+        when(accountRepository.findBalanceRowById(accountId))
+                .thenReturn(Optional.of(new AccountBalanceRow(accountId, customerId, amount)));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            transaction.setId(UUID.randomUUID());
+            return transaction;
         });
 
-        verify(transactionRepository, never()).findByAccountCustomerId(customerId);
+        TransactionResponseDTO response = transactionService.create(dto, "key-2");
+
+        verify(idempotencyStore).save("key-2", fingerprint, response);
+        verify(idempotencyStore).remember("key-2", fingerprint, response);
+    }
+
+    @Test
+    void shouldRejectBlankIdempotencyKey() {
+        TransactionRequestDTO dto = new TransactionRequestDTO(UUID.randomUUID(), TransactionType.CREDIT, BigDecimal.ONE, null);
+
+        assertThrows(InvalidIdempotencyKeyException.class, () -> transactionService.create(dto, " "));
+        verifyNoInteractions(accountRepository, idempotencyStore);
+    }
+
+    // Falha de escrita dentro da transação do lote sobe marcada como desfeita antes do commit
+    @Test
+    void shouldReportABatchThatFailsInsideTheTransactionAsRolledBack() {
+        UUID accountId = UUID.randomUUID();
+        Account account = Account.builder()
+                .id(accountId)
+                .customer(Customer.builder().id(UUID.randomUUID()).build())
+                .balance(new BigDecimal("100.00"))
+                .build();
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(List.of(account));
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("duplicate key");
+        doThrow(failure).when(transactionRepository).flush();
+
+        TransactionBatchRolledBackException error = assertThrows(TransactionBatchRolledBackException.class, () ->
+                transactionService.createBatch(List.of(
+                        new TransactionRequestDTO(accountId, TransactionType.CREDIT, new BigDecimal("10.00"), "C1"))));
+
+        assertSame(failure, error.getCause());
+    }
+
+    @Test
+    void shouldRejectBatchAboveMaxSize() {
+        TransactionRequestDTO dto = new TransactionRequestDTO(
+                UUID.randomUUID(), TransactionType.CREDIT, BigDecimal.ONE, "x");
+
+        assertThrows(BatchSizeExceededException.class, () ->
+                transactionService.createBatch(Collections.nCopies(1001, dto)));
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenThereAreMoreRowsThanTheLimit() {
+        UUID accountId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(Transaction.builder()
+                    .id(UUID.randomUUID())
+                    .account(Account.builder().id(accountId).build())
+                    .amount(BigDecimal.TEN)
+                    .type(TransactionType.CREDIT)
+                    .date(now.minusMinutes(i))
+                    .build());
+        }
+
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        when(transactionRepository.findPageByAccountId(accountId, Limit.of(3))).thenReturn(rows);
+
+        var page = transactionService.findByAccount(accountId, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertNotNull(page.nextCursor());
+
+        TransactionCursor cursor = TransactionCursor.decode(page.nextCursor());
+        assertEquals(rows.get(1).getId(), cursor.id());
+        assertEquals(rows.get(1).getDate(), cursor.date());
+
+        when(transactionRepository.findPageByAccountIdAfter(accountId, cursor.date(), cursor.id(), Limit.of(3)))
+                .thenReturn(List.of(rows.get(2)));
+
+        var next = transactionService.findByAccount(accountId, page.nextCursor(), 2);
+
+        assertEquals(1, next.items().size());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> transactionService.findAll("not-a-cursor", 10));
     }
 
 
@@ -0,0 +1,164 @@
+package com.xpto.controlefinanceiro.modules.transaction.services;
+
+import com.xpto.controlefinanceiro.modules.account.model.Account;
+import com.xpto.controlefinanceiro.modules.account.repository.AccountRepository;
+import com.xpto.controlefinanceiro.modules.customer.enums.CustomerType;
+import com.xpto.controlefinanceiro.modules.customer.model.Customer;
+import com.xpto.controlefinanceiro.modules.customer.repository.CustomerRepository;
+import com.xpto.controlefinanceiro.modules.snapshot.service.BalanceSnapshotService;
+import com.xpto.controlefinanceiro.modules.transaction.concurrency.AccountLockStripes;
+import com.xpto.controlefinanceiro.modules.transaction.dtos.TransferRequestDTO;
+import com.xpto.controlefinanceiro.modules.transaction.enums.TransactionType;
+import com.xpto.controlefinanceiro.modules.transaction.exceptions.InsufficientBalanceException;
+import com.xpto.controlefinanceiro.modules.transaction.idempotency.TransactionIdempotencyStore;
+import com.xpto.controlefinanceiro.modules.transaction.repository.TransactionRepository;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionService;
+import com.xpto.controlefinanceiro.modules.transaction.service.TransactionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferConcurrencyIntegrationTest {
+
+    private static final int ACCOUNTS = 4;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 50;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionIdempotencyStore idempotencyStore;
+
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        customerRepository.deleteAll();
+        accountIds.clear();
+
+        Customer customer = new Customer();
+        customer.setName("Cliente Transferências");
+        customer.setPhone("81999990000");
+        customer.setCustomerType(CustomerType.PF);
+        customerRepository.save(customer);
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setCustomer(customer);
+            account.setBank("XPTO Bank");
+            account.setAgency("0001");
+            account.setNumber("T-" + i);
+            account.setInitialBalance(INITIAL_BALANCE);
+            account.setBalance(INITIAL_BALANCE);
+            accountIds.add(accountRepository.save(account).getId());
+        }
+    }
+
+    // Metade das threads gira o dinheiro num sentido do ciclo de contas e metade no outro, divididas entre
+    // duas instâncias do serviço com locks em memória separados (como dois nós da aplicação): quem evita o
+    // deadlock entre elas é a ordem de bloqueio das linhas no banco
+    @Test
+    void shouldMoveMoneyInCyclesWithoutDeadlockAndConserveTheTotal() throws Exception {
+        TransactionService otherNode = new TransactionServiceImpl(transactionRepository, accountRepository, customerRepository,
+                new AccountLockStripes(256), balanceSnapshotService, eventPublisher, transactionManager, 1000, 500, idempotencyStore);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<int[]>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            TransactionService node = t % 2 == 0 ? transactionService : otherNode;
+            int direction = t % 4 < 2 ? 1 : ACCOUNTS - 1;
+            futures.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(thread);
+                int completed = 0;
+                int rejected = 0;
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = (thread + i) % ACCOUNTS;
+                    int to = (from + direction) % ACCOUNTS;
+                    try {
+                        node.transfer(new TransferRequestDTO(accountIds.get(from), accountIds.get(to),
+                                BigDecimal.valueOf(random.nextInt(1, 4000), 2), "Ciclo"));
+                        completed++;
+                    } catch (InsufficientBalanceException e) {
+                        rejected++;
+                    }
+                }
+                return new int[]{completed, rejected};
+            }));
+        }
+
+        start.countDown();
+        int completed = 0;
+        int rejected = 0;
+        for (Future<int[]> future : futures) {
+            int[] result = future.get(60, TimeUnit.SECONDS);
+            completed += result[0];
+            rejected += result[1];
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, completed + rejected);
+        assertTrue(completed > 0);
+        assertEquals(2L * completed, transactionRepository.count());
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (UUID accountId : accountIds) {
+            BigDecimal balance = accountRepository.findById(accountId).orElseThrow().getBalance();
+            assertTrue(balance.signum() >= 0);
+            assertEquals(0, INITIAL_BALANCE.add(movement(accountId)).compareTo(balance));
+            total = total.add(balance);
+        }
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+    }
+
+    private BigDecimal movement(UUID accountId) {
+        return transactionRepository.findByAccountId(accountId).stream()
+                .map(t -> t.getType() == TransactionType.CREDIT ? t.getAmount() : t.getAmount().negate())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}